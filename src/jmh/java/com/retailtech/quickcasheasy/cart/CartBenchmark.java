@@ -0,0 +1,67 @@
+package com.retailtech.quickcasheasy.cart;
+
+import com.retailtech.quickcasheasy.database.BenchmarkDatabase;
+import com.retailtech.quickcasheasy.product.BenchmarkCatalog;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scan-to-total path of the cart: adding a scanned product and recomputing the basket total.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartBenchmark {
+
+    @Param({"10000"})
+    private int catalogSize;
+
+    @Param({"10", "50", "200"})
+    private int basketSize;
+
+    private BenchmarkDatabase database;
+    private String[] barcodes;
+    private CartService scanCart;  // Cleared after every basketSize scans
+    private CartService fullCart;  // Holds basketSize lines for getTotal
+    private int next;
+    private int scansInBasket;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.createSqlite();
+        List<String> catalog = BenchmarkCatalog.seed(catalogSize);
+        barcodes = catalog.toArray(new String[0]);
+        scanCart = new CartService(BenchmarkCatalog.newProductFacade());
+        fullCart = new CartService(BenchmarkCatalog.newProductFacade());
+        for (int i = 0; i < basketSize; i++) {
+            fullCart.addProductToCart(barcodes[i], 1 + i % 3);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public void addProductToCart() {
+        if (scansInBasket == basketSize) {
+            scanCart.clearCart();
+            scansInBasket = 0;
+        }
+        scanCart.addProductToCart(barcodes[next], 1);
+        next = (next + 1) % barcodes.length;
+        scansInBasket++;
+    }
+
+    @Benchmark
+    public BigDecimal getTotal() {
+        return fullCart.getTotal();
+    }
+}
@@ -0,0 +1,75 @@
+package com.retailtech.quickcasheasy.database;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Throwaway database for benchmarks.
+ * Points {@link DatabaseConnectionManager} at a temp file, so benchmarks never touch the lane's QCE.db.
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+
+    private final Path directory;
+    private final String previousJdbcUrl;
+
+    private BenchmarkDatabase(Path directory, String jdbcUrl) {
+        this.directory = directory;
+        this.previousJdbcUrl = System.getProperty(DatabaseConnectionManager.JDBC_URL_PROPERTY);
+        DatabaseConnectionManager.shutdown();
+        System.setProperty(DatabaseConnectionManager.JDBC_URL_PROPERTY, jdbcUrl);
+    }
+
+    /**
+     * Creates a SQLite database with the migrated application schema and the sample data from sample_data_insertion.sql.
+     *
+     * @return the open benchmark database
+     */
+    public static BenchmarkDatabase createSqlite() {
+        Path directory = createDirectory();
+        BenchmarkDatabase database = new BenchmarkDatabase(directory, "jdbc:sqlite:" + directory.resolve("QCE.db"));
+        new SchemaMigrator().migrate();
+        new DatabaseUtils().runScript("sample_data_insertion.sql");
+        return database;
+    }
+
+    /**
+     * Creates an empty file-based H2 database, for comparing statements across engines.
+     *
+     * @return the open benchmark database
+     */
+    public static BenchmarkDatabase createH2() {
+        Path directory = createDirectory();
+        return new BenchmarkDatabase(directory, "jdbc:h2:file:" + directory.resolve("qce").toAbsolutePath());
+    }
+
+    /**
+     * Closes the pooled connections, deletes the database files and restores the previous JDBC URL.
+     */
+    @Override
+    public void close() {
+        DatabaseConnectionManager.shutdown();
+        if (previousJdbcUrl == null) {
+            System.clearProperty(DatabaseConnectionManager.JDBC_URL_PROPERTY);
+        } else {
+            System.setProperty(DatabaseConnectionManager.JDBC_URL_PROPERTY, previousJdbcUrl);
+        }
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error deleting benchmark database " + directory, e);
+        }
+    }
+
+    private static Path createDirectory() {
+        try {
+            return Files.createTempDirectory("qce-bench");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error creating benchmark database directory", e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.retailtech.quickcasheasy.database;
+
+import com.retailtech.quickcasheasy.product.BenchmarkCatalog;
+import com.retailtech.quickcasheasy.product.ProductRepositoryImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for the first scans after the application starts, with and without memory-mapped I/O and the catalog warmup.
+ * Every measured iteration reopens the connection pool, so SQLite starts with an empty page cache ("cold");
+ * with warmup=true the catalog is warmed up before the scans are timed ("warm").
+ * The operating system's page cache is not dropped; for numbers after a reboot run
+ * {@code sync; echo 3 > /proc/sys/vm/drop_caches} as root before each fork.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CatalogWarmupBenchmark {
+
+    private static final int CATALOG_SIZE = 100_000;
+    private static final int SCANS = 1_000;
+
+    @Param({"0", "268435456"})
+    private String mmapSizeBytes;
+
+    @Param({"false", "true"})
+    private boolean warmup;
+
+    private String previousMmapSize;
+    private BenchmarkDatabase database;
+    private ProductRepositoryImpl repository;
+    private String[] barcodes;
+    private String[] scans;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        previousMmapSize = System.getProperty(SqlitePragmaProfile.MMAP_SIZE_PROPERTY);
+        System.setProperty(SqlitePragmaProfile.MMAP_SIZE_PROPERTY, mmapSizeBytes);
+        database = BenchmarkDatabase.createSqlite();
+        barcodes = BenchmarkCatalog.seed(CATALOG_SIZE).toArray(new String[0]);
+        repository = new ProductRepositoryImpl();
+        scans = new String[SCANS];
+    }
+
+    @Setup(Level.Iteration)
+    public void restart() {
+        // New pool, new connections: nothing left in SQLite's page cache or mappings
+        DatabaseConnectionManager.shutdown();
+        Random random = new Random();
+        for (int i = 0; i < SCANS; i++) {
+            scans[i] = barcodes[random.nextInt(barcodes.length)];
+        }
+        if (warmup) {
+            DatabaseConnectionManager.warmUpCatalog();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+        if (previousMmapSize == null) {
+            System.clearProperty(SqlitePragmaProfile.MMAP_SIZE_PROPERTY);
+        } else {
+            System.setProperty(SqlitePragmaProfile.MMAP_SIZE_PROPERTY, previousMmapSize);
+        }
+    }
+
+    @Benchmark
+    public int firstScans() {
+        int found = 0;
+        for (String barcode : scans) {
+            if (repository.getProductByBarcode(barcode).isPresent()) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,100 @@
+package com.retailtech.quickcasheasy.database;
+
+import com.retailtech.quickcasheasy.product.BenchmarkCatalog;
+import com.retailtech.quickcasheasy.product.ProductRepositoryImpl;
+import com.retailtech.quickcasheasy.product.dto.ProductDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scan lookups and payment inserts with SQLite's default settings ("none") and the pragma profile ("default"),
+ * alone and with three scanning threads running against one writer.
+ */
+@State(Scope.Group)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SqlitePragmaBenchmark {
+
+    private static final String INSERT_PAYMENT = "INSERT INTO payments (method, amount, status, success) VALUES (?, ?, ?, ?)";
+
+    @Param({"none", "default"})
+    private String profile;
+
+    private String previousProfile;
+    private BenchmarkDatabase database;
+    private ProductRepositoryImpl repository;
+    private DatabaseUtils databaseUtils;
+    private String[] barcodes;
+
+    /**
+     * Scan position of one reader thread.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+        long amount;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        previousProfile = System.getProperty(SqlitePragmaProfile.PROFILE_PROPERTY);
+        System.setProperty(SqlitePragmaProfile.PROFILE_PROPERTY, profile);
+        database = BenchmarkDatabase.createSqlite();
+        barcodes = BenchmarkCatalog.seed(10_000).toArray(new String[0]);
+        repository = new ProductRepositoryImpl();
+        databaseUtils = new DatabaseUtils();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+        if (previousProfile == null) {
+            System.clearProperty(SqlitePragmaProfile.PROFILE_PROPERTY);
+        } else {
+            System.setProperty(SqlitePragmaProfile.PROFILE_PROPERTY, previousProfile);
+        }
+    }
+
+    @Benchmark
+    @Group("scanAlone")
+    public Optional<ProductDTO> scanAlone(Cursor cursor) {
+        return scan(cursor);
+    }
+
+    @Benchmark
+    @Group("payAlone")
+    public Long payAlone(Cursor cursor) {
+        return pay(cursor);
+    }
+
+    @Benchmark
+    @Group("scanWhilePaying")
+    @GroupThreads(3)
+    public Optional<ProductDTO> scanner(Cursor cursor) {
+        return scan(cursor);
+    }
+
+    @Benchmark
+    @Group("scanWhilePaying")
+    @GroupThreads(1)
+    public Long payer(Cursor cursor) {
+        return pay(cursor);
+    }
+
+    private Optional<ProductDTO> scan(Cursor cursor) {
+        String barcode = barcodes[cursor.next];
+        cursor.next = (cursor.next + 1) % barcodes.length;
+        return repository.getProductByBarcode(barcode);
+    }
+
+    private Long pay(Cursor cursor) {
+        BigDecimal amount = BigDecimal.valueOf(1_000 + cursor.amount++ % 50_000, 2);
+        return databaseUtils.executeInsert(INSERT_PAYMENT, "CARD", amount, "PENDING", false);
+    }
+}
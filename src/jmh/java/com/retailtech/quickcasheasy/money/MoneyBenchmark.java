@@ -0,0 +1,77 @@
+package com.retailtech.quickcasheasy.money;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Line total, running total and display formatting, with BigDecimal and with long minor units.
+ * Run with {@code -prof gc} to compare the allocation rate (gc.alloc.rate.norm, bytes per operation).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final int LINES = 200;
+
+    private final BigDecimal[] prices = new BigDecimal[LINES];
+    private final long[] priceMinorUnits = new long[LINES];
+    private final int[] quantities = new int[LINES];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < LINES; i++) {
+            prices[i] = BigDecimal.valueOf(100 + random.nextInt(100_000), 2);
+            priceMinorUnits[i] = Money.toMinorUnits(prices[i]);
+            quantities[i] = 1 + random.nextInt(5);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public BigDecimal bigDecimalBasketTotal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < LINES; i++) {
+            total = total.add(prices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public long minorUnitsBasketTotal() {
+        long total = 0;
+        for (int i = 0; i < LINES; i++) {
+            total = Money.plus(total, Money.times(priceMinorUnits[i], quantities[i]));
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public int bigDecimalCellText() {
+        int length = 0;
+        for (int i = 0; i < LINES; i++) {
+            length += (prices[i].setScale(2, RoundingMode.HALF_UP).toPlainString() + " NOK").length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public int minorUnitsCellText() {
+        int length = 0;
+        for (int i = 0; i < LINES; i++) {
+            length += (Money.format(priceMinorUnits[i]) + " NOK").length();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,42 @@
+package com.retailtech.quickcasheasy.payment;
+
+import com.retailtech.quickcasheasy.database.BenchmarkDatabase;
+import com.retailtech.quickcasheasy.database.DatabaseUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording a payment, the last database write of every sale.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentSaveBenchmark {
+
+    private BenchmarkDatabase database;
+    private PaymentRepositoryImpl repository;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.createSqlite();
+        repository = new PaymentRepositoryImpl(new DatabaseUtils());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Long save() {
+        Payment payment = new Payment(BigDecimal.valueOf(1_000 + next++ % 50_000, 2), "CARD", "PENDING", false);
+        repository.save(payment);
+        return payment.getId();
+    }
+}
@@ -0,0 +1,54 @@
+package com.retailtech.quickcasheasy.product;
+
+import com.retailtech.quickcasheasy.category.CategoryFacade;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Scales the sample catalog up to a realistic size for benchmarks.
+ */
+public final class BenchmarkCatalog {
+
+    private static final int SAMPLE_CATEGORIES = 14; // Categories created by sample_data_insertion.sql
+
+    private BenchmarkCatalog() {
+    }
+
+    /**
+     * Adds generated products until the catalog holds {@code catalogSize} products.
+     *
+     * @param catalogSize the total number of products wanted
+     * @return all barcodes in the catalog, in a fixed pseudo-random scan order
+     */
+    public static List<String> seed(int catalogSize) {
+        ProductRepositoryImpl repository = new ProductRepositoryImpl();
+        int existing = repository.getAllProducts().size();
+        Iterable<Product> generated = () -> IntStream.range(existing, catalogSize)
+                .mapToObj(i -> new Product(String.format("99%011d", i), "Generated product " + i,
+                        BigDecimal.valueOf(100 + i % 90_000, 2), (long) (i % SAMPLE_CATEGORIES + 1)))
+                .iterator();
+        repository.saveProducts(generated, ProductRepository.DEFAULT_BATCH_SIZE, ProductImportListener.NONE);
+
+        List<String> barcodes = repository.getAllProducts().stream()
+                .map(Product::getBarcode)
+                .collect(Collectors.toCollection(ArrayList::new));
+        Collections.shuffle(barcodes, new Random(42));
+        return barcodes;
+    }
+
+    /**
+     * Creates a product facade reading straight from the database, without the catalog cache.
+     *
+     * @return a new product facade
+     */
+    public static ProductFacade newProductFacade() {
+        CategoryFacade categoryFacade = new CategoryFacade();
+        return new ProductFacade(new ProductService(new ProductRepositoryImpl(), categoryFacade), categoryFacade);
+    }
+}
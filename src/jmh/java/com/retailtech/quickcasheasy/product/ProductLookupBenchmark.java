@@ -0,0 +1,60 @@
+package com.retailtech.quickcasheasy.product;
+
+import com.retailtech.quickcasheasy.database.BenchmarkDatabase;
+import com.retailtech.quickcasheasy.product.dto.ProductDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Barcode lookup, the first step of every scan.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductLookupBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int catalogSize;
+
+    private BenchmarkDatabase database;
+    private ProductRepositoryImpl repository;
+    private CachingProductRepository cachingRepository;
+    private String[] barcodes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.createSqlite();
+        List<String> catalog = BenchmarkCatalog.seed(catalogSize);
+        barcodes = catalog.toArray(new String[0]);
+        repository = new ProductRepositoryImpl();
+        cachingRepository = new CachingProductRepository(repository, catalogSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Optional<ProductDTO> getProductByBarcode() {
+        return repository.getProductByBarcode(nextBarcode());
+    }
+
+    @Benchmark
+    public Optional<ProductDTO> getProductByBarcodeCached() {
+        return cachingRepository.getProductByBarcode(nextBarcode());
+    }
+
+    private String nextBarcode() {
+        String barcode = barcodes[next];
+        next = (next + 1) % barcodes.length;
+        return barcode;
+    }
+}
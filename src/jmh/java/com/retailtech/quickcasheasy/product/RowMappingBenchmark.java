@@ -0,0 +1,68 @@
+package com.retailtech.quickcasheasy.product;
+
+import com.retailtech.quickcasheasy.database.BenchmarkDatabase;
+import com.retailtech.quickcasheasy.database.DatabaseConnectionManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row cost of reading the whole catalog: {@code SELECT *} with columns read by name, as the repositories
+ * did before, against the explicit column list and index-based RowMapper, collected or streamed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(RowMappingBenchmark.CATALOG_SIZE)
+public class RowMappingBenchmark {
+
+    static final int CATALOG_SIZE = 100_000;
+
+    private BenchmarkDatabase database;
+    private ProductRepositoryImpl repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.createSqlite();
+        BenchmarkCatalog.seed(CATALOG_SIZE);
+        repository = new ProductRepositoryImpl();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<Product> selectAllByColumnName() throws SQLException {
+        List<Product> products = new ArrayList<>();
+        try (Connection connection = DatabaseConnectionManager.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement("SELECT * FROM products");
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                products.add(new Product(rs.getString("barcode"), rs.getString("name"), rs.getBigDecimal("price"), rs.getLong("category_id")));
+            }
+        }
+        return products;
+    }
+
+    @Benchmark
+    public List<Product> getAllProducts() {
+        return repository.getAllProducts();
+    }
+
+    @Benchmark
+    public long forEachProduct(Blackhole blackhole) {
+        return repository.forEachProduct(blackhole::consume);
+    }
+}
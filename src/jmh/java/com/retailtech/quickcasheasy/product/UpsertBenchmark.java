@@ -0,0 +1,54 @@
+package com.retailtech.quickcasheasy.product;
+
+import com.retailtech.quickcasheasy.database.BenchmarkDatabase;
+import com.retailtech.quickcasheasy.database.DatabaseUtils;
+import com.retailtech.quickcasheasy.database.SqlDialect;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row latency of saving a product, comparing the upsert statement of each dialect.
+ * Half of the saves update an existing barcode and half insert a new one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpsertBenchmark {
+
+    @Param({"SQLITE", "H2"})
+    private SqlDialect dialect;
+
+    private BenchmarkDatabase database;
+    private ProductRepositoryImpl repository;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (dialect == SqlDialect.SQLITE) {
+            database = BenchmarkDatabase.createSqlite();
+        } else {
+            database = BenchmarkDatabase.createH2();
+            new DatabaseUtils().executeUpdate("CREATE TABLE products (barcode VARCHAR(32) PRIMARY KEY, "
+                    + "name VARCHAR(255) NOT NULL, price DECIMAL(10, 2) NOT NULL, category_id BIGINT)");
+        }
+        repository = new ProductRepositoryImpl(dialect);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public void saveProduct() {
+        long i = next++;
+        // Every second save reuses the previous barcode, so updates and inserts are measured together
+        String barcode = String.format("98%011d", i / 2);
+        repository.saveProduct(new Product(barcode, "Upserted product", BigDecimal.valueOf(i % 10_000, 2), null));
+    }
+}
@@ -0,0 +1,45 @@
+package com.retailtech.quickcasheasy.user;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one login check and one new hash at several PBKDF2 iteration counts.
+ * Compare the results with the count picked at startup by {@link Pbkdf2PasswordHasher#calibrate(long)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHasherBenchmark {
+
+    @Param({"100000", "310000", "600000"})
+    private int iterations;
+
+    private Pbkdf2PasswordHasher hasher;
+    private String stored;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hasher = new Pbkdf2PasswordHasher(iterations);
+        stored = hasher.hash("password123");
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return hasher.verify("password123", stored);
+    }
+
+    @Benchmark
+    public String hash() {
+        return hasher.hash("password123");
+    }
+
+    @Benchmark
+    public boolean verifyLegacyPlaintext() {
+        return hasher.verify("password123", "password123");
+    }
+}
@@ -0,0 +1,47 @@
+package com.retailtech.quickcasheasy.user;
+
+import com.retailtech.quickcasheasy.database.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User lookup by username, done on every login.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserLookupBenchmark {
+
+    @Param({"100", "1000"})
+    private int userCount;
+
+    private BenchmarkDatabase database;
+    private UserRepositoryImpl repository;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.createSqlite();
+        repository = new UserRepositoryImpl();
+        for (int i = 0; i < userCount; i++) {
+            repository.saveUser(new User(null, "cashier" + i, "password" + i, i % 10 == 0 ? UserRole.ADMIN : UserRole.CASHIER));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Optional<User> getUserByUsername() {
+        String username = "cashier" + next;
+        next = (next + 1) % userCount;
+        return repository.getUserByUsername(username);
+    }
+}
@@ -0,0 +1,93 @@
+package com.retailtech.quickcasheasy;
+
+import com.retailtech.quickcasheasy.category.CategoryFacade;
+import com.retailtech.quickcasheasy.concurrent.BackgroundExecutor;
+import com.retailtech.quickcasheasy.payment.PaymentFacade;
+import com.retailtech.quickcasheasy.product.ProductFacade;
+import com.retailtech.quickcasheasy.user.UserFacade;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The facades shared by all screens.
+ * They are wired once, in the services phase after the schema migrations at startup, so opening a screen reuses the
+ * existing services and repositories instead of building new ones. Building them starts the payment forwarder, so
+ * screens get them through {@link #whenReady()} and never build them on the FX thread.
+ * Per-screen state such as a cart is not kept here.
+ */
+public final class ApplicationContext {
+
+    private static volatile ApplicationContext instance;
+
+    private final CategoryFacade categoryFacade;
+    private final ProductFacade productFacade;
+    private final UserFacade userFacade;
+    private final PaymentFacade paymentFacade;
+
+    ApplicationContext(CategoryFacade categoryFacade, ProductFacade productFacade, UserFacade userFacade,
+                       PaymentFacade paymentFacade) {
+        this.categoryFacade = categoryFacade;
+        this.productFacade = productFacade;
+        this.userFacade = userFacade;
+        this.paymentFacade = paymentFacade;
+    }
+
+    /**
+     * Returns the application context, creating the facades on first use.
+     *
+     * @return the shared application context
+     */
+    public static ApplicationContext getInstance() {
+        ApplicationContext current = instance;
+        if (current == null) {
+            synchronized (ApplicationContext.class) {
+                current = instance;
+                if (current == null) {
+                    CategoryFacade categoryFacade = new CategoryFacade();
+                    current = new ApplicationContext(categoryFacade, ProductFacade.createDefault(categoryFacade),
+                            UserFacade.createDefault(), PaymentFacade.createDefault(BootPipeline.databaseReady()));
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Returns the application context once the services boot phase has built it, without blocking the caller. When the
+     * application was not started through the boot pipeline, the context is built in the background on first use.
+     *
+     * @return a future completed with the shared application context
+     */
+    public static CompletableFuture<ApplicationContext> whenReady() {
+        return BootPipeline.servicesReady().thenApplyAsync(ready -> getInstance(), BackgroundExecutor.executor());
+    }
+
+    /**
+     * @return the category facade
+     */
+    public CategoryFacade getCategoryFacade() {
+        return categoryFacade;
+    }
+
+    /**
+     * @return the product facade, backed by the shared catalog cache
+     */
+    public ProductFacade getProductFacade() {
+        return productFacade;
+    }
+
+    /**
+     * @return the user facade
+     */
+    public UserFacade getUserFacade() {
+        return userFacade;
+    }
+
+    /**
+     * @return the payment facade
+     */
+    public PaymentFacade getPaymentFacade() {
+        return paymentFacade;
+    }
+}
@@ -0,0 +1,171 @@
+package com.retailtech.quickcasheasy;
+
+import com.retailtech.quickcasheasy.concurrent.BackgroundExecutor;
+import com.retailtech.quickcasheasy.database.DatabaseConnectionManager;
+import com.retailtech.quickcasheasy.database.DatabaseUtils;
+import com.retailtech.quickcasheasy.database.SchemaMigrator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * Startup work run in parallel phases while JavaFX starts, each phase logged with its duration.
+ * <p>
+ * The application phases are the JDBC driver, the schema migrations (after the driver), the services and the catalog
+ * warmup (both after the schema) and the FXML preloading, which is tracked once the JavaFX toolkit is running.
+ * The login screen is shown without waiting for any of them; database work waits for {@link #databaseReady()} and
+ * screens get their facades once {@link #servicesReady()} completes, so nothing is built on the FX thread.
+ */
+public final class BootPipeline {
+
+    private static volatile BootPipeline current;
+
+    private final Executor executor;
+    private final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final List<CompletableFuture<?>> phases = new CopyOnWriteArrayList<>();
+    private volatile CompletableFuture<Void> databaseReady = CompletableFuture.completedFuture(null);
+    private volatile CompletableFuture<Void> servicesReady = CompletableFuture.completedFuture(null);
+
+    BootPipeline(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Starts the application's boot phases in the background.
+     *
+     * @return the running pipeline
+     */
+    static BootPipeline start() {
+        BootPipeline boot = new BootPipeline(BackgroundExecutor.executor());
+        CompletableFuture<Void> driver = boot.phase("driver", DatabaseUtils::new);
+        CompletableFuture<Void> schema = boot.phase("schema", driver, () -> new SchemaMigrator().migrate());
+        boot.databaseReady = schema;
+        // Building the services starts the payment forwarder, which reads the journal
+        boot.servicesReady = boot.phase("services", schema, ApplicationContext::getInstance);
+        boot.phase("catalog", schema, DatabaseConnectionManager::warmUpCatalog);
+        current = boot;
+        return boot;
+    }
+
+    /**
+     * Returns a future completed once the schema migrations have run. Already completed when the application was not
+     * started through the boot pipeline, for example in tests.
+     *
+     * @return the schema phase
+     */
+    public static CompletableFuture<Void> databaseReady() {
+        BootPipeline boot = current;
+        return boot == null ? CompletableFuture.completedFuture(null) : boot.databaseReady;
+    }
+
+    /**
+     * Returns a future completed once the shared facades have been built. Already completed when the application was
+     * not started through the boot pipeline, for example in tests.
+     *
+     * @return the services phase
+     */
+    static CompletableFuture<Void> servicesReady() {
+        BootPipeline boot = current;
+        return boot == null ? CompletableFuture.completedFuture(null) : boot.servicesReady;
+    }
+
+    /**
+     * Runs a phase in the background straight away.
+     *
+     * @param name the phase name used in the log
+     * @param task the work of the phase
+     * @return a future completed when the phase is done
+     */
+    CompletableFuture<Void> phase(String name, Runnable task) {
+        return phase(name, CompletableFuture.completedFuture(null), task);
+    }
+
+    /**
+     * Runs a phase in the background once another phase is done. A failed phase fails the phases that depend on it.
+     *
+     * @param name  the phase name used in the log
+     * @param after the phase to wait for
+     * @param task  the work of the phase
+     * @return a future completed when the phase is done
+     */
+    CompletableFuture<Void> phase(String name, CompletableFuture<?> after, Runnable task) {
+        CompletableFuture<Void> phase = after.thenRunAsync(() -> {
+            long start = System.nanoTime();
+            task.run();
+            record(name, start);
+        }, executor);
+        return register(name, phase);
+    }
+
+    /**
+     * Times work that was started elsewhere, such as view loading on the FX thread, as a phase.
+     *
+     * @param name the phase name used in the log
+     * @param work the running work
+     * @return a future completed when the work is done
+     */
+    <T> CompletableFuture<T> track(String name, CompletableFuture<T> work) {
+        long start = System.nanoTime();
+        return register(name, work.whenComplete((result, error) -> {
+            if (error == null) {
+                record(name, start);
+            }
+        }));
+    }
+
+    /**
+     * Returns a future completed when all phases registered so far are done, failed or not.
+     *
+     * @return the end of the boot
+     */
+    CompletableFuture<Void> whenDone() {
+        return CompletableFuture.allOf(phases.stream()
+                .map(phase -> phase.handle((result, error) -> null))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Returns the duration of each finished phase in milliseconds, in the order the phases finished.
+     *
+     * @return the phase timings
+     */
+    Map<String, Long> getTimings() {
+        synchronized (timings) {
+            return new LinkedHashMap<>(timings);
+        }
+    }
+
+    /**
+     * Logs the total boot time, measured from the start of the process, and the phase timings.
+     */
+    void logSummary() {
+        long sinceProcessStart = ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()).toMillis())
+                .orElse(-1L);
+        System.out.println("Boot finished " + sinceProcessStart + " ms after process start, phases: " + getTimings());
+    }
+
+    private <T> CompletableFuture<T> register(String name, CompletableFuture<T> phase) {
+        phase.whenComplete((result, error) -> {
+            if (error != null) {
+                System.err.println("Boot phase " + name + " failed:");
+                BackgroundExecutor.unwrap(error).printStackTrace();
+            }
+        });
+        phases.add(phase);
+        return phase;
+    }
+
+    private void record(String name, long startNanos) {
+        long millis = (System.nanoTime() - startNanos) / 1_000_000;
+        timings.put(name, millis);
+        System.out.println("Boot phase " + name + ": " + millis + " ms");
+    }
+}
@@ -1,9 +1,7 @@
 package com.retailtech.quickcasheasy;
 
-import com.retailtech.quickcasheasy.database.DatabaseUtils; // Import DatabaseUtils
+import com.retailtech.quickcasheasy.concurrent.FxThreadMonitor;
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
@@ -14,6 +12,12 @@ import java.io.IOException;
  */
 public class QuickCashEasyApplication extends Application {
 
+    // Startup phases started in main, before JavaFX creates this application
+    private static BootPipeline boot;
+
+    // Reports how long the FX thread is blocked, so slow handlers show up in the log
+    private FxThreadMonitor fxThreadMonitor;
+
     /**
      * The main entry point for JavaFX applications.
      * This method is called after the JavaFX application is launched.
@@ -24,40 +28,49 @@ public class QuickCashEasyApplication extends Application {
      */
     @Override
     public void start(Stage primaryStage) throws IOException {
-        // Load the main application view from FXML file
-        FXMLLoader fxmlLoader = new FXMLLoader(QuickCashEasyApplication.class.getResource("/com/retailtech/quickcasheasy/home/home_view.fxml"));
+        fxThreadMonitor = FxThreadMonitor.start();
 
-        // Create the scene with the loaded view
-        Scene scene = new Scene(fxmlLoader.load(), 800, 600);
+        // Load the main application view from FXML file
+        ViewRegistry views = ViewRegistry.getInstance();
+        ViewRegistry.View home = views.get(ViewRegistry.HOME);
 
         // Set the window title
         primaryStage.setTitle("QuickCashEasy");
 
         // Set the scene and show the window
-        primaryStage.setScene(scene);
+        primaryStage.setScene(home.getScene(800, 600));
         primaryStage.show();
+
+        // Load the screens used after login while the login screen is shown
+        if (boot != null) {
+            boot.track("fxml", views.preload(ViewRegistry.CASHIER, ViewRegistry.PAYMENT, ViewRegistry.CUSTOMER,
+                    ViewRegistry.EDIT_USER));
+            boot.whenDone().thenRun(boot::logSummary);
+        }
+    }
+
+    /**
+     * Called when the application exits. Logs the FX thread statistics of this session.
+     */
+    @Override
+    public void stop() {
+        if (fxThreadMonitor != null) {
+            fxThreadMonitor.close();
+            System.out.println("FX thread: " + fxThreadMonitor.getStats());
+        }
     }
 
     /**
      * The main method to start the QuickCashEasy application.
-     * This method initializes the database utility class to ensure that the H2 driver is loaded
-     * before launching the JavaFX application.
+     * The driver, schema, services and catalog warmup run in parallel boot phases while JavaFX starts,
+     * see {@link BootPipeline}.
      *
      * @param args Command-line arguments passed to the application.
      */
     public static void main(String[] args) {
-        // Initialize DatabaseUtils to ensure H2 driver is loaded
-        System.out.println("Initializing DatabaseUtils...");
-        DatabaseUtils dbUtils = new DatabaseUtils(); // Forces loading of the DatabaseUtils class
-
-        // Run initialization script to create tables and insert data
-        System.out.println("Running initialization script...");
-        dbUtils.runScript("init.sql");
-
-        // Log to confirm that the driver has been loaded
-        System.out.println("DatabaseUtils initialized. Starting JavaFX application...");
+        boot = BootPipeline.start();
 
         // Run the application
         launch(args);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,232 @@
+package com.retailtech.quickcasheasy;
+
+import com.retailtech.quickcasheasy.concurrent.BackgroundExecutor;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Loads each FXML view once and reuses its root node, scene and controller on every later navigation.
+ * <p>
+ * Views can be preloaded at startup. A controller implementing {@link Resettable} is reset each time its view is
+ * handed out again, so a reused screen starts clean; {@link #evict(String)} and {@link #clear()} drop cached views.
+ * All methods except {@link #preload(String...)} must be called on the FX thread, which also loads the views.
+ */
+public final class ViewRegistry {
+
+    public static final String HOME = "/com/retailtech/quickcasheasy/home/home_view.fxml";
+    public static final String ADMIN = "/com/retailtech/quickcasheasy/user/admin_view.fxml";
+    public static final String CASHIER = "/com/retailtech/quickcasheasy/user/cashier_view.fxml";
+    public static final String CUSTOMER = "/com/retailtech/quickcasheasy/user/customer_view.fxml";
+    public static final String EDIT_USER = "/com/retailtech/quickcasheasy/user/edit_user_view.fxml";
+    public static final String PAYMENT = "/com/retailtech/quickcasheasy/payment/payment_view.fxml";
+
+    /**
+     * Implemented by controllers of reused views.
+     */
+    public interface Resettable {
+
+        /**
+         * Clears what the previous use of the view left behind. Called on the FX thread before the view is shown again.
+         */
+        void reset();
+    }
+
+    /**
+     * Loads a view from its FXML location.
+     */
+    interface ViewLoader {
+        View load(String fxml) throws IOException;
+    }
+
+    /**
+     * A loaded view: its root node, its controller and the scene showing it.
+     */
+    public static final class View {
+        private final Parent root;
+        private final Object controller;
+        private Scene scene;
+        private boolean shown;
+
+        View(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+
+        /**
+         * @return the root node of the view
+         */
+        public Parent getRoot() {
+            return root;
+        }
+
+        /**
+         * @param <C> the controller type
+         * @return the controller of the view
+         */
+        @SuppressWarnings("unchecked")
+        public <C> C getController() {
+            return (C) controller;
+        }
+
+        /**
+         * Returns the scene showing this view, created on first use. A node can be the root of only one scene, so the
+         * same scene is used every time the view is shown.
+         *
+         * @return the scene of the view
+         */
+        public Scene getScene() {
+            if (scene == null) {
+                scene = new Scene(root);
+            }
+            return scene;
+        }
+
+        /**
+         * Returns the scene showing this view, created with the given size on first use.
+         *
+         * @param width  the width of a new scene
+         * @param height the height of a new scene
+         * @return the scene of the view
+         */
+        public Scene getScene(double width, double height) {
+            if (scene == null) {
+                scene = new Scene(root, width, height);
+            }
+            return scene;
+        }
+    }
+
+    private static volatile ViewRegistry instance;
+
+    private final ViewLoader loader;
+    private final Executor fxThread;
+    private final Map<String, View> views = new HashMap<>();
+    private int loads;
+    private int reuses;
+
+    ViewRegistry(ViewLoader loader, Executor fxThread) {
+        this.loader = loader;
+        this.fxThread = fxThread;
+    }
+
+    /**
+     * Returns the registry shared by all screens.
+     *
+     * @return the shared view registry
+     */
+    public static ViewRegistry getInstance() {
+        ViewRegistry current = instance;
+        if (current == null) {
+            synchronized (ViewRegistry.class) {
+                current = instance;
+                if (current == null) {
+                    current = new ViewRegistry(ViewRegistry::loadFxml, BackgroundExecutor.fxThread());
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Returns the view for an FXML location, loading it on first use. A view that was handed out before is reset.
+     *
+     * @param fxml the FXML location, one of the constants of this class
+     * @return the view
+     * @throws IOException if the view cannot be loaded
+     */
+    public View get(String fxml) throws IOException {
+        View view = views.get(fxml);
+        if (view == null) {
+            view = load(fxml);
+        } else if (view.shown) {
+            reuses++;
+            if (view.controller instanceof Resettable resettable) {
+                resettable.reset();
+            }
+        }
+        view.shown = true;
+        return view;
+    }
+
+    /**
+     * Loads views that are not cached yet, one FX thread task per view so input is handled in between.
+     * May be called from any thread. A view that fails to load is logged and loaded again when it is first used.
+     *
+     * @param fxml the FXML locations to load
+     * @return a future completed once all views have been tried
+     */
+    public CompletableFuture<Void> preload(String... fxml) {
+        CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+        for (String location : fxml) {
+            done = done.thenRunAsync(() -> {
+                if (!views.containsKey(location)) {
+                    try {
+                        load(location);
+                    } catch (IOException | RuntimeException e) {
+                        System.err.println("Failed to preload view " + location);
+                        e.printStackTrace();
+                    }
+                }
+            }, fxThread);
+        }
+        return done;
+    }
+
+    /**
+     * Drops a cached view; it is loaded again the next time it is requested.
+     *
+     * @param fxml the FXML location
+     */
+    public void evict(String fxml) {
+        views.remove(fxml);
+    }
+
+    /**
+     * Drops all cached views.
+     */
+    public void clear() {
+        views.clear();
+    }
+
+    /**
+     * @return the number of times a view was loaded from FXML
+     */
+    int getLoadCount() {
+        return loads;
+    }
+
+    /**
+     * @return the number of times a cached view was handed out again
+     */
+    int getReuseCount() {
+        return reuses;
+    }
+
+    private View load(String fxml) throws IOException {
+        long start = System.nanoTime();
+        View view = loader.load(fxml);
+        views.put(fxml, view);
+        loads++;
+        System.out.println("Loaded view " + fxml + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return view;
+    }
+
+    private static View loadFxml(String fxml) throws IOException {
+        URL location = ViewRegistry.class.getResource(fxml);
+        if (location == null) {
+            throw new IOException("View not found: " + fxml);
+        }
+        FXMLLoader fxmlLoader = new FXMLLoader(location);
+        Parent root = fxmlLoader.load();
+        return new View(root, fxmlLoader.getController());
+    }
+}
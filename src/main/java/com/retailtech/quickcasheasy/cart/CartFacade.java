@@ -1,11 +1,11 @@
 package com.retailtech.quickcasheasy.cart;
 
 import com.retailtech.quickcasheasy.cart.dto.CartItemDTO;
+import com.retailtech.quickcasheasy.money.Money;
 import com.retailtech.quickcasheasy.product.ProductFacade;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Facade for cart-related operations.
@@ -29,6 +29,7 @@ public class CartFacade {
      *
      * @param barcode  the product's barcode
      * @param quantity the quantity to add
+     * @throws com.retailtech.quickcasheasy.exception.ProductNotFoundException if no product has the barcode
      */
     public void addProductToCart(String barcode, int quantity) {
         cartService.addProductToCart(barcode, quantity);
@@ -66,12 +67,7 @@ public class CartFacade {
      * @return a list of CartItemDTOs
      */
     public List<CartItemDTO> getCartItems() {
-        return cartService.getCartItems().stream()
-                .map(item -> new CartItemDTO(
-                        item.getProductName(),
-                        item.getQuantity(),
-                        item.getTotalPrice()))
-                .collect(Collectors.toList());
+        return cartService.getCartLines();
     }
 
     /**
@@ -82,4 +78,31 @@ public class CartFacade {
     public BigDecimal getTotal() {
         return cartService.getTotal();
     }
+
+    /**
+     * Get the total price of the cart without converting it to BigDecimal.
+     *
+     * @return the total price
+     */
+    public Money getTotalAmount() {
+        return Money.ofMinorUnits(cartService.getTotalMinorUnits());
+    }
+
+    /**
+     * Register a listener for changes of this cart.
+     *
+     * @param listener the listener to notify
+     */
+    public void addListener(CartListener listener) {
+        cartService.addListener(listener);
+    }
+
+    /**
+     * Stop notifying a listener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(CartListener listener) {
+        cartService.removeListener(listener);
+    }
 }
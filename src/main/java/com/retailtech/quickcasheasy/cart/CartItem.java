@@ -1,18 +1,24 @@
 package com.retailtech.quickcasheasy.cart;
 
+import com.retailtech.quickcasheasy.money.Money;
+
 import java.math.BigDecimal;
 
 class CartItem {
 
     private String productName;
     private int quantity;        // Quantity of the product in the cart
-    private BigDecimal price;    // Price of a single unit of the product
+    private long price;          // Price of a single unit of the product, in minor units (øre)
 
 
     public CartItem(String productName, int quantity, BigDecimal price) {
+        this(productName, quantity, Money.toMinorUnits(price));
+    }
+
+    public CartItem(String productName, int quantity, long priceMinorUnits) {
         this.productName = productName;
         this.quantity = quantity;
-        this.price = price;
+        this.price = priceMinorUnits;
     }
 
 
@@ -32,17 +38,27 @@ class CartItem {
         this.quantity = quantity;
     }
 
-    public BigDecimal getPrice() {
+    public long getPriceMinorUnits() {
         return price;
     }
 
+    // Price as a BigDecimal with two decimals, for display and persistence
+    public BigDecimal getPrice() {
+        return Money.toBigDecimal(price);
+    }
+
     public void setPrice(BigDecimal price) {
-        this.price = price;
+        this.price = Money.toMinorUnits(price);
+    }
+
+    // Method to calculate total price for this item (price * quantity), in minor units
+    public long getTotalPriceMinorUnits() {
+        return Money.times(price, quantity);
     }
 
-    // Method to calculate total price for this item
+    // Total price as a BigDecimal with two decimals, for display and persistence
     public BigDecimal getTotalPrice() {
-        return price.multiply(BigDecimal.valueOf(quantity));
+        return Money.toBigDecimal(getTotalPriceMinorUnits());
     }
 
     @Override
@@ -50,8 +66,8 @@ class CartItem {
         return "CartItem{" +
                 "productName='" + productName + '\'' +
                 ", quantity=" + quantity +
-                ", price=" + price +
-                ", totalPrice=" + getTotalPrice() +
+                ", price=" + Money.format(price) +
+                ", totalPrice=" + Money.format(getTotalPriceMinorUnits()) +
                 '}';
     }
 }
@@ -0,0 +1,90 @@
+package com.retailtech.quickcasheasy.cart;
+
+import com.retailtech.quickcasheasy.cart.dto.CartItemDTO;
+import com.retailtech.quickcasheasy.money.Money;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Receives changes of a cart, so screens can update their view of it without recomputing anything.
+ * Events are delivered on the thread that changed the cart, in the order the changes happened;
+ * use {@link #dispatchingTo(Executor, CartListener)} to receive them on another thread, such as the JavaFX thread.
+ * All methods do nothing by default.
+ */
+public interface CartListener {
+
+    /**
+     * A product was added to the cart for the first time.
+     *
+     * @param line the new line
+     */
+    default void lineAdded(CartItemDTO line) {
+    }
+
+    /**
+     * The quantity of a line in the cart changed.
+     *
+     * @param line the line with its new quantity and total
+     */
+    default void lineUpdated(CartItemDTO line) {
+    }
+
+    /**
+     * A line was removed from the cart.
+     *
+     * @param barcode the barcode of the removed product
+     */
+    default void lineRemoved(String barcode) {
+    }
+
+    /**
+     * All lines were removed from the cart.
+     */
+    default void cartCleared() {
+    }
+
+    /**
+     * The cart total changed. Sent after the line event that caused it.
+     *
+     * @param total the new total
+     */
+    default void totalChanged(Money total) {
+    }
+
+    /**
+     * Wraps a listener so its events are delivered through the given executor.
+     * Events keep their order as long as the executor runs tasks in submission order, as Platform.runLater does.
+     *
+     * @param executor the executor to deliver events on
+     * @param listener the listener receiving the events
+     * @return a listener forwarding every event to {@code listener} through {@code executor}
+     */
+    static CartListener dispatchingTo(Executor executor, CartListener listener) {
+        return new CartListener() {
+            @Override
+            public void lineAdded(CartItemDTO line) {
+                executor.execute(() -> listener.lineAdded(line));
+            }
+
+            @Override
+            public void lineUpdated(CartItemDTO line) {
+                executor.execute(() -> listener.lineUpdated(line));
+            }
+
+            @Override
+            public void lineRemoved(String barcode) {
+                executor.execute(() -> listener.lineRemoved(barcode));
+            }
+
+            @Override
+            public void cartCleared() {
+                executor.execute(listener::cartCleared);
+            }
+
+            @Override
+            public void totalChanged(Money total) {
+                executor.execute(() -> listener.totalChanged(total));
+            }
+        };
+    }
+}
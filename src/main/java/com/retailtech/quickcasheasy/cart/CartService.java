@@ -1,21 +1,32 @@
 package com.retailtech.quickcasheasy.cart;
 
+import com.retailtech.quickcasheasy.cart.dto.CartItemDTO;
+import com.retailtech.quickcasheasy.exception.ProductNotFoundException;
+import com.retailtech.quickcasheasy.money.Money;
 import com.retailtech.quickcasheasy.product.ProductFacade;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * Keeps the items of the current cart together with a running total.
+ * The total is adjusted on every add, remove and quantity change, so reading it does not walk the cart.
+ * Each change is reported to the registered {@link CartListener}s.
+ */
 class CartService {
 
     private final ProductFacade productFacade;
-    private final Map<String, CartItem> cartItems;  // Map storing CartItems, keyed by barcode
+    private final Map<String, CartItem> cartItems;  // Map storing CartItems, keyed by barcode, in scan order
+    private final List<CartListener> listeners = new CopyOnWriteArrayList<>();
+    private long total;                             // Sum of price * quantity over all items, in minor units (øre)
 
     public CartService(ProductFacade productFacade) {
         this.productFacade = productFacade;
-        this.cartItems = new HashMap<>();
+        this.cartItems = new LinkedHashMap<>();
     }
 
     /**
@@ -23,18 +34,25 @@ class CartService {
      *
      * @param barcode  the product's barcode
      * @param quantity the quantity to add
+     * @throws ProductNotFoundException if no product has the barcode
      */
     public void addProductToCart(String barcode, int quantity) {
-        String productName = productFacade.getProductName(barcode);  // Get product name from facade
-        BigDecimal productPrice = productFacade.getProductPrice(barcode);  // Get product price directly
-
-        if (cartItems.containsKey(barcode)) {
-            CartItem existingItem = cartItems.get(barcode);
+        CartItem existingItem = cartItems.get(barcode);
+        if (existingItem != null) {
+            // The line keeps the price it was scanned at, so no product lookup is needed
             existingItem.setQuantity(existingItem.getQuantity() + quantity);  // Update quantity if product already in cart
+            total = Money.plus(total, Money.times(existingItem.getPriceMinorUnits(), quantity));
+            listeners.forEach(listener -> listener.lineUpdated(toDTO(barcode, existingItem)));
         } else {
+            String productName = productFacade.getProductName(barcode);  // Get product name from facade; throws for an unknown barcode
+            BigDecimal productPrice = productFacade.getProductPrice(barcode);  // Get product price directly
+
             CartItem newItem = new CartItem(productName, quantity, productPrice);  // Create new CartItem
             cartItems.put(barcode, newItem);
+            total = Money.plus(total, newItem.getTotalPriceMinorUnits());
+            listeners.forEach(listener -> listener.lineAdded(toDTO(barcode, newItem)));
         }
+        fireTotalChanged();
     }
 
 
@@ -44,7 +62,12 @@ class CartService {
      * @param barcode the product's barcode
      */
     public void removeProductFromCart(String barcode) {
-        cartItems.remove(barcode);  // Remove the product from the cart
+        CartItem removedItem = cartItems.remove(barcode);  // Remove the product from the cart
+        if (removedItem != null) {
+            total = Money.minus(total, removedItem.getTotalPriceMinorUnits());
+            listeners.forEach(listener -> listener.lineRemoved(barcode));
+            fireTotalChanged();
+        }
     }
 
     /**
@@ -54,9 +77,12 @@ class CartService {
      * @param newQuantity the new quantity to set
      */
     public void updateProductQuantity(String barcode, int newQuantity) {
-        if (cartItems.containsKey(barcode)) {
-            CartItem item = cartItems.get(barcode);
+        CartItem item = cartItems.get(barcode);
+        if (item != null) {
+            total = Money.plus(total, Money.times(item.getPriceMinorUnits(), newQuantity - item.getQuantity()));
             item.setQuantity(newQuantity);  // Update the quantity for the product in the cart
+            listeners.forEach(listener -> listener.lineUpdated(toDTO(barcode, item)));
+            fireTotalChanged();
         }
     }
 
@@ -65,6 +91,9 @@ class CartService {
      */
     public void clearCart() {
         cartItems.clear();  // Clear all items from the cart
+        total = 0;
+        listeners.forEach(CartListener::cartCleared);
+        fireTotalChanged();
     }
 
     /**
@@ -76,14 +105,51 @@ class CartService {
         return new ArrayList<>(cartItems.values());  // Return a list of CartItems
     }
 
+    /**
+     * Get the lines currently in the cart as DTOs, in scan order
+     *
+     * @return a list of CartItemDTOs
+     */
+    public List<CartItemDTO> getCartLines() {
+        List<CartItemDTO> lines = new ArrayList<>(cartItems.size());
+        cartItems.forEach((barcode, item) -> lines.add(toDTO(barcode, item)));
+        return lines;
+    }
+
+    /**
+     * Get the total price of all items in the cart, kept up to date by the methods changing the cart
+     *
+     * @return the total price of the cart in minor units (øre)
+     */
+    public long getTotalMinorUnits() {
+        return total;
+    }
+
     /**
      * Get the total price of all items in the cart
      *
-     * @return the total price of the cart
+     * @return the total price of the cart, with two decimals
      */
     public BigDecimal getTotal() {
-        return cartItems.values().stream()
-                .map(CartItem::getTotalPrice)  // Calculate the total for each item (price * quantity)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);  // Sum all totals to get the final total price
+        return Money.toBigDecimal(total);
+    }
+
+    void addListener(CartListener listener) {
+        listeners.add(listener);
+    }
+
+    void removeListener(CartListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fireTotalChanged() {
+        if (!listeners.isEmpty()) {
+            Money newTotal = Money.ofMinorUnits(total);
+            listeners.forEach(listener -> listener.totalChanged(newTotal));
+        }
+    }
+
+    private static CartItemDTO toDTO(String barcode, CartItem item) {
+        return new CartItemDTO(barcode, item.getProductName(), item.getQuantity(), item.getTotalPriceMinorUnits());
     }
 }
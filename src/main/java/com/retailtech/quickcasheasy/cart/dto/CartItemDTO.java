@@ -1,17 +1,25 @@
 package com.retailtech.quickcasheasy.cart.dto;
 
+import com.retailtech.quickcasheasy.money.Money;
+
 import java.math.BigDecimal;
 
 public class CartItemDTO {
 
+    private final String barcode;
     private final String productName;
     private final int quantity;
-    private final BigDecimal totalPrice;
+    private final long totalPriceMinorUnits; // Line total in minor units (øre)
 
-    public CartItemDTO(String productName, int quantity, BigDecimal totalPrice) {
+    public CartItemDTO(String barcode, String productName, int quantity, long totalPriceMinorUnits) {
+        this.barcode = barcode;
         this.productName = productName;
         this.quantity = quantity;
-        this.totalPrice = totalPrice;
+        this.totalPriceMinorUnits = totalPriceMinorUnits;
+    }
+
+    public String getBarcode() {
+        return barcode;
     }
 
     public String getProductName() {
@@ -22,7 +30,12 @@ public class CartItemDTO {
         return quantity;
     }
 
+    public long getTotalPriceMinorUnits() {
+        return totalPriceMinorUnits;
+    }
+
+    // Line total with two decimals, converted on request
     public BigDecimal getTotalPrice() {
-        return totalPrice;
+        return Money.toBigDecimal(totalPriceMinorUnits);
     }
 }
@@ -1,46 +1,34 @@
 package com.retailtech.quickcasheasy.category;
 
 import com.retailtech.quickcasheasy.database.DatabaseUtils;
+import com.retailtech.quickcasheasy.database.RowMapper;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 class CategoryRepositoryImpl implements CategoryRepository {
 
+    // Column list and index-based mapping for category rows
+    private static final RowMapper<Category> CATEGORY_MAPPER = RowMapper.of(
+            (rs, col) -> new Category(rs.getLong(col[0]), rs.getString(col[1]), rs.getString(col[2])),
+            "id", "name", "description");
+
     private final DatabaseUtils dbUtils;
 
     public CategoryRepositoryImpl(DatabaseUtils dbUtils) {
-        this.dbUtils = dbUtils;
-        initializeDatabase();
-    }
-
-    private void initializeDatabase() {
-        String sql = "CREATE TABLE IF NOT EXISTS categories (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255), description VARCHAR(255))";
-        dbUtils.executeUpdate(sql);
+        this.dbUtils = dbUtils; // The categories table is created by the schema migrations at startup
     }
 
     @Override
     public List<Category> getCategories() {
-        String sql = "SELECT * FROM categories";
-        return dbUtils.executeQuery(sql, this::mapResultSetToCategoryList);
+        String sql = CATEGORY_MAPPER.selectFrom("categories");
+        return dbUtils.executeQuery(sql, CATEGORY_MAPPER.toList());
     }
 
     @Override
     public Optional<Category> findById(Long id) {
-        String sql = "SELECT * FROM categories WHERE id = ?";
-        return dbUtils.executeQuery(sql, rs -> {
-            try {
-                if (rs.next()) {
-                    return Optional.of(new Category(rs.getLong("id"), rs.getString("name"), rs.getString("description")));
-                }
-            } catch (SQLException e) {
-                throw new RuntimeException(e);
-            }
-            return Optional.empty();
-        }, id);
+        String sql = CATEGORY_MAPPER.selectFrom("categories") + " WHERE id = ?";
+        return dbUtils.executeQuery(sql, CATEGORY_MAPPER.toOptional(), id);
     }
 
     @Override
@@ -54,16 +42,4 @@ class CategoryRepositoryImpl implements CategoryRepository {
         String sql = "DELETE FROM categories WHERE id = ?";
         dbUtils.executeUpdate(sql, id);
     }
-
-    private List<Category> mapResultSetToCategoryList(ResultSet rs) {
-        List<Category> categories = new ArrayList<>();
-        try {
-            while (rs.next()) {
-                categories.add(new Category(rs.getLong("id"), rs.getString("name"), rs.getString("description")));
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Error mapping result set to category list", e);
-        }
-        return categories;
-    }
 }
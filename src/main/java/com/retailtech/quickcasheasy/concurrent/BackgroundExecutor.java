@@ -0,0 +1,112 @@
+package com.retailtech.quickcasheasy.concurrent;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs blocking work (database lookups, bank calls) away from the JavaFX application thread.
+ * <p>
+ * Tasks run on virtual threads, so a task waiting on disk or network does not hold a platform thread.
+ * Results are handed back to the UI with {@link #fxThread()}, for example
+ * {@code BackgroundExecutor.call(this::lookup).thenAcceptAsync(this::show, BackgroundExecutor.fxThread())}.
+ */
+public final class BackgroundExecutor {
+
+    private static final ExecutorService EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("qce-background-", 0).factory());
+
+    private static final Executor FX_THREAD = Platform::runLater;
+
+    private BackgroundExecutor() {
+    }
+
+    /**
+     * Returns the executor running background tasks, one virtual thread per task.
+     *
+     * @return the background executor
+     */
+    public static Executor executor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * Returns an executor running tasks on the JavaFX application thread, in submission order.
+     *
+     * @return the FX thread executor
+     */
+    public static Executor fxThread() {
+        return FX_THREAD;
+    }
+
+    /**
+     * Runs a task that may throw a checked exception on a virtual thread.
+     *
+     * @param task the task to run
+     * @param <T>  the result type
+     * @return a future completed with the result, or exceptionally with the thrown exception
+     */
+    public static <T> CompletableFuture<T> call(Callable<T> task) {
+        return call(task, EXECUTOR);
+    }
+
+    /**
+     * Runs a task that may throw a checked exception on the given executor,
+     * for example a {@link SerialExecutor} keeping scans in order.
+     *
+     * @param task     the task to run
+     * @param executor the executor to run it on
+     * @param <T>      the result type
+     * @return a future completed with the result, or exceptionally with the thrown exception
+     */
+    public static <T> CompletableFuture<T> call(Callable<T> task, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Creates an executor that runs its tasks one at a time, in submission order, on virtual threads.
+     *
+     * @return a new serial executor
+     */
+    public static SerialExecutor newSerialExecutor() {
+        return new SerialExecutor(EXECUTOR);
+    }
+
+    /**
+     * Wraps an exception so it can be rethrown from a CompletableFuture callback without being wrapped twice.
+     *
+     * @param throwable the exception to rethrow
+     * @return {@code throwable} itself if it is a CompletionException, otherwise a CompletionException around it
+     */
+    public static CompletionException wrap(Throwable throwable) {
+        return throwable instanceof CompletionException ? (CompletionException) throwable : new CompletionException(throwable);
+    }
+
+    /**
+     * Returns the exception a failed task threw, without the CompletionException or ExecutionException around it.
+     *
+     * @param throwable the exception passed to a CompletableFuture callback
+     * @return the original exception
+     */
+    public static Throwable unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,96 @@
+package com.retailtech.quickcasheasy.concurrent;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how long the JavaFX application thread is blocked.
+ * <p>
+ * A heartbeat is posted to the FX thread at a fixed interval; the time until it runs is how long the
+ * thread was busy with other work. Delays above the stall threshold are counted and logged, since
+ * the till does not react to scans or clicks for that long.
+ */
+public final class FxThreadMonitor implements AutoCloseable {
+
+    static final String INTERVAL_PROPERTY = "qce.fx.monitor.intervalMs";
+    static final String STALL_THRESHOLD_PROPERTY = "qce.fx.monitor.stallThresholdMs";
+
+    private final Executor fxExecutor;
+    private final long stallThresholdNanos;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean heartbeatPending = new AtomicBoolean();
+
+    private final LongAdder heartbeats = new LongAdder();
+    private final LongAdder stalls = new LongAdder();
+    private final LongAdder totalBlockedNanos = new LongAdder();
+    private final AtomicLong maxBlockedNanos = new AtomicLong();
+
+    FxThreadMonitor(Executor fxExecutor, long intervalMillis, long stallThresholdMillis) {
+        this.fxExecutor = fxExecutor;
+        this.stallThresholdNanos = TimeUnit.MILLISECONDS.toNanos(stallThresholdMillis);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "qce-fx-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::postHeartbeat, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts monitoring the JavaFX application thread, with the interval and threshold taken from
+     * {@code -Dqce.fx.monitor.intervalMs} (default 100) and {@code -Dqce.fx.monitor.stallThresholdMs} (default 100).
+     *
+     * @return the running monitor
+     */
+    public static FxThreadMonitor start() {
+        return new FxThreadMonitor(Platform::runLater,
+                Long.getLong(INTERVAL_PROPERTY, 100L),
+                Long.getLong(STALL_THRESHOLD_PROPERTY, 100L));
+    }
+
+    /**
+     * Returns a snapshot of the measurements so far.
+     *
+     * @return the FX thread statistics
+     */
+    public FxThreadStats getStats() {
+        return new FxThreadStats(heartbeats.sum(), stalls.sum(), totalBlockedNanos.sum(), maxBlockedNanos.get());
+    }
+
+    /**
+     * Stops posting heartbeats.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void postHeartbeat() {
+        // Only one heartbeat in flight, so a long stall is measured once rather than queueing a heartbeat per interval
+        if (!heartbeatPending.compareAndSet(false, true)) {
+            return;
+        }
+        long postedAt = System.nanoTime();
+        fxExecutor.execute(() -> {
+            heartbeatPending.set(false);
+            record(System.nanoTime() - postedAt);
+        });
+    }
+
+    private void record(long blockedNanos) {
+        heartbeats.increment();
+        maxBlockedNanos.accumulateAndGet(blockedNanos, Math::max);
+        if (blockedNanos >= stallThresholdNanos) {
+            stalls.increment();
+            totalBlockedNanos.add(blockedNanos);
+            System.err.println("FX thread blocked for " + TimeUnit.NANOSECONDS.toMillis(blockedNanos) + " ms");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.retailtech.quickcasheasy.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-time snapshot of the {@link FxThreadMonitor} measurements.
+ */
+public final class FxThreadStats {
+
+    private final long heartbeats;
+    private final long stalls;
+    private final long totalBlockedNanos;
+    private final long maxBlockedNanos;
+
+    FxThreadStats(long heartbeats, long stalls, long totalBlockedNanos, long maxBlockedNanos) {
+        this.heartbeats = heartbeats;
+        this.stalls = stalls;
+        this.totalBlockedNanos = totalBlockedNanos;
+        this.maxBlockedNanos = maxBlockedNanos;
+    }
+
+    /**
+     * @return the number of heartbeats that reached the FX thread
+     */
+    public long getHeartbeats() {
+        return heartbeats;
+    }
+
+    /**
+     * @return the number of heartbeats delayed by at least the stall threshold
+     */
+    public long getStalls() {
+        return stalls;
+    }
+
+    /**
+     * @return the summed duration of all stalls
+     */
+    public long getTotalBlockedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalBlockedNanos);
+    }
+
+    /**
+     * @return the longest time a heartbeat waited for the FX thread
+     */
+    public long getMaxBlockedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxBlockedNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "FxThreadStats{" +
+                "heartbeats=" + heartbeats +
+                ", stalls=" + stalls +
+                ", totalBlockedMillis=" + getTotalBlockedMillis() +
+                ", maxBlockedMillis=" + getMaxBlockedMillis() +
+                '}';
+    }
+}
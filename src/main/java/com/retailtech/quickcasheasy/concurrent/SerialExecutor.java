@@ -0,0 +1,49 @@
+package com.retailtech.quickcasheasy.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs tasks one at a time, in the order they were submitted, on another executor.
+ * Used for the cart, so scans typed ahead while a lookup is in flight are applied in scan order
+ * and the cart is only ever changed by one thread at a time.
+ */
+public final class SerialExecutor implements Executor {
+
+    private final Executor delegate;
+    private final Queue<Runnable> tasks = new ArrayDeque<>(); // Guarded by this
+    private Runnable active;                                  // Guarded by this
+
+    public SerialExecutor(Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void execute(Runnable task) {
+        tasks.add(() -> {
+            try {
+                task.run();
+            } finally {
+                scheduleNext();
+            }
+        });
+        if (active == null) {
+            scheduleNext();
+        }
+    }
+
+    /**
+     * @return the number of tasks waiting behind the running one
+     */
+    public synchronized int getQueuedTaskCount() {
+        return tasks.size();
+    }
+
+    private synchronized void scheduleNext() {
+        active = tasks.poll();
+        if (active != null) {
+            delegate.execute(active);
+        }
+    }
+}
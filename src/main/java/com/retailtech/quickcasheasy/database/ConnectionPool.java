@@ -0,0 +1,510 @@
+package com.retailtech.quickcasheasy.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of JDBC connections.
+ * Borrowed connections are handed out as proxies whose {@code close()} returns the
+ * physical connection to the pool instead of closing it, so callers keep using try-with-resources.
+ * Each physical connection keeps a {@link PreparedStatementCache}: {@code prepareStatement(sql)} and
+ * {@code prepareStatement(sql, autoGeneratedKeys)} reuse a statement prepared earlier on the same connection,
+ * and closing the statement hands it back to the cache.
+ */
+class ConnectionPool implements AutoCloseable {
+
+    /**
+     * Opens new physical connections for the pool.
+     */
+    @FunctionalInterface
+    interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private final ConnectionFactory connectionFactory;
+    private final ConnectionPoolConfig config;
+    private final Semaphore permits;                            // One permit per connection that may be borrowed
+    private final Deque<PooledConnection> idle = new ArrayDeque<>(); // Most recently returned first, guarded by itself
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+
+    // Counters exposed through getStats()
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder totalBorrowWaitNanos = new LongAdder();
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong();
+    private final LongAdder borrowTimeouts = new LongAdder();
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final LongAdder connectionsEvicted = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder leaksDetected = new LongAdder();
+    private final LongAdder statementsPrepared = new LongAdder();
+    private final LongAdder preparesAvoided = new LongAdder();
+    private final LongAdder statementsEvicted = new LongAdder();
+
+    private volatile boolean closed;
+
+    ConnectionPool(ConnectionFactory connectionFactory, ConnectionPoolConfig config) {
+        this.connectionFactory = connectionFactory;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "qce-db-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = config.getHousekeepingIntervalMillis();
+        if (interval > 0) {
+            housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Borrows a connection, waiting up to the configured timeout when all connections are in use.
+     *
+     * @return a pooled connection; closing it returns it to the pool
+     * @throws SQLException if no connection became available in time or a new one could not be opened
+     */
+    Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        waiting.incrementAndGet();
+        try {
+            acquired = permits.tryAcquire(config.getBorrowTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        recordBorrowWait(System.nanoTime() - start);
+
+        if (!acquired) {
+            borrowTimeouts.increment();
+            throw new SQLTimeoutException("Timed out after " + config.getBorrowTimeoutMillis()
+                    + " ms waiting for a database connection (pool size " + config.getMaxSize() + ")");
+        }
+
+        try {
+            PooledConnection pooled = takeIdleConnection();
+            if (pooled == null) {
+                pooled = new PooledConnection(connectionFactory.create());
+                connectionsCreated.increment();
+            }
+            pooled.borrowedAtNanos = System.nanoTime();
+            // Capturing a stack trace on every borrow is costly, so it is only done while debugging a leak
+            pooled.borrowSite = config.getLeakThresholdMillis() > 0 && config.isLeakStackTraces()
+                    ? new Throwable("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            active.add(pooled);
+            borrowCount.increment();
+            return pooled.newLease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool counters.
+     *
+     * @return the current pool statistics
+     */
+    ConnectionPoolStats getStats() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        return new ConnectionPoolStats(
+                config.getMaxSize(),
+                active.size(),
+                idleCount,
+                waiting.get(),
+                borrowCount.sum(),
+                totalBorrowWaitNanos.sum(),
+                maxBorrowWaitNanos.get(),
+                borrowTimeouts.sum(),
+                connectionsCreated.sum(),
+                connectionsEvicted.sum(),
+                validationFailures.sum(),
+                leaksDetected.sum(),
+                statementsPrepared.sum(),
+                preparesAvoided.sum(),
+                statementsEvicted.sum()
+        );
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeper.
+     * Connections still borrowed are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        List<PooledConnection> toClose;
+        synchronized (idle) {
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+        }
+        toClose.forEach(PooledConnection::closePhysically);
+    }
+
+    /**
+     * Runs idle eviction and leak detection. Scheduled on the housekeeper thread.
+     */
+    void housekeep() {
+        try {
+            evictIdleConnections();
+            detectLeaks();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Closes idle connections that have not been used within the idle timeout, keeping the configured minimum.
+     */
+    void evictIdleConnections() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeoutMillis());
+        List<PooledConnection> evicted = new ArrayList<>();
+        synchronized (idle) {
+            // Oldest connections sit at the tail of the deque
+            Iterator<PooledConnection> iterator = idle.descendingIterator();
+            while (iterator.hasNext() && idle.size() > config.getMinIdle()) {
+                PooledConnection candidate = iterator.next();
+                if (candidate.returnedAtNanos - cutoff <= 0) {
+                    iterator.remove();
+                    evicted.add(candidate);
+                }
+            }
+        }
+        evicted.forEach(PooledConnection::closePhysically);
+        connectionsEvicted.add(evicted.size());
+    }
+
+    /**
+     * Reports connections that have been borrowed for longer than the leak threshold, once per borrow.
+     */
+    void detectLeaks() {
+        long threshold = config.getLeakThresholdMillis();
+        if (threshold <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (PooledConnection pooled : active) {
+            long heldMillis = TimeUnit.NANOSECONDS.toMillis(now - pooled.borrowedAtNanos);
+            if (!pooled.leakReported && heldMillis >= threshold) {
+                pooled.leakReported = true;
+                leaksDetected.increment();
+                System.err.println("Possible connection leak: connection held for " + heldMillis + " ms");
+                if (pooled.borrowSite != null) {
+                    pooled.borrowSite.printStackTrace();
+                } else {
+                    System.err.println("Run with -D" + ConnectionPoolConfig.LEAK_STACK_TRACES_PROPERTY
+                            + "=true to see where it was borrowed");
+                }
+            }
+        }
+    }
+
+    private PooledConnection takeIdleConnection() {
+        while (true) {
+            PooledConnection candidate;
+            synchronized (idle) {
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) {
+                return null;
+            }
+            if (isValid(candidate)) {
+                return candidate;
+            }
+            validationFailures.increment();
+            candidate.closePhysically();
+        }
+    }
+
+    private boolean isValid(PooledConnection candidate) {
+        long sinceReturned = System.nanoTime() - candidate.returnedAtNanos;
+        if (sinceReturned < TimeUnit.MILLISECONDS.toNanos(config.getValidationIntervalMillis())) {
+            return true; // Recently used, skip the round trip
+        }
+        try {
+            return candidate.physical.isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        active.remove(pooled);
+        try {
+            if (!closed && pooled.resetForReuse()) {
+                pooled.returnedAtNanos = System.nanoTime();
+                synchronized (idle) {
+                    idle.offerFirst(pooled);
+                }
+            } else {
+                pooled.closePhysically();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void recordBorrowWait(long waitedNanos) {
+        totalBorrowWaitNanos.add(waitedNanos);
+        maxBorrowWaitNanos.accumulateAndGet(waitedNanos, Math::max);
+    }
+
+    /**
+     * A physical connection owned by the pool.
+     */
+    private final class PooledConnection {
+
+        private final Connection physical;
+        private final PreparedStatementCache statementCache;
+        private volatile long borrowedAtNanos;
+        private volatile long returnedAtNanos;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statementCache = new PreparedStatementCache(config.getStatementCacheSize(),
+                    evicted -> statementsEvicted.increment());
+        }
+
+        /**
+         * Creates a fresh proxy for one borrow, so a stale reference kept after close() cannot reach the next borrower.
+         */
+        private Connection newLease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Lease(this));
+        }
+
+        /**
+         * Ends any open transaction so the connection holds no locks while idle.
+         *
+         * @return true if the connection can be reused
+         */
+        private boolean resetForReuse() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (physical.getAutoCommit()) {
+                    physical.setAutoCommit(false);
+                } else {
+                    physical.rollback();
+                }
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Returns a statement from the cache, preparing it only if no idle one exists for this SQL.
+         * The returned proxy hands the statement back to the cache when it is closed.
+         */
+        private PreparedStatement prepareCached(Connection lease, String sql, int autoGeneratedKeys) throws SQLException {
+            PreparedStatementCache.Key key = new PreparedStatementCache.Key(sql, autoGeneratedKeys);
+            PreparedStatement statement = statementCache.take(key);
+            if (statement != null) {
+                preparesAvoided.increment();
+            } else {
+                statement = physical.prepareStatement(sql, autoGeneratedKeys);
+                statementsPrepared.increment();
+            }
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new StatementLease(this, lease, key, statement));
+        }
+
+        private void closePhysically() {
+            statementCache.closeAll();
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Invocation handler behind a borrowed connection proxy.
+     */
+    private final class Lease implements InvocationHandler {
+
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if (method.getName().equals("prepareStatement") && args.length <= 2
+                    && (args.length == 1 || method.getParameterTypes()[1] == int.class)) {
+                int autoGeneratedKeys = args.length == 1 ? Statement.NO_GENERATED_KEYS : (Integer) args[1];
+                return pooled.prepareCached((Connection) proxy, (String) args[0], autoGeneratedKeys);
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Invocation handler behind a cached statement proxy.
+     * Closing the proxy resets the statement and returns it to the connection's cache instead of closing it.
+     */
+    private static final class StatementLease implements InvocationHandler {
+
+        // Settings a borrower may change that would otherwise carry over to the next borrower of the statement
+        private static final Set<String> LIMIT_SETTERS = Set.of("setFetchSize", "setMaxRows", "setLargeMaxRows", "setQueryTimeout");
+
+        private final PooledConnection pooled;
+        private final Connection lease;
+        private final PreparedStatementCache.Key key;
+        private final PreparedStatement statement;
+        private final List<ResultSet> resultSets = new ArrayList<>(1);
+        private int[] defaultLimits;   // Fetch size, max rows and query timeout before the first change; null if unchanged
+        private boolean closed;
+
+        private StatementLease(PooledConnection pooled, Connection lease, PreparedStatementCache.Key key,
+                               PreparedStatement statement) {
+            this.pooled = pooled;
+            this.lease = lease;
+            this.key = key;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        if (resetForReuse()) {
+                            pooled.statementCache.offer(key, statement);
+                        } else {
+                            statement.close();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || statement.isClosed();
+                case "getConnection":
+                    return lease;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + statement + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement has already been closed");
+            }
+            if (defaultLimits == null && LIMIT_SETTERS.contains(method.getName())) {
+                defaultLimits = new int[]{statement.getFetchSize(), statement.getMaxRows(), statement.getQueryTimeout()};
+            }
+            try {
+                Object result = method.invoke(statement, args);
+                if (result instanceof ResultSet) {
+                    resultSets.add((ResultSet) result); // Closed on return so the statement is not left mid-query
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Closes result sets the caller left open, clears parameters, batches and warnings, and restores the fetch
+         * size, max rows and query timeout if the caller changed them.
+         *
+         * @return true if the statement can be cached
+         */
+        private boolean resetForReuse() {
+            try {
+                if (statement.isClosed()) {
+                    return false;
+                }
+                for (ResultSet resultSet : resultSets) {
+                    resultSet.close();
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.clearWarnings();
+                if (defaultLimits != null) {
+                    statement.setFetchSize(defaultLimits[0]);
+                    statement.setMaxRows(defaultLimits[1]);
+                    statement.setQueryTimeout(defaultLimits[2]);
+                }
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+    }
+}
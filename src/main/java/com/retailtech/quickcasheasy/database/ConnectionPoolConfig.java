@@ -0,0 +1,110 @@
+package com.retailtech.quickcasheasy.database;
+
+/**
+ * Settings for the {@link ConnectionPool}.
+ * Values can be overridden with system properties (for example {@code -Dqce.db.pool.size=8}).
+ */
+final class ConnectionPoolConfig {
+
+    static final String POOL_SIZE_PROPERTY = "qce.db.pool.size";
+    static final String MIN_IDLE_PROPERTY = "qce.db.pool.minIdle";
+    static final String BORROW_TIMEOUT_PROPERTY = "qce.db.pool.borrowTimeoutMs";
+    static final String VALIDATION_INTERVAL_PROPERTY = "qce.db.pool.validationIntervalMs";
+    static final String IDLE_TIMEOUT_PROPERTY = "qce.db.pool.idleTimeoutMs";
+    static final String LEAK_THRESHOLD_PROPERTY = "qce.db.pool.leakThresholdMs";
+    static final String LEAK_STACK_TRACES_PROPERTY = "qce.db.pool.leakStackTraces";
+    static final String HOUSEKEEPING_INTERVAL_PROPERTY = "qce.db.pool.housekeepingIntervalMs";
+    static final String STATEMENT_CACHE_SIZE_PROPERTY = "qce.db.pool.statementCacheSize";
+
+    private final int maxSize;                     // Maximum number of physical connections
+    private final int minIdle;                     // Idle connections kept open by the housekeeper
+    private final long borrowTimeoutMillis;        // How long a borrower waits for a free connection
+    private final long validationIntervalMillis;   // Connections returned more recently are not re-validated
+    private final long idleTimeoutMillis;          // Idle connections older than this are closed
+    private final long leakThresholdMillis;        // Borrowed longer than this is reported as a leak (0 disables)
+    private final boolean leakStackTraces;         // Record where each connection is borrowed, for leak reports (debug)
+    private final long housekeepingIntervalMillis; // How often eviction and leak detection run
+    private final int statementCacheSize;          // Prepared statements kept open per connection (0 disables)
+
+    ConnectionPoolConfig(int maxSize, int minIdle, long borrowTimeoutMillis, long validationIntervalMillis,
+                         long idleTimeoutMillis, long leakThresholdMillis, boolean leakStackTraces,
+                         long housekeepingIntervalMillis, int statementCacheSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        if (minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Minimum idle connections must be between 0 and the pool size");
+        }
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("Statement cache size cannot be negative");
+        }
+        this.maxSize = maxSize;
+        this.minIdle = minIdle;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.leakStackTraces = leakStackTraces;
+        this.housekeepingIntervalMillis = housekeepingIntervalMillis;
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    /**
+     * Builds the configuration from system properties, falling back to defaults suited to a single lane terminal.
+     *
+     * @return the pool configuration
+     */
+    static ConnectionPoolConfig fromSystemProperties() {
+        return new ConnectionPoolConfig(
+                Integer.getInteger(POOL_SIZE_PROPERTY, 4),
+                Integer.getInteger(MIN_IDLE_PROPERTY, 1),
+                Long.getLong(BORROW_TIMEOUT_PROPERTY, 5_000L),
+                Long.getLong(VALIDATION_INTERVAL_PROPERTY, 1_000L),
+                Long.getLong(IDLE_TIMEOUT_PROPERTY, 300_000L),
+                Long.getLong(LEAK_THRESHOLD_PROPERTY, 10_000L),
+                Boolean.getBoolean(LEAK_STACK_TRACES_PROPERTY),
+                Long.getLong(HOUSEKEEPING_INTERVAL_PROPERTY, 30_000L),
+                Integer.getInteger(STATEMENT_CACHE_SIZE_PROPERTY, 64)
+        );
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    int getMinIdle() {
+        return minIdle;
+    }
+
+    long getBorrowTimeoutMillis() {
+        return borrowTimeoutMillis;
+    }
+
+    long getValidationIntervalMillis() {
+        return validationIntervalMillis;
+    }
+
+    long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    long getLeakThresholdMillis() {
+        return leakThresholdMillis;
+    }
+
+    /**
+     * @return true if a stack trace is captured on every borrow, so a leak report shows where the connection was
+     * borrowed; costly, so off unless debugging a leak
+     */
+    boolean isLeakStackTraces() {
+        return leakStackTraces;
+    }
+
+    long getHousekeepingIntervalMillis() {
+        return housekeepingIntervalMillis;
+    }
+
+    int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+}
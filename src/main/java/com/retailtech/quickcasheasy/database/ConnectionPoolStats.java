@@ -0,0 +1,140 @@
+package com.retailtech.quickcasheasy.database;
+
+/**
+ * Point-in-time snapshot of the connection pool counters.
+ * Used to see how much contention there is for database connections on a lane.
+ */
+public final class ConnectionPoolStats {
+
+    private final int maxSize;
+    private final int active;
+    private final int idle;
+    private final int waiting;
+    private final long borrowCount;
+    private final long totalBorrowWaitNanos;
+    private final long maxBorrowWaitNanos;
+    private final long borrowTimeouts;
+    private final long connectionsCreated;
+    private final long connectionsEvicted;
+    private final long validationFailures;
+    private final long leaksDetected;
+    private final long statementsPrepared;
+    private final long preparesAvoided;
+    private final long statementsEvicted;
+
+    ConnectionPoolStats(int maxSize, int active, int idle, int waiting, long borrowCount,
+                        long totalBorrowWaitNanos, long maxBorrowWaitNanos, long borrowTimeouts,
+                        long connectionsCreated, long connectionsEvicted, long validationFailures,
+                        long leaksDetected, long statementsPrepared, long preparesAvoided,
+                        long statementsEvicted) {
+        this.maxSize = maxSize;
+        this.active = active;
+        this.idle = idle;
+        this.waiting = waiting;
+        this.borrowCount = borrowCount;
+        this.totalBorrowWaitNanos = totalBorrowWaitNanos;
+        this.maxBorrowWaitNanos = maxBorrowWaitNanos;
+        this.borrowTimeouts = borrowTimeouts;
+        this.connectionsCreated = connectionsCreated;
+        this.connectionsEvicted = connectionsEvicted;
+        this.validationFailures = validationFailures;
+        this.leaksDetected = leaksDetected;
+        this.statementsPrepared = statementsPrepared;
+        this.preparesAvoided = preparesAvoided;
+        this.statementsEvicted = statementsEvicted;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getTotalBorrowWaitNanos() {
+        return totalBorrowWaitNanos;
+    }
+
+    public long getMaxBorrowWaitNanos() {
+        return maxBorrowWaitNanos;
+    }
+
+    public long getAverageBorrowWaitNanos() {
+        return borrowCount == 0 ? 0 : totalBorrowWaitNanos / borrowCount;
+    }
+
+    public long getBorrowTimeouts() {
+        return borrowTimeouts;
+    }
+
+    public long getConnectionsCreated() {
+        return connectionsCreated;
+    }
+
+    public long getConnectionsEvicted() {
+        return connectionsEvicted;
+    }
+
+    public long getValidationFailures() {
+        return validationFailures;
+    }
+
+    public long getLeaksDetected() {
+        return leaksDetected;
+    }
+
+    /**
+     * @return the number of statements that had to be parsed and planned by the database
+     */
+    public long getStatementsPrepared() {
+        return statementsPrepared;
+    }
+
+    /**
+     * @return the number of prepareStatement calls served from a connection's statement cache
+     */
+    public long getPreparesAvoided() {
+        return preparesAvoided;
+    }
+
+    /**
+     * @return the number of cached statements closed to make room for others
+     */
+    public long getStatementsEvicted() {
+        return statementsEvicted;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolStats{" +
+                "maxSize=" + maxSize +
+                ", active=" + active +
+                ", idle=" + idle +
+                ", waiting=" + waiting +
+                ", borrowCount=" + borrowCount +
+                ", avgBorrowWaitMicros=" + getAverageBorrowWaitNanos() / 1_000 +
+                ", maxBorrowWaitMicros=" + maxBorrowWaitNanos / 1_000 +
+                ", borrowTimeouts=" + borrowTimeouts +
+                ", created=" + connectionsCreated +
+                ", evicted=" + connectionsEvicted +
+                ", validationFailures=" + validationFailures +
+                ", leaksDetected=" + leaksDetected +
+                ", statementsPrepared=" + statementsPrepared +
+                ", preparesAvoided=" + preparesAvoided +
+                ", statementsEvicted=" + statementsEvicted +
+                '}';
+    }
+}
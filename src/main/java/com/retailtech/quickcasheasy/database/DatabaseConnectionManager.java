@@ -4,23 +4,29 @@ import java.sql.*;
 
 /**
  * Manager for managing database connections.
+ * Connections are served from a bounded {@link ConnectionPool}; closing a connection returns it to the pool.
+ * New SQLite connections are configured with the {@link SqlitePragmaProfile}.
  */
 public class DatabaseConnectionManager {
 
-    // SQLite database connection details
-    private static final String JDBC_URL = "jdbc:sqlite:QCE.db";
+    // SQLite database connection details, overridable with -Dqce.db.url=...
+    static final String JDBC_URL_PROPERTY = "qce.db.url";
+    private static final String DEFAULT_JDBC_URL = "jdbc:sqlite:QCE.db";
+
+    // Catalog warmup at startup, can be disabled with -Dqce.db.warmup=false
+    static final String WARMUP_PROPERTY = "qce.db.warmup";
+
+    // Lazily created so that system properties can be set before the first connection is requested
+    private static volatile ConnectionPool pool;
+
     /**
-     * Returns a new instance of the database connection.
+     * Borrows a connection from the pool.
      *
      * @return The connection to the SQLite database.
      */
     public static Connection getConnection() {
         try {
-            // Always create a new connection
-            Connection connection = DriverManager.getConnection(JDBC_URL);
-            connection.setAutoCommit(false); // Setting manual commit to ensure data persistence
-
-            return connection;
+            return pool().borrow();
         } catch (SQLException e) {
             e.printStackTrace();
             throw new RuntimeException("Error connecting to the SQLite database", e);
@@ -28,7 +34,7 @@ public class DatabaseConnectionManager {
     }
 
     /**
-     * Closes the given database connection.
+     * Returns the given database connection to the pool.
      *
      * @param connection The connection to close.
      */
@@ -41,4 +47,97 @@ public class DatabaseConnectionManager {
             }
         }
     }
+
+    /**
+     * Returns the JDBC URL the pool connects to.
+     *
+     * @return the JDBC URL
+     */
+    public static String getJdbcUrl() {
+        return System.getProperty(JDBC_URL_PROPERTY, DEFAULT_JDBC_URL);
+    }
+
+    /**
+     * Returns the SQL dialect of the configured database.
+     *
+     * @return the dialect matching the JDBC URL
+     */
+    public static SqlDialect getDialect() {
+        return SqlDialect.fromJdbcUrl(getJdbcUrl());
+    }
+
+    /**
+     * Reads the products table and its barcode index once, so the first scans after a restart do not wait for disk
+     * reads. Does nothing for databases other than SQLite or when disabled with {@code -Dqce.db.warmup=false}.
+     * Meant to run in the background at startup.
+     *
+     * @return the number of products read, or 0 if no warmup was done
+     */
+    public static long warmUpCatalog() {
+        if (!Boolean.parseBoolean(System.getProperty(WARMUP_PROPERTY, "true")) || getDialect() != SqlDialect.SQLITE) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        try (Connection connection = getConnection()) {
+            long products = DatabaseWarmup.warmUp(connection, "products");
+            System.out.println("Catalog warmed up: " + products + " products in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return products;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Error warming up the catalog", e);
+        }
+    }
+
+    /**
+     * Returns the current connection pool counters (borrow wait, active and idle connections).
+     *
+     * @return a snapshot of the pool statistics
+     */
+    public static ConnectionPoolStats getPoolStats() {
+        return pool().getStats();
+    }
+
+    /**
+     * Closes all pooled connections. The next call to {@link #getConnection()} creates a new pool.
+     */
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
+
+    private static ConnectionPool pool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseConnectionManager.class) {
+                current = pool;
+                if (current == null) {
+                    current = new ConnectionPool(DatabaseConnectionManager::openConnection,
+                            ConnectionPoolConfig.fromSystemProperties());
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Opens a new physical connection for the pool.
+     */
+    private static Connection openConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(getJdbcUrl());
+        try {
+            if (getDialect() == SqlDialect.SQLITE) {
+                // WAL, synchronous and cache settings; applied while still in auto-commit mode
+                SqlitePragmaProfile.fromSystemProperties().apply(connection);
+            }
+            connection.setAutoCommit(false); // Setting manual commit to ensure data persistence
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
 }
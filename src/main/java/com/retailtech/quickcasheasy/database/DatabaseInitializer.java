@@ -8,12 +8,10 @@ import javafx.application.Application;
  */
 public class DatabaseInitializer {
     public static void main(String[] args) {
-        DatabaseUtils databaseUtils = new DatabaseUtils();
-
-        // Run script to initialize the database
+        // Create the tables and apply pending schema migrations
         try {
-            databaseUtils.runScript("scripts/init.sql");
-            System.out.println("Database initialization script executed successfully.");
+            int version = new SchemaMigrator().migrate();
+            System.out.println("Database schema is at version " + version + ".");
         } catch (Exception e) {
             e.printStackTrace();
             System.err.println("Error running initialization script.");
@@ -7,12 +7,23 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.sql.*;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Utility class for performing database operations.
+ * Statements are prepared on pooled connections, which keep them in a per-connection statement cache,
+ * so repeated calls with the same SQL text are parsed and planned only once per connection.
  */
 public class DatabaseUtils {
 
+    // Rows fetched per round trip by streaming queries, overridable with -Dqce.db.fetchSize=...
+    static final String FETCH_SIZE_PROPERTY = "qce.db.fetchSize";
+    private static final int DEFAULT_FETCH_SIZE = 500;
+
     static {
         try {
             Class.forName("org.sqlite.JDBC");
@@ -65,8 +76,9 @@ public class DatabaseUtils {
      *
      * @param sql    The SQL update statement.
      * @param params Parameters for the SQL statement.
+     * @return The number of affected rows.
      */
-    public void executeUpdate(String sql, Object... params) {
+    public int executeUpdate(String sql, Object... params) {
         try (Connection conn = DatabaseConnectionManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
@@ -76,10 +88,11 @@ public class DatabaseUtils {
             }
 
             // Execute the update
-            pstmt.executeUpdate();
+            int affectedRows = pstmt.executeUpdate();
 
             // Commit the transaction
             conn.commit();
+            return affectedRows;
 
         } catch (SQLException e) {
             e.printStackTrace();
@@ -116,6 +129,54 @@ public class DatabaseUtils {
         }
     }
 
+    /**
+     * Executes a query and returns its rows as a lazily read stream, using the default fetch size.
+     *
+     * @see #stream(String, int, RowMapper, Object...)
+     */
+    public <T> Stream<T> stream(String sql, RowMapper<T> mapper, Object... params) {
+        return stream(sql, Integer.getInteger(FETCH_SIZE_PROPERTY, DEFAULT_FETCH_SIZE), mapper, params);
+    }
+
+    /**
+     * Executes a query and returns its rows as a lazily read stream, so a large table can be processed in constant memory.
+     * The stream holds a pooled connection and its cursor until it is closed; always use it in a try-with-resources
+     * block, and do not run other queries from the same thread while it is open if the pool may be exhausted.
+     * The connection is also released as soon as the last row has been read.
+     *
+     * @param sql       The SQL query statement.
+     * @param fetchSize The number of rows the driver fetches per round trip; 0 leaves it to the driver.
+     * @param mapper    Maps each row.
+     * @param params    Parameters for the SQL statement.
+     * @param <T>       The type of the mapped rows.
+     * @return The rows; closing the stream closes the cursor and returns the connection to the pool.
+     */
+    public <T> Stream<T> stream(String sql, int fetchSize, RowMapper<T> mapper, Object... params) {
+        if (fetchSize < 0) {
+            throw new IllegalArgumentException("Fetch size cannot be negative: " + fetchSize);
+        }
+        Connection conn = DatabaseConnectionManager.getConnection();
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setFetchSize(fetchSize);  // The pool restores the default when the statement goes back to its cache
+
+            // Set the parameters
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+
+            rs = pstmt.executeQuery();
+            Cursor<T> cursor = new Cursor<>(conn, pstmt, rs, mapper);
+            return StreamSupport.stream(cursor, false).onClose(cursor::close);
+        } catch (SQLException | RuntimeException e) {
+            Cursor.closeAll(rs, pstmt, conn);
+            e.printStackTrace();
+            throw new RuntimeException("Error executing query: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Executes a SQL script from the classpath.
      *
@@ -141,6 +202,25 @@ public class DatabaseUtils {
         }
     }
 
+    /**
+     * Executes a SQL script from the classpath on the given connection without committing,
+     * so the caller can run it as part of a larger transaction.
+     *
+     * @param conn       The connection to run the script on.
+     * @param scriptPath The path to the script file.
+     * @throws SQLException if a statement of the script fails
+     */
+    void runScript(Connection conn, String scriptPath) throws SQLException {
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(scriptPath)) {
+            if (inputStream == null) {
+                throw new RuntimeException("Script file not found: " + scriptPath);
+            }
+            RunScript.execute(conn, new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading script: " + scriptPath, e);
+        }
+    }
+
 
     /**
      * Interface for handling ResultSet processing.
@@ -150,4 +230,65 @@ public class DatabaseUtils {
     public interface ResultSetHandler<T> {
         T handle(ResultSet rs) throws SQLException;
     }
+
+    /**
+     * Reads the rows of an open query for {@link #stream(String, int, RowMapper, Object...)}
+     * and owns its connection, statement and result set.
+     */
+    private static final class Cursor<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final Connection conn;
+        private final PreparedStatement pstmt;
+        private final ResultSet rs;
+        private final RowMapper<T> mapper;
+        private final int[] indexes;
+        private boolean closed;
+
+        Cursor(Connection conn, PreparedStatement pstmt, ResultSet rs, RowMapper<T> mapper) throws SQLException {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.conn = conn;
+            this.pstmt = pstmt;
+            this.rs = rs;
+            this.mapper = mapper;
+            this.indexes = mapper.resolve(rs);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) {
+                return false;
+            }
+            try {
+                if (!rs.next()) {
+                    close();
+                    return false;
+                }
+                action.accept(mapper.read(rs, indexes));
+                return true;
+            } catch (SQLException e) {
+                close();
+                e.printStackTrace();
+                throw new RuntimeException("Error reading query results: " + e.getMessage(), e);
+            }
+        }
+
+        void close() {
+            if (!closed) {
+                closed = true;
+                closeAll(rs, pstmt, conn);
+            }
+        }
+
+        static void closeAll(AutoCloseable... resources) {
+            for (AutoCloseable resource : resources) {
+                if (resource != null) {
+                    try {
+                        resource.close();
+                    } catch (Exception e) {
+                        System.err.println("Error closing query resource: " + e.getMessage());
+                    }
+                }
+            }
+        }
+    }
 }
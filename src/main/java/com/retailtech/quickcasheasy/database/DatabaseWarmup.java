@@ -0,0 +1,75 @@
+package com.retailtech.quickcasheasy.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads every page of a SQLite table and its indexes once, so later lookups find them in memory.
+ * With memory-mapped I/O the pages stay mapped into the process; without it they are at least in the
+ * operating system's page cache instead of on disk.
+ */
+final class DatabaseWarmup {
+
+    private DatabaseWarmup() {
+    }
+
+    /**
+     * Scans the table and each of its indexes.
+     *
+     * @param connection the connection to read with
+     * @param table      the table to warm up; must be a plain identifier
+     * @return the number of rows in the table
+     * @throws SQLException if the table cannot be read
+     */
+    static long warmUp(Connection connection, String table) throws SQLException {
+        String name = identifier(table);
+        long rows = 0;
+        try (Statement statement = connection.createStatement()) {
+            // Full table scan: every leaf page of the table b-tree is read
+            try (ResultSet rs = statement.executeQuery("SELECT * FROM " + name + " NOT INDEXED")) {
+                while (rs.next()) {
+                    rows++;
+                }
+            }
+            // One index scan per index, e.g. sqlite_autoindex_products_1 behind the barcode lookups
+            for (String[] index : indexes(statement, name)) {
+                try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + name + " INDEXED BY " + identifier(index[0])
+                        + " WHERE " + identifier(index[1]) + " IS NOT NULL")) {
+                    rs.next();
+                }
+            }
+        }
+        return rows;
+    }
+
+    // Index name and first column of every index on the table
+    private static List<String[]> indexes(Statement statement, String table) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery("PRAGMA index_list(" + table + ")")) {
+            while (rs.next()) {
+                names.add(rs.getString("name"));
+            }
+        }
+        List<String[]> indexes = new ArrayList<>();
+        for (String index : names) {
+            try (ResultSet rs = statement.executeQuery("PRAGMA index_info(" + identifier(index) + ")")) {
+                if (rs.next() && rs.getString("name") != null) {
+                    indexes.add(new String[]{index, rs.getString("name")});
+                }
+            }
+        }
+        return indexes;
+    }
+
+    // Names are spliced into the statements, so only plain identifiers are accepted
+    private static String identifier(String name) {
+        if (name == null || !name.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid table or index name: " + name);
+        }
+        return name;
+    }
+}
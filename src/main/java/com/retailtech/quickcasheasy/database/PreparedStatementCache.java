@@ -0,0 +1,120 @@
+package com.retailtech.quickcasheasy.database;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Least-recently-used cache of prepared statements for one physical connection.
+ * A statement is taken out of the cache while it is in use and offered back when the caller closes it,
+ * so the same statement is never handed to two callers at once.
+ */
+final class PreparedStatementCache {
+
+    private final int maxSize;
+    private final Consumer<PreparedStatement> evictionListener;
+    private final LinkedHashMap<Key, PreparedStatement> statements;
+
+    /**
+     * @param maxSize          the maximum number of idle statements kept open
+     * @param evictionListener called with each statement closed to make room for a newer one
+     */
+    PreparedStatementCache(int maxSize, Consumer<PreparedStatement> evictionListener) {
+        this.maxSize = maxSize;
+        this.evictionListener = evictionListener;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PreparedStatement> eldest) {
+                if (size() > PreparedStatementCache.this.maxSize) {
+                    closeQuietly(eldest.getValue());
+                    PreparedStatementCache.this.evictionListener.accept(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Takes an idle statement for the given SQL out of the cache.
+     *
+     * @return the cached statement, or null if there is none
+     */
+    synchronized PreparedStatement take(Key key) {
+        return statements.remove(key);
+    }
+
+    /**
+     * Puts a statement back after use. If an equal statement was returned in the meantime the extra one is closed.
+     */
+    void offer(Key key, PreparedStatement statement) {
+        boolean kept = false;
+        if (maxSize > 0) {
+            synchronized (this) {
+                if (!statements.containsKey(key)) {
+                    statements.put(key, statement);
+                    kept = true;
+                }
+            }
+        }
+        if (!kept) {
+            closeQuietly(statement);
+        }
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+
+    /**
+     * Closes all idle statements, before the physical connection is closed.
+     */
+    void closeAll() {
+        List<PreparedStatement> toClose;
+        synchronized (this) {
+            toClose = new ArrayList<>(statements.values());
+            statements.clear();
+        }
+        toClose.forEach(PreparedStatementCache::closeQuietly);
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Identifies a cached statement by its SQL text and generated keys flag.
+     */
+    static final class Key {
+
+        private final String sql;
+        private final int autoGeneratedKeys;
+
+        Key(String sql, int autoGeneratedKeys) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return autoGeneratedKeys == other.autoGeneratedKeys && sql.equals(other.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, autoGeneratedKeys);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.retailtech.quickcasheasy.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Maps rows of a ResultSet to objects, reading columns by index.
+ * A mapper declares the columns it reads, so queries select exactly those instead of {@code SELECT *}.
+ * The column indexes are looked up once per ResultSet, not once per field and row.
+ * <p>
+ * Example:
+ * <pre>{@code
+ * RowMapper<Category> MAPPER = RowMapper.of(
+ *         (rs, col) -> new Category(rs.getLong(col[0]), rs.getString(col[1]), rs.getString(col[2])),
+ *         "id", "name", "description");
+ * List<Category> categories = dbUtils.executeQuery(MAPPER.selectFrom("categories"), MAPPER.toList());
+ * }</pre>
+ *
+ * @param <T> the type of the mapped objects
+ */
+public final class RowMapper<T> {
+
+    private final String[] columns;
+    private final RowReader<T> reader;
+
+    private RowMapper(RowReader<T> reader, String[] columns) {
+        this.reader = reader;
+        this.columns = columns;
+    }
+
+    /**
+     * Creates a mapper reading the given columns.
+     *
+     * @param reader  builds one object from the current row; {@code col[i]} is the index of {@code columns[i]}
+     * @param columns the columns the reader needs, in the order of the index array
+     * @param <T>     the type of the mapped objects
+     * @return the mapper
+     */
+    public static <T> RowMapper<T> of(RowReader<T> reader, String... columns) {
+        if (reader == null) {
+            throw new IllegalArgumentException("Row reader cannot be null");
+        }
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("A row mapper needs at least one column");
+        }
+        return new RowMapper<>(reader, columns.clone());
+    }
+
+    /**
+     * Returns the comma-separated column list, for building a SELECT.
+     *
+     * @return the columns, for example {@code "id, name, description"}
+     */
+    public String columnList() {
+        return String.join(", ", columns);
+    }
+
+    /**
+     * Returns the column list qualified with a table alias, for queries that join other tables.
+     *
+     * @param alias the alias of the mapped table
+     * @return the columns, for example {@code "c.id, c.name, c.description"}
+     */
+    public String columnList(String alias) {
+        StringBuilder list = new StringBuilder();
+        for (String column : columns) {
+            if (list.length() > 0) {
+                list.append(", ");
+            }
+            list.append(alias).append('.').append(column);
+        }
+        return list.toString();
+    }
+
+    /**
+     * Returns a SELECT of the mapped columns from a table; append a WHERE or ORDER BY as needed.
+     *
+     * @param table the table to read
+     * @return the SELECT statement
+     */
+    public String selectFrom(String table) {
+        return "SELECT " + columnList() + " FROM " + table;
+    }
+
+    /**
+     * Maps all remaining rows into a list.
+     *
+     * @param rs the result set
+     * @return the mapped rows
+     * @throws SQLException if reading the result set fails
+     */
+    public List<T> list(ResultSet rs) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        forEach(rs, rows::add);
+        return rows;
+    }
+
+    /**
+     * Maps the next row, if there is one.
+     *
+     * @param rs the result set
+     * @return the mapped row, or empty if the result set has no more rows
+     * @throws SQLException if reading the result set fails
+     */
+    public Optional<T> first(ResultSet rs) throws SQLException {
+        if (!rs.next()) {
+            return Optional.empty();
+        }
+        return Optional.of(reader.read(rs, resolve(rs)));
+    }
+
+    /**
+     * Maps the remaining rows one at a time and hands each to the action, without collecting them.
+     *
+     * @param rs     the result set
+     * @param action receives each mapped row
+     * @return the number of rows mapped
+     * @throws SQLException if reading the result set fails
+     */
+    public long forEach(ResultSet rs, Consumer<? super T> action) throws SQLException {
+        int[] indexes = resolve(rs);
+        long count = 0;
+        while (rs.next()) {
+            action.accept(reader.read(rs, indexes));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns a handler for {@link DatabaseUtils#executeQuery} that maps all rows into a list.
+     *
+     * @return the handler
+     */
+    public DatabaseUtils.ResultSetHandler<List<T>> toList() {
+        return this::list;
+    }
+
+    /**
+     * Returns a handler for {@link DatabaseUtils#executeQuery} that maps the first row, if any.
+     *
+     * @return the handler
+     */
+    public DatabaseUtils.ResultSetHandler<Optional<T>> toOptional() {
+        return this::first;
+    }
+
+    /**
+     * Returns a handler for {@link DatabaseUtils#executeQuery} that streams the rows into an action.
+     *
+     * @param action receives each mapped row
+     * @return the handler, returning the number of rows mapped
+     */
+    public DatabaseUtils.ResultSetHandler<Long> toConsumer(Consumer<? super T> action) {
+        return rs -> forEach(rs, action);
+    }
+
+    /**
+     * Maps the current row using indexes from {@link #resolve(ResultSet)}.
+     */
+    T read(ResultSet rs, int[] indexes) throws SQLException {
+        return reader.read(rs, indexes);
+    }
+
+    /**
+     * Looks up the index of each mapped column in the result set.
+     *
+     * @param rs the result set
+     * @return the column indexes, in the order the columns were declared
+     * @throws SQLException if a mapped column is not in the result set
+     */
+    int[] resolve(ResultSet rs) throws SQLException {
+        int[] indexes = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            indexes[i] = rs.findColumn(columns[i]);
+        }
+        return indexes;
+    }
+
+    /**
+     * Builds one object from the current row of a result set.
+     *
+     * @param <T> the type of the mapped objects
+     */
+    @FunctionalInterface
+    public interface RowReader<T> {
+
+        /**
+         * Reads the current row.
+         *
+         * @param rs  the result set, positioned on the row to read
+         * @param col the indexes of the mapped columns, in declaration order
+         * @return the mapped object
+         * @throws SQLException if reading a column fails
+         */
+        T read(ResultSet rs, int[] col) throws SQLException;
+    }
+}
@@ -0,0 +1,141 @@
+package com.retailtech.quickcasheasy.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Brings the database schema up to date by running numbered SQL scripts in order.
+ * <p>
+ * The versions already applied are recorded in the {@code schema_version} table. All pending migrations run in one
+ * transaction together with their version rows, so the schema is either fully migrated or left as it was; an
+ * up-to-date database costs a single query.
+ * New migrations are added to the end of {@link #MIGRATIONS} with the next version number; applied migrations are
+ * never edited.
+ */
+public final class SchemaMigrator {
+
+    /**
+     * One versioned schema change.
+     */
+    static final class Migration {
+        private final int version;
+        private final String description;
+        private final String script;
+
+        Migration(int version, String description, String script) {
+            this.version = version;
+            this.description = description;
+            this.script = script;
+        }
+
+        int getVersion() {
+            return version;
+        }
+
+        String getDescription() {
+            return description;
+        }
+
+        String getScript() {
+            return script;
+        }
+    }
+
+    // The application's migrations, oldest first; scripts sit at the resource root next to init.sql.
+    // V1 uses IF NOT EXISTS, so it also adopts databases created before migrations existed.
+    static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Initial schema", "init.sql"),
+            new Migration(2, "Indexes for hot query columns", "V2__hot_query_indexes.sql"),
+            new Migration(3, "Clear card numbers of finished payments", "V3__clear_settled_card_numbers.sql"),
+            new Migration(4, "Creation time of payments", "V4__payments_created_at.sql"));
+
+    private static final String CREATE_VERSION_TABLE = "CREATE TABLE IF NOT EXISTS schema_version ("
+            + "version INTEGER PRIMARY KEY, description TEXT NOT NULL, installed_at INTEGER NOT NULL)";
+
+    private final List<Migration> migrations;
+    private final DatabaseUtils databaseUtils = new DatabaseUtils();
+
+    /**
+     * Creates a migrator for the application's migrations.
+     */
+    public SchemaMigrator() {
+        this(MIGRATIONS);
+    }
+
+    SchemaMigrator(List<Migration> migrations) {
+        List<Migration> sorted = new ArrayList<>(migrations);
+        sorted.sort(Comparator.comparingInt(Migration::getVersion));
+        this.migrations = List.copyOf(sorted);
+    }
+
+    /**
+     * Applies all pending migrations to the database configured in DatabaseConnectionManager.
+     *
+     * @return the schema version after migrating
+     * @throws RuntimeException if a migration fails
+     */
+    public int migrate() {
+        try (Connection connection = DatabaseConnectionManager.getConnection()) {
+            return migrate(connection);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Error migrating the database schema: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Applies all pending migrations on the given connection, which must not be in auto-commit mode.
+     *
+     * @param connection the connection to migrate
+     * @return the schema version after migrating
+     * @throws SQLException if a migration fails; all pending migrations are rolled back
+     */
+    int migrate(Connection connection) throws SQLException {
+        try {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_VERSION_TABLE);
+            }
+            int current = currentVersion(connection);
+            for (Migration migration : migrations) {
+                if (migration.getVersion() <= current) {
+                    continue;
+                }
+                System.out.println("Migrating schema to version " + migration.getVersion() + ": " + migration.getDescription());
+                databaseUtils.runScript(connection, migration.getScript());
+                try (PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO schema_version (version, description, installed_at) VALUES (?, ?, ?)")) {
+                    insert.setInt(1, migration.getVersion());
+                    insert.setString(2, migration.getDescription());
+                    insert.setLong(3, System.currentTimeMillis());
+                    insert.executeUpdate();
+                }
+                current = migration.getVersion();
+            }
+            connection.commit();
+            return current;
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the highest applied version, or 0 for a database without migrations.
+     *
+     * @param connection the connection to read with
+     * @return the current schema version
+     * @throws SQLException if the schema_version table cannot be read
+     */
+    static int currentVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
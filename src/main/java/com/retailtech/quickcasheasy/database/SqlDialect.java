@@ -0,0 +1,74 @@
+package com.retailtech.quickcasheasy.database;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * SQL differences between the database engines the application runs on.
+ * The dialect is selected from the JDBC URL, see {@link DatabaseConnectionManager#getDialect()}.
+ */
+public enum SqlDialect {
+
+    /**
+     * SQLite, used on the lanes. Upserts use {@code INSERT ... ON CONFLICT ... DO UPDATE}.
+     */
+    SQLITE {
+        @Override
+        public String upsert(String table, List<String> keyColumns, List<String> columns) {
+            List<String> updatedColumns = columns.stream()
+                    .filter(column -> !keyColumns.contains(column))
+                    .collect(Collectors.toList());
+            String conflictAction = updatedColumns.isEmpty()
+                    ? "DO NOTHING"
+                    : "DO UPDATE SET " + updatedColumns.stream()
+                    .map(column -> column + " = excluded." + column)
+                    .collect(Collectors.joining(", "));
+            return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + placeholders(columns.size()) + ")"
+                    + " ON CONFLICT(" + String.join(", ", keyColumns) + ") " + conflictAction;
+        }
+    },
+
+    /**
+     * H2, used for tooling and tests. Upserts use {@code MERGE INTO ... KEY (...)}.
+     */
+    H2 {
+        @Override
+        public String upsert(String table, List<String> keyColumns, List<String> columns) {
+            return "MERGE INTO " + table + " (" + String.join(", ", columns) + ") KEY (" + String.join(", ", keyColumns) + ")"
+                    + " VALUES (" + placeholders(columns.size()) + ")";
+        }
+    };
+
+    /**
+     * Builds a single-statement insert-or-update, so a write does not need a read first.
+     * Parameters are bound in the order of {@code columns}.
+     *
+     * @param table      the table to write to
+     * @param keyColumns the unique columns that identify an existing row
+     * @param columns    all columns to write, including the key columns
+     * @return the upsert SQL with one placeholder per column
+     */
+    public abstract String upsert(String table, List<String> keyColumns, List<String> columns);
+
+    /**
+     * Selects the dialect for a JDBC URL.
+     *
+     * @param jdbcUrl the JDBC URL
+     * @return the matching dialect
+     * @throws IllegalArgumentException if the database engine is not supported
+     */
+    public static SqlDialect fromJdbcUrl(String jdbcUrl) {
+        if (jdbcUrl != null && jdbcUrl.startsWith("jdbc:sqlite:")) {
+            return SQLITE;
+        }
+        if (jdbcUrl != null && jdbcUrl.startsWith("jdbc:h2:")) {
+            return H2;
+        }
+        throw new IllegalArgumentException("Unsupported JDBC URL: " + jdbcUrl);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
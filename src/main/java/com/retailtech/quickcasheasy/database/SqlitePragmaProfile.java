@@ -0,0 +1,118 @@
+package com.retailtech.quickcasheasy.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SQLite settings applied to every new connection of the pool.
+ * <p>
+ * The default profile switches to write-ahead logging with {@code synchronous=NORMAL}: a commit appends to the WAL
+ * without an fsync, readers are not blocked by the writer, and the database stays consistent after a crash (only the
+ * last commits before a power loss can be lost). Values can be overridden with system properties, and
+ * {@code -Dqce.db.sqlite.profile=none} keeps SQLite's own defaults.
+ * <p>
+ * Foreign keys are enforced on every connection whatever the profile, since SQLite ignores FOREIGN KEY clauses
+ * unless {@code foreign_keys} is switched on per connection.
+ */
+final class SqlitePragmaProfile {
+
+    static final String PROFILE_PROPERTY = "qce.db.sqlite.profile";
+    static final String JOURNAL_MODE_PROPERTY = "qce.db.sqlite.journalMode";
+    static final String SYNCHRONOUS_PROPERTY = "qce.db.sqlite.synchronous";
+    static final String CACHE_SIZE_PROPERTY = "qce.db.sqlite.cacheSizeKib";
+    static final String MMAP_SIZE_PROPERTY = "qce.db.sqlite.mmapSizeBytes";
+    static final String TEMP_STORE_PROPERTY = "qce.db.sqlite.tempStore";
+    static final String BUSY_TIMEOUT_PROPERTY = "qce.db.sqlite.busyTimeoutMs";
+
+    // Part of the schema's correctness rather than a tuning choice, so it is not in the profile's list
+    static final String FOREIGN_KEYS_PRAGMA = "PRAGMA foreign_keys = ON";
+
+    /**
+     * Profile that leaves every performance setting at SQLite's default.
+     */
+    static final SqlitePragmaProfile NONE = new SqlitePragmaProfile(Collections.emptyList());
+
+    private final List<String> pragmas;
+
+    private SqlitePragmaProfile(List<String> pragmas) {
+        this.pragmas = pragmas;
+    }
+
+    /**
+     * Creates a profile with the given settings.
+     *
+     * @param journalMode       journal mode, e.g. WAL
+     * @param synchronous       synchronous level, e.g. NORMAL
+     * @param cacheSizeKib      page cache size in KiB
+     * @param mmapSizeBytes     memory-mapped I/O size in bytes (0 disables)
+     * @param tempStore         where temporary tables and indexes are kept, e.g. MEMORY
+     * @param busyTimeoutMillis how long a connection waits for a lock before failing with SQLITE_BUSY
+     * @return the profile
+     */
+    static SqlitePragmaProfile of(String journalMode, String synchronous, long cacheSizeKib, long mmapSizeBytes,
+                                  String tempStore, long busyTimeoutMillis) {
+        List<String> pragmas = new ArrayList<>();
+        // busy_timeout first, so the journal mode switch waits for other connections instead of failing
+        pragmas.add("PRAGMA busy_timeout = " + busyTimeoutMillis);
+        pragmas.add("PRAGMA journal_mode = " + keyword(journalMode));
+        pragmas.add("PRAGMA synchronous = " + keyword(synchronous));
+        pragmas.add("PRAGMA cache_size = " + -cacheSizeKib); // Negative values are KiB rather than pages
+        pragmas.add("PRAGMA mmap_size = " + mmapSizeBytes);
+        pragmas.add("PRAGMA temp_store = " + keyword(tempStore));
+        return new SqlitePragmaProfile(Collections.unmodifiableList(pragmas));
+    }
+
+    /**
+     * Builds the profile from system properties. Defaults: WAL, synchronous NORMAL, 16 MiB page cache,
+     * 256 MiB memory map, temporary data in memory and a 5 second busy timeout.
+     *
+     * @return the pragma profile
+     */
+    static SqlitePragmaProfile fromSystemProperties() {
+        if ("none".equalsIgnoreCase(System.getProperty(PROFILE_PROPERTY))) {
+            return NONE;
+        }
+        return of(
+                System.getProperty(JOURNAL_MODE_PROPERTY, "WAL"),
+                System.getProperty(SYNCHRONOUS_PROPERTY, "NORMAL"),
+                Long.getLong(CACHE_SIZE_PROPERTY, 16_384L),
+                Long.getLong(MMAP_SIZE_PROPERTY, 268_435_456L),
+                System.getProperty(TEMP_STORE_PROPERTY, "MEMORY"),
+                Long.getLong(BUSY_TIMEOUT_PROPERTY, 5_000L));
+    }
+
+    /**
+     * @return the PRAGMA statements of this profile, in the order they are applied
+     */
+    List<String> getPragmas() {
+        return pragmas;
+    }
+
+    /**
+     * Switches on foreign keys and applies the profile to a new connection. Must be called before auto-commit is
+     * turned off, since neither the journal mode nor foreign key enforcement can be changed inside a transaction.
+     *
+     * @param connection the connection to configure
+     * @throws SQLException if a setting is rejected
+     */
+    void apply(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(FOREIGN_KEYS_PRAGMA);
+            for (String pragma : pragmas) {
+                statement.execute(pragma);
+            }
+        }
+    }
+
+    // Pragma values are spliced into the statement, so only plain keywords are accepted
+    private static String keyword(String value) {
+        if (value == null || !value.matches("[A-Za-z]+")) {
+            throw new IllegalArgumentException("Invalid SQLite pragma value: " + value);
+        }
+        return value.toUpperCase();
+    }
+}
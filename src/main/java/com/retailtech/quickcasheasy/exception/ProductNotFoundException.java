@@ -0,0 +1,16 @@
+package com.retailtech.quickcasheasy.exception;
+
+/**
+ * Exception thrown when a scanned barcode does not match any product.
+ */
+public class ProductNotFoundException extends RuntimeException {
+
+    /**
+     * Constructs a new ProductNotFoundException with the specified barcode.
+     *
+     * @param barcode the barcode that was not found
+     */
+    public ProductNotFoundException(String barcode) {
+        super("Product not found for barcode: " + barcode);
+    }
+}
@@ -0,0 +1,179 @@
+package com.retailtech.quickcasheasy.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money in minor units (øre/cents), stored as a long.
+ * <p>
+ * Rounding rules: an amount is rounded to {@value #SCALE} decimals with {@link RoundingMode#HALF_UP}
+ * once, when it is converted from a {@link BigDecimal}. Everything after that (multiplying by a quantity,
+ * adding, subtracting) is exact integer arithmetic and throws {@link ArithmeticException} on overflow.
+ * <p>
+ * Hot paths such as the cart work on the raw {@code long} values through the static helpers, so they
+ * allocate nothing. Instances are used where an amount is passed around as a value, and conversion to
+ * {@code BigDecimal} is left to persistence and display boundaries.
+ */
+public final class Money implements Comparable<Money> {
+
+    /**
+     * Number of decimals kept, 2 for NOK.
+     */
+    public static final int SCALE = 2;
+
+    /**
+     * Rounding applied when converting from a BigDecimal with more decimals.
+     */
+    public static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+
+    public static final Money ZERO = new Money(0);
+
+    private static final int MINOR_UNITS_PER_MAJOR = 100;
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    /**
+     * Creates an amount from minor units.
+     *
+     * @param minorUnits the amount in øre/cents
+     * @return the amount
+     */
+    public static Money ofMinorUnits(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Creates an amount from a decimal value, rounding it to {@value #SCALE} decimals.
+     *
+     * @param amount the amount in kroner/units
+     * @return the amount
+     * @throws ArithmeticException if the amount does not fit in a long number of minor units
+     */
+    public static Money of(BigDecimal amount) {
+        return ofMinorUnits(toMinorUnits(amount));
+    }
+
+    /**
+     * Converts a decimal amount to minor units, rounding it to {@value #SCALE} decimals.
+     *
+     * @param amount the amount in kroner/units
+     * @return the amount in øre/cents
+     * @throws ArithmeticException if the amount does not fit in a long
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, ROUNDING).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts minor units to a decimal amount with {@value #SCALE} decimals.
+     *
+     * @param minorUnits the amount in øre/cents
+     * @return the amount in kroner/units
+     */
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Multiplies a unit price by a quantity.
+     *
+     * @param unitPriceMinorUnits the unit price in øre/cents
+     * @param quantity            the quantity
+     * @return the line total in øre/cents
+     * @throws ArithmeticException on overflow
+     */
+    public static long times(long unitPriceMinorUnits, int quantity) {
+        return Math.multiplyExact(unitPriceMinorUnits, quantity);
+    }
+
+    /**
+     * Adds two amounts.
+     *
+     * @throws ArithmeticException on overflow
+     */
+    public static long plus(long minorUnits, long otherMinorUnits) {
+        return Math.addExact(minorUnits, otherMinorUnits);
+    }
+
+    /**
+     * Subtracts one amount from another.
+     *
+     * @throws ArithmeticException on overflow
+     */
+    public static long minus(long minorUnits, long otherMinorUnits) {
+        return Math.subtractExact(minorUnits, otherMinorUnits);
+    }
+
+    /**
+     * Formats minor units as a plain decimal string with {@value #SCALE} decimals, for example {@code 12.50}.
+     *
+     * @param minorUnits the amount in øre/cents
+     * @return the formatted amount, without currency
+     */
+    public static String format(long minorUnits) {
+        StringBuilder text = new StringBuilder(24);
+        if (minorUnits < 0) {
+            text.append('-');
+        }
+        // Work on the negative value, which also covers Long.MIN_VALUE
+        long negative = minorUnits < 0 ? minorUnits : -minorUnits;
+        long fraction = -(negative % MINOR_UNITS_PER_MAJOR);
+        text.append(-(negative / MINOR_UNITS_PER_MAJOR)).append('.');
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Money plus(Money other) {
+        return ofMinorUnits(plus(minorUnits, other.minorUnits));
+    }
+
+    public Money times(int quantity) {
+        return ofMinorUnits(times(minorUnits, quantity));
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    /**
+     * @return the amount as a BigDecimal with {@value #SCALE} decimals
+     */
+    public BigDecimal toBigDecimal() {
+        return toBigDecimal(minorUnits);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money)) return false;
+        return minorUnits == ((Money) o).minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    /**
+     * @return the amount formatted with {@link #format(long)}
+     */
+    @Override
+    public String toString() {
+        return format(minorUnits);
+    }
+}
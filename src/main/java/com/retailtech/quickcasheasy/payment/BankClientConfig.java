@@ -0,0 +1,59 @@
+package com.retailtech.quickcasheasy.payment;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Settings for the {@link BankPaymentClient}.
+ * Values can be overridden with system properties (for example {@code -Dqce.bank.responseTimeoutMs=5000}).
+ */
+final class BankClientConfig {
+
+    static final String URL_PROPERTY = "qce.bank.url";
+    static final String CONNECT_TIMEOUT_PROPERTY = "qce.bank.connectTimeoutMs";
+    static final String RESPONSE_TIMEOUT_PROPERTY = "qce.bank.responseTimeoutMs";
+
+    private static final String DEFAULT_URL = "http://localhost:8080/api/payment/make";
+
+    private final URI paymentUrl;            // Endpoint payments are posted to
+    private final Duration connectTimeout;   // How long to wait for the bank to accept a connection
+    private final Duration responseTimeout;  // How long to wait for the bank's answer once the request is sent
+
+    BankClientConfig(URI paymentUrl, Duration connectTimeout, Duration responseTimeout) {
+        if (paymentUrl == null) {
+            throw new IllegalArgumentException("Payment URL cannot be null");
+        }
+        if (connectTimeout.isNegative() || connectTimeout.isZero() || responseTimeout.isNegative() || responseTimeout.isZero()) {
+            throw new IllegalArgumentException("Bank timeouts must be positive");
+        }
+        this.paymentUrl = paymentUrl;
+        this.connectTimeout = connectTimeout;
+        this.responseTimeout = responseTimeout;
+    }
+
+    /**
+     * Builds the configuration from system properties. The defaults keep a lane waiting at most a few seconds
+     * for a bank that does not answer.
+     *
+     * @return the bank client configuration
+     */
+    static BankClientConfig fromSystemProperties() {
+        return new BankClientConfig(
+                URI.create(System.getProperty(URL_PROPERTY, DEFAULT_URL)),
+                Duration.ofMillis(Long.getLong(CONNECT_TIMEOUT_PROPERTY, 2_000L)),
+                Duration.ofMillis(Long.getLong(RESPONSE_TIMEOUT_PROPERTY, 10_000L))
+        );
+    }
+
+    URI getPaymentUrl() {
+        return paymentUrl;
+    }
+
+    Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    Duration getResponseTimeout() {
+        return responseTimeout;
+    }
+}
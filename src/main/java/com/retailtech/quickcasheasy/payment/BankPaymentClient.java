@@ -1,33 +1,47 @@
 package com.retailtech.quickcasheasy.payment;
 
+import com.retailtech.quickcasheasy.concurrent.BackgroundExecutor;
+
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.net.URI;
-import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Client for handling communication with the bank's payment API.
  * This class is responsible for sending payment requests to the bank server.
+ * Requests are sent asynchronously with connect and response timeouts, so a slow bank never holds a thread.
  */
 public class BankPaymentClient {
 
-    // Base URL of the bank's payment API
-    private static final String BANK_PAYMENT_URL = "http://localhost:8080/api/payment/make";
+    // Lets the bank recognise a retried request and not charge the card twice
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    // One HttpClient per connect timeout for all payment windows, so connections to the bank are reused.
+    // The connect timeout is the only setting of BankClientConfig held by the HttpClient; the URL and the response
+    // timeout are set on each request.
+    private static final Map<Duration, HttpClient> SHARED_HTTP_CLIENTS = new ConcurrentHashMap<>();
 
     // HttpClient for sending HTTP requests
     private final HttpClient httpClient;
 
+    // Bank URL and timeouts
+    private final BankClientConfig config;
+
     /**
-     * Constructs a new BankPaymentClient with a default HTTP client.
+     * Constructs a new BankPaymentClient using the shared HTTP client and the configured bank URL and timeouts.
      */
     public BankPaymentClient() {
-        this.httpClient = HttpClient.newBuilder()
-                .followRedirects(HttpClient.Redirect.NORMAL) // Enable redirect handling
-                .build();
+        this(BankClientConfig.fromSystemProperties());
     }
 
     /**
@@ -36,11 +50,70 @@ public class BankPaymentClient {
      * @param httpClient the HttpClient to use
      */
     public BankPaymentClient(HttpClient httpClient) {
+        this(httpClient, BankClientConfig.fromSystemProperties());
+    }
+
+    BankPaymentClient(BankClientConfig config) {
+        this(sharedHttpClient(config.getConnectTimeout()), config);
+    }
+
+    BankPaymentClient(HttpClient httpClient, BankClientConfig config) {
         this.httpClient = httpClient;
+        this.config = config;
     }
 
     /**
-     * Sends a payment request to the bank server.
+     * Sends a payment request to the bank server without blocking the calling thread.
+     * The future completes with {@link PaymentResult.Status#TIMED_OUT} if the bank does not answer within the
+     * response timeout, and exceptionally if the bank cannot be reached at all.
+     *
+     * @param cardNumber the card number associated with the primary account to be charged
+     * @param amount     the amount to be deducted from the account
+     * @return a future completed with the bank's answer
+     */
+    public CompletableFuture<PaymentResult> makeBankPaymentAsync(int cardNumber, BigDecimal amount) {
+        return makeBankPaymentAsync(cardNumber, amount, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Sends a payment request to the bank server without blocking the calling thread.
+     * Requests with the same idempotency key are the same payment to the bank, so a request that timed out
+     * can be sent again without charging the card twice.
+     *
+     * @param cardNumber     the card number associated with the primary account to be charged
+     * @param amount         the amount to be deducted from the account
+     * @param idempotencyKey identifies the payment across retries
+     * @return a future completed with the bank's answer
+     */
+    public CompletableFuture<PaymentResult> makeBankPaymentAsync(int cardNumber, BigDecimal amount, String idempotencyKey) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(paymentUri(cardNumber, amount))
+                .timeout(config.getResponseTimeout())
+                .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        Throwable cause = BackgroundExecutor.unwrap(error);
+                        if (cause instanceof HttpTimeoutException) {
+                            return PaymentResult.timedOut();
+                        }
+                        throw BackgroundExecutor.wrap(cause);
+                    }
+
+                    // Log redirect headers
+                    if (response.statusCode() == 302 || response.statusCode() == 301) {
+                        System.out.println("Redirected to: " + response.headers().firstValue("Location").orElse("Unknown Location"));
+                    }
+                    return PaymentResult.fromResponse(response.statusCode(), response.body());
+                });
+    }
+
+    /**
+     * Sends a payment request to the bank server and waits for the answer.
+     * Must not be called on the JavaFX application thread; use {@link #makeBankPaymentAsync(int, BigDecimal)} there.
      *
      * @param cardNumber the card number associated with the primary account to be charged
      * @param amount     the amount to be deducted from the account
@@ -50,60 +123,37 @@ public class BankPaymentClient {
      */
     public String makeBankPayment(int cardNumber, BigDecimal amount) throws IOException, InterruptedException {
         try {
-            // Construct the URL with encoded parameters
-            String url = String.format("%s?cardNumber=%d&amount=%s",
-                    BANK_PAYMENT_URL,
-                    cardNumber,
-                    URLEncoder.encode(amount.toString(), StandardCharsets.UTF_8));
-
-            // Create the request
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .POST(HttpRequest.BodyPublishers.noBody())
-                    .build();
-
-            // Send the request
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            // Log redirect headers
-            if (response.statusCode() == 302 || response.statusCode() == 301) {
-                System.out.println("Redirected to: " + response.headers().firstValue("Location").orElse("Unknown Location"));
+            return makeBankPaymentAsync(cardNumber, amount).get().getMessage();
+        } catch (ExecutionException e) {
+            Throwable cause = BackgroundExecutor.unwrap(e);
+            if (cause instanceof IOException) {
+                throw (IOException) cause; // Re-throw for caller handling
             }
-
-            // Return processed response
-            return processResponse(response);
-
-        } catch (IOException | InterruptedException e) {
-            throw e; // Re-throw for caller handling
-        } catch (Exception e) {
-            return "Unexpected error occurred during payment: " + e.getMessage();
+            return "Unexpected error occurred during payment: " + cause.getMessage();
         }
     }
 
-
-
     /**
-     * Processes the HTTP response from the payment API.
-     *
-     * @param response the HttpResponse object
-     * @return a user-friendly message based on the response
+     * Builds the payment URL. The amount is written as a plain decimal, which needs no URL encoding.
      */
-    private String processResponse(HttpResponse<String> response) {
-        switch (response.statusCode()) {
-            case 200:
-                return "Payment processed successfully.";
-            case 302:
-                return "Redirect occurred during payment. Check logs for the new location.";
-            case 400:
-                return "Payment failed: Invalid input. " + response.body();
-            case 404:
-                return "Payment failed: Endpoint not found.";
-            case 500:
-                return "Payment failed: Internal server error.";
-            default:
-                return String.format("Payment failed with unexpected status code: %d. Response: %s",
-                        response.statusCode(), response.body());
-        }
+    private URI paymentUri(int cardNumber, BigDecimal amount) {
+        String url = new StringBuilder(config.getPaymentUrl().toString())
+                .append("?cardNumber=").append(cardNumber)
+                .append("&amount=").append(amount.toPlainString())
+                .toString();
+        return URI.create(url);
     }
 
+    /**
+     * Returns the HttpClient shared by all payment clients with the given connect timeout. HTTP/2 is used when the
+     * bank supports it, and responses are handled on virtual threads instead of a dedicated thread pool.
+     */
+    static HttpClient sharedHttpClient(Duration connectTimeout) {
+        return SHARED_HTTP_CLIENTS.computeIfAbsent(connectTimeout, timeout -> HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL) // Enable redirect handling
+                .executor(BackgroundExecutor.executor())
+                .build());
+    }
 }
@@ -0,0 +1,183 @@
+package com.retailtech.quickcasheasy.payment;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker for calls to the bank.
+ * <p>
+ * The outcome of the last {@code windowSize} calls is kept in a ring buffer. Once at least {@code minimumCalls}
+ * are recorded and the failure rate reaches the threshold, the circuit opens and calls are rejected without
+ * contacting the bank. After {@code openDuration} one trial call is let through (half-open): success closes the
+ * circuit, failure opens it again.
+ */
+public final class CircuitBreaker {
+
+    static final String WINDOW_SIZE_PROPERTY = "qce.bank.breaker.windowSize";
+    static final String MINIMUM_CALLS_PROPERTY = "qce.bank.breaker.minimumCalls";
+    static final String FAILURE_RATE_PROPERTY = "qce.bank.breaker.failureRatePercent";
+    static final String OPEN_DURATION_PROPERTY = "qce.bank.breaker.openDurationMs";
+
+    /**
+     * State of the circuit.
+     */
+    public enum State {
+        /** Calls go through and their outcome is recorded. */
+        CLOSED,
+        /** Calls are rejected until the open duration has passed. */
+        OPEN,
+        /** One trial call is let through to see whether the bank has recovered. */
+        HALF_OPEN
+    }
+
+    private final boolean[] window;           // true marks a failed call
+    private final int minimumCalls;           // Calls needed before the failure rate is evaluated
+    private final int failureRateThreshold;   // Percentage of failed calls that opens the circuit
+    private final long openDurationNanos;     // How long the circuit stays open before a trial call
+    private final LongSupplier nanoClock;
+
+    // All guarded by this
+    private int nextIndex;
+    private int recordedCalls;
+    private int failedCalls;
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private boolean trialCallInFlight;
+    private long timesOpened;
+    private long timesHalfOpened;
+    private long timesClosed;
+    private long rejectedCalls;
+
+    CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, long openDurationMillis, LongSupplier nanoClock) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("Minimum calls must be between 1 and the window size");
+        }
+        if (failureRateThreshold < 1 || failureRateThreshold > 100) {
+            throw new IllegalArgumentException("Failure rate threshold must be between 1 and 100 percent");
+        }
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Builds a circuit breaker from system properties: by default it opens when half of the last 20 calls failed
+     * (after at least 10 calls) and tries the bank again after 30 seconds.
+     *
+     * @return the circuit breaker
+     */
+    static CircuitBreaker fromSystemProperties() {
+        return new CircuitBreaker(
+                Integer.getInteger(WINDOW_SIZE_PROPERTY, 20),
+                Integer.getInteger(MINIMUM_CALLS_PROPERTY, 10),
+                Integer.getInteger(FAILURE_RATE_PROPERTY, 50),
+                Long.getLong(OPEN_DURATION_PROPERTY, 30_000L),
+                System::nanoTime);
+    }
+
+    /**
+     * Asks whether a call may be made now. Every permitted call must be followed by
+     * {@link #onSuccess()} or {@link #onFailure()}.
+     *
+     * @return true if the call may go to the bank, false if it must fail fast
+     */
+    synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAtNanos < openDurationNanos) {
+                rejectedCalls++;
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialCallInFlight) {
+                rejectedCalls++;
+                return false;
+            }
+            trialCallInFlight = true;
+        }
+        return true;
+    }
+
+    /**
+     * Records a call the bank answered.
+     */
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.CLOSED);
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    /**
+     * Records a call the bank failed to answer properly (error, timeout, unreachable).
+     */
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recordedCalls >= minimumCalls && failedCalls * 100 >= failureRateThreshold * recordedCalls) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * @return the current state
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Returns the state, failure rate and transition counters.
+     *
+     * @return a snapshot of the circuit breaker statistics
+     */
+    public synchronized CircuitBreakerStats getStats() {
+        int failureRate = recordedCalls == 0 ? 0 : failedCalls * 100 / recordedCalls;
+        return new CircuitBreakerStats(state, failureRate, timesOpened, timesHalfOpened, timesClosed, rejectedCalls);
+    }
+
+    private void record(boolean failed) {
+        if (recordedCalls == window.length) {
+            // Window full: the oldest outcome drops out
+            if (window[nextIndex]) {
+                failedCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        window[nextIndex] = failed;
+        if (failed) {
+            failedCalls++;
+        }
+        nextIndex = (nextIndex + 1) % window.length;
+    }
+
+    private void transitionTo(State newState) {
+        System.out.println("Bank circuit breaker: " + state + " -> " + newState);
+        state = newState;
+        trialCallInFlight = false;
+        switch (newState) {
+            case OPEN:
+                openedAtNanos = nanoClock.getAsLong();
+                timesOpened++;
+                break;
+            case HALF_OPEN:
+                timesHalfOpened++;
+                break;
+            case CLOSED:
+                // Start over, so failures from before the outage do not reopen the circuit
+                nextIndex = 0;
+                recordedCalls = 0;
+                failedCalls = 0;
+                timesClosed++;
+                break;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.retailtech.quickcasheasy.payment;
+
+/**
+ * Point-in-time snapshot of the {@link CircuitBreaker} state and counters.
+ */
+public final class CircuitBreakerStats {
+
+    private final CircuitBreaker.State state;
+    private final int failureRatePercent;
+    private final long timesOpened;
+    private final long timesHalfOpened;
+    private final long timesClosed;
+    private final long rejectedCalls;
+
+    CircuitBreakerStats(CircuitBreaker.State state, int failureRatePercent, long timesOpened, long timesHalfOpened,
+                        long timesClosed, long rejectedCalls) {
+        this.state = state;
+        this.failureRatePercent = failureRatePercent;
+        this.timesOpened = timesOpened;
+        this.timesHalfOpened = timesHalfOpened;
+        this.timesClosed = timesClosed;
+        this.rejectedCalls = rejectedCalls;
+    }
+
+    public CircuitBreaker.State getState() {
+        return state;
+    }
+
+    /**
+     * @return the percentage of failed calls in the current window
+     */
+    public int getFailureRatePercent() {
+        return failureRatePercent;
+    }
+
+    /**
+     * @return how often the circuit opened
+     */
+    public long getTimesOpened() {
+        return timesOpened;
+    }
+
+    /**
+     * @return how often a trial call was let through after the circuit was open
+     */
+    public long getTimesHalfOpened() {
+        return timesHalfOpened;
+    }
+
+    /**
+     * @return how often the circuit closed again after a successful trial call
+     */
+    public long getTimesClosed() {
+        return timesClosed;
+    }
+
+    /**
+     * @return the number of calls that failed fast without contacting the bank
+     */
+    public long getRejectedCalls() {
+        return rejectedCalls;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreakerStats{" +
+                "state=" + state +
+                ", failureRatePercent=" + failureRatePercent +
+                ", timesOpened=" + timesOpened +
+                ", timesHalfOpened=" + timesHalfOpened +
+                ", timesClosed=" + timesClosed +
+                ", rejectedCalls=" + rejectedCalls +
+                '}';
+    }
+}
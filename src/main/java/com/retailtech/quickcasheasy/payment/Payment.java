@@ -18,8 +18,8 @@ class Payment {
     Payment(BigDecimal amount, String method, String status, boolean success) {
         this.amount = amount;
         this.method = method;
-        this.status = "PENDING";
-        this.success = false;
+        this.status = status;
+        this.success = success;
     }
 
     // Constructor for payments loaded from the database (with ID)
@@ -1,5 +1,9 @@
 package com.retailtech.quickcasheasy.payment;
 
+import com.retailtech.quickcasheasy.ApplicationContext;
+import com.retailtech.quickcasheasy.ViewRegistry;
+import com.retailtech.quickcasheasy.concurrent.BackgroundExecutor;
+import com.retailtech.quickcasheasy.money.Money;
 import com.retailtech.quickcasheasy.user.CashierController;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
@@ -7,10 +11,9 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
 
-import java.math.BigDecimal;
-
-public class PaymentController {
+public class PaymentController implements ViewRegistry.Resettable {
 
     @FXML
     private Label totalAmountLabel;
@@ -25,22 +28,41 @@ public class PaymentController {
     private TextField loginField;
 
 
-    private BigDecimal amountToPay; // Total amount to pay
-    private BankPaymentClient paymentClient;
+    // Method recorded for payments taken on this screen
+    private static final String PAYMENT_METHOD = "CARD";
+
+    private Money amountToPay; // Total amount to pay
+    private PaymentFacade paymentFacade;
     private CashierController cashierController;
 
+    // Identifies the current sale; a bank answer for an earlier sale is ignored
+    private long sale;
+
     @FXML
     public void initialize() {
-        paymentClient = new BankPaymentClient(); // Initialize the BankPaymentClient
+        // Stores payments before they are sent to the bank; built at startup off the FX thread
+        ApplicationContext.whenReady().thenAcceptAsync(context -> paymentFacade = context.getPaymentFacade(),
+                BackgroundExecutor.fxThread());
         updateTotalAmount(); // Display the total amount in the UI
     }
 
+    /**
+     * Clears the card number of the previous sale; the window is reused for every payment.
+     */
+    @Override
+    public void reset() {
+        sale++;
+        cardNumberField.clear();
+        payButton.setDisable(false);
+        cashierController = null;
+    }
+
     /**
      * Sets the total amount to be paid.
      *
      * @param amount the total amount
      */
-    public void setAmountToPay(BigDecimal amount) {
+    public void setAmountToPay(Money amount) {
         this.amountToPay = amount;
         updateTotalAmount();
     }
@@ -50,12 +72,14 @@ public class PaymentController {
      */
     private void updateTotalAmount() {
         if (totalAmountLabel != null && amountToPay != null) {
-            totalAmountLabel.setText(String.format("%.2f NOK", amountToPay));
+            totalAmountLabel.setText(amountToPay + " NOK");
         }
     }
 
     /**
      * Handles the payment process when the "Pay Now" button is clicked.
+     * The bank call runs off the FX thread; the button stays disabled and the window cannot be closed until the bank
+     * has answered.
      */
     @FXML
     private void handlePayment() {
@@ -66,45 +90,78 @@ public class PaymentController {
             return;
         }
 
+        int parsedCardNumber;
         try {
-            int parsedCardNumber = Integer.parseInt(cardNumber);
-
-            // Make the bank payment via the client
-            String response = paymentClient.makeBankPayment(parsedCardNumber, amountToPay);
-
-            if (response.equalsIgnoreCase("Payment processed successfully.")) {
-                // Notify the cashier controller to clear the cart
-                if (cashierController != null) {
-                    System.out.println("Notifying CashierController to clear the cart...");
-                    cashierController.clearCart();
-                } else {
-                    System.err.println("CashierController is not set.");
-                }
-
-                // Show success message and wait for user to confirm
-                Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
-                successAlert.setTitle("Payment Successful");
-                successAlert.setHeaderText(null);
-                successAlert.setContentText("Your payment was processed successfully.");
-                successAlert.showAndWait(); // Wait for the user to click "OK"
-
-                // Close the payment window after the user acknowledges
-                Stage stage = (Stage) payButton.getScene().getWindow();
-                stage.close();
+            parsedCardNumber = Integer.parseInt(cardNumber);
+        } catch (NumberFormatException e) {
+            showAlert(Alert.AlertType.ERROR, "Error", "Card number must be numeric.");
+            return;
+        }
+
+        // Store the payment and send it to the bank
+        payButton.setDisable(true);
+        long submittedSale = sale;
+        paymentFacade.submitPayment(amountToPay.toBigDecimal(), PAYMENT_METHOD, parsedCardNumber)
+                .whenCompleteAsync((result, error) -> {
+                    if (submittedSale != sale) {
+                        // The window now shows another sale; the payment stays recorded in the journal
+                        System.err.println("Ignoring the bank's answer for an earlier sale.");
+                        return;
+                    }
+                    payButton.setDisable(false);
+                    if (error != null) {
+                        showAlert(Alert.AlertType.ERROR, "Error", "Failed to process payment: " + BackgroundExecutor.unwrap(error).getMessage());
+                    } else {
+                        handlePaymentResult(result);
+                    }
+                }, BackgroundExecutor.fxThread());
+    }
 
+    /**
+     * Shows the bank's answer and, if the sale can be completed, clears the cart and closes the window.
+     * A payment queued while the bank is unreachable completes the sale; it is sent to the bank later.
+     *
+     * @param result the bank's answer
+     */
+    private void handlePaymentResult(PaymentResult result) {
+        if (result.isAccepted()) {
+            // Notify the cashier controller to clear the cart
+            if (cashierController != null) {
+                System.out.println("Notifying CashierController to clear the cart...");
+                cashierController.clearCart();
             } else {
-                // Show failure alert
-                showAlert(Alert.AlertType.ERROR, "Payment Failed", response);
+                System.err.println("CashierController is not set.");
             }
 
-        } catch (NumberFormatException e) {
-            showAlert(Alert.AlertType.ERROR, "Error", "Card number must be numeric.");
-        } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to process payment: " + e.getMessage());
+            // Show success message and wait for user to confirm
+            Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
+            successAlert.setTitle("Payment Successful");
+            successAlert.setHeaderText(null);
+            successAlert.setContentText(result.isApproved() ? "Your payment was processed successfully." : result.getMessage());
+            successAlert.showAndWait(); // Wait for the user to click "OK"
+
+            // Close the payment window after the user acknowledges
+            Stage stage = (Stage) payButton.getScene().getWindow();
+            stage.close();
+
+        } else {
+            // Show failure alert
+            showAlert(Alert.AlertType.ERROR, "Payment Failed", result.getMessage());
         }
     }
 
 
+    /**
+     * Keeps the payment window open while a payment is being sent, so the same cart cannot be paid twice.
+     *
+     * @param event the close request of the payment window
+     */
+    public void handleCloseRequest(WindowEvent event) {
+        if (payButton.isDisabled()) {
+            event.consume();
+        }
+    }
+
     /**
      * Sets the cashier controller to enable communication.
      *
@@ -1,10 +1,14 @@
 package com.retailtech.quickcasheasy.payment;
 
+import com.retailtech.quickcasheasy.database.DatabaseUtils;
 import com.retailtech.quickcasheasy.payment.dto.PaymentDTO;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Facade for payment-related operations.
@@ -21,6 +25,22 @@ public class PaymentFacade {
         this.paymentService = paymentService;
     }
 
+    /**
+     * Creates a payment facade that stores payments in the database and forwards card payments to the bank.
+     * The facade and its forwarder share one repository and one journal; the forwarder starts reading the journal once
+     * the database is ready. Create it once per application.
+     *
+     * @param databaseReady completed once the schema migrations have run
+     * @return a new payment facade
+     */
+    public static PaymentFacade createDefault(CompletableFuture<?> databaseReady) {
+        DatabaseUtils dbUtils = new DatabaseUtils();
+        PaymentRepository paymentRepository = new PaymentRepositoryImpl(dbUtils);
+        PaymentJournal paymentJournal = new PaymentJournal(dbUtils);
+        PaymentForwarder paymentForwarder = PaymentForwarder.createDefault(paymentJournal, paymentRepository, databaseReady);
+        return new PaymentFacade(new PaymentService(paymentRepository, paymentJournal, paymentForwarder));
+    }
+
     /**
      * Creates a new payment.
      *
@@ -64,6 +84,31 @@ public class PaymentFacade {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Streams all payments in constant memory, for exports.
+     * The stream holds a database connection until it is closed; use it in a try-with-resources block.
+     *
+     * @return a stream of PaymentDTOs
+     */
+    public Stream<PaymentDTO> streamPayments() {
+        return paymentService.streamPayments().map(this::mapToDTO);
+    }
+
+    /**
+     * Streams the payments taken in a time window, oldest first, for example a year for the annual export.
+     * Card payments and payments stored with {@link #createPayment} are both included; only payments from before their
+     * creation time was recorded, without a journal entry, are missing.
+     * The stream holds a database connection until it is closed; use it in a try-with-resources block.
+     *
+     * @param from start of the window, inclusive
+     * @param to   end of the window, exclusive
+     * @return a stream of PaymentDTOs
+     * @throws IllegalArgumentException if the window is missing or ends before it starts
+     */
+    public Stream<PaymentDTO> streamPayments(Instant from, Instant to) {
+        return paymentService.streamPayments(from, to).map(this::mapToDTO);
+    }
+
     /**
      * Updates the status and success flag of a payment.
      *
@@ -75,6 +120,18 @@ public class PaymentFacade {
         paymentService.updatePaymentStatus(paymentId, status, success);
     }
 
+    /**
+     * Moves a payment from one status to another, only if it still has the expected status.
+     *
+     * @param paymentId the ID of the payment
+     * @param from      the status the payment is expected to have
+     * @param to        the new status
+     * @return true if the payment was updated, false if its status had changed in the meantime
+     */
+    public boolean transitionPaymentStatus(Long paymentId, PaymentStatus from, PaymentStatus to) {
+        return paymentService.transitionPaymentStatus(paymentId, from, to);
+    }
+
     /**
      * Deletes a payment by its ID.
      *
@@ -119,4 +176,24 @@ public class PaymentFacade {
         }
         return paymentService.initiateExternalPayment(id, amount, method, cardNumber);
     }
+
+    /**
+     * Takes a card payment without blocking the calling thread. The payment is stored before the bank is contacted,
+     * so a sale can be completed while the bank is unreachable; the payment is then sent when the bank is back.
+     *
+     * @param amount     the amount to be paid
+     * @param method     the payment method
+     * @param cardNumber the card number associated with the primary account to debit
+     * @return a future completed with the bank's answer, or {@link PaymentResult.Status#QUEUED}
+     * @throws IllegalArgumentException if any required parameter is invalid
+     */
+    public CompletableFuture<PaymentResult> submitPayment(BigDecimal amount, String method, int cardNumber) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (method == null || cardNumber <= 0) {
+            throw new IllegalArgumentException("Payment method, account type, and account number cannot be null");
+        }
+        return paymentService.submitPayment(amount, method, cardNumber);
+    }
 }
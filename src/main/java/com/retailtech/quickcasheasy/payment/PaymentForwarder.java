@@ -0,0 +1,187 @@
+package com.retailtech.quickcasheasy.payment;
+
+import com.retailtech.quickcasheasy.concurrent.TokenBucket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends journaled payments to the bank.
+ * <p>
+ * Each payment is first tried right after it is taken ({@link #send(PaymentJournal.Entry)}). Payments the bank could
+ * not process then stay PENDING in the {@link PaymentJournal} and are drained in the background, oldest first, in
+ * batches sent concurrently and limited by a token bucket so a recovering bank is not flooded by the backlog.
+ * A payment is claimed with a PENDING to SENT compare-and-set before it is sent, so it is never sent twice at once,
+ * and every attempt uses the payment's idempotency key, so the bank charges it at most once.
+ */
+class PaymentForwarder implements AutoCloseable {
+
+    static final String INTERVAL_PROPERTY = "qce.payment.forwarder.intervalMs";
+    static final String BATCH_SIZE_PROPERTY = "qce.payment.forwarder.batchSize";
+    static final String RATE_PROPERTY = "qce.payment.forwarder.ratePerSecond";
+
+    private final PaymentJournal journal;
+    private final PaymentRepository paymentRepository;
+    private final ResilientBankPaymentClient bankClient;
+    private final TokenBucket rateLimiter;
+    private final int batchSize;
+
+    // One thread, so background drains never overlap
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "qce-payment-forwarder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder settled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder requeued = new LongAdder();
+
+    PaymentForwarder(PaymentJournal journal, PaymentRepository paymentRepository, ResilientBankPaymentClient bankClient,
+                     TokenBucket rateLimiter, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.journal = journal;
+        this.paymentRepository = paymentRepository;
+        this.bankClient = bankClient;
+        this.rateLimiter = rateLimiter;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Creates the application's forwarder and starts it once the database is ready. By default it drains the journal
+     * every 5 seconds, in batches of 20 and at most 10 payments per second; see the qce.payment.forwarder.* properties.
+     *
+     * @param journal           the payment journal
+     * @param paymentRepository the repository the payment statuses are written to
+     * @param databaseReady     completed once the schema migrations have run; recovery and draining wait for it
+     * @return the forwarder, started in the background
+     */
+    static PaymentForwarder createDefault(PaymentJournal journal, PaymentRepository paymentRepository,
+                                          CompletableFuture<?> databaseReady) {
+        int ratePerSecond = Integer.getInteger(RATE_PROPERTY, 10);
+        PaymentForwarder forwarder = new PaymentForwarder(journal, paymentRepository, ResilientBankPaymentClient.getInstance(),
+                new TokenBucket(ratePerSecond, ratePerSecond), Integer.getInteger(BATCH_SIZE_PROPERTY, 20));
+        databaseReady.thenRun(() -> forwarder.start(Long.getLong(INTERVAL_PROPERTY, 5_000L)));
+        return forwarder;
+    }
+
+    /**
+     * Starts draining the journal in the background. Payments left SENT by a previous run are sent again first.
+     *
+     * @param intervalMillis the pause between two drains
+     */
+    void start(long intervalMillis) {
+        scheduler.execute(() -> {
+            int recovered = journal.recoverInFlight();
+            if (recovered > 0) {
+                System.out.println("Payment journal: " + recovered + " payments with unknown outcome will be sent again.");
+            }
+        });
+        scheduler.scheduleWithFixedDelay(this::drainSafely, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends one journaled payment the caller has claimed (SENT) and records the bank's answer. A payment that could not
+     * be sent because the bank was unavailable (no answer, a server error or an open circuit) is put back to PENDING
+     * for the drain and reported as {@link PaymentResult.Status#QUEUED}; any other answer is final.
+     *
+     * @param entry the journaled payment
+     * @return a future completed with the bank's answer, or QUEUED
+     */
+    CompletableFuture<PaymentResult> send(PaymentJournal.Entry entry) {
+        return bankClient.makePayment(entry.getCardNumber(), entry.getAmount(), entry.getIdempotencyKey())
+                .handle((result, error) -> record(entry, error == null ? result : null));
+    }
+
+    /**
+     * Sends pending payments until the journal is empty, the bank fails or the rate limit is reached.
+     */
+    void drain() {
+        List<PaymentJournal.Entry> batch = journal.findPending(batchSize);
+        while (!batch.isEmpty()) {
+            List<CompletableFuture<PaymentResult>> inFlight = new ArrayList<>(batch.size());
+            boolean rateLimited = false;
+            for (PaymentJournal.Entry entry : batch) {
+                if (!rateLimiter.tryAcquire()) {
+                    rateLimited = true;
+                    break;
+                }
+                // Skip an entry someone else has claimed since it was read; they record its outcome
+                if (paymentRepository.transitionStatus(entry.getPaymentId(), PaymentStatus.PENDING, PaymentStatus.SENT)) {
+                    inFlight.add(send(entry));
+                }
+            }
+
+            boolean bankUnavailable = false;
+            for (CompletableFuture<PaymentResult> result : inFlight) {
+                bankUnavailable |= result.join().getStatus() == PaymentResult.Status.QUEUED;
+            }
+            if (bankUnavailable || rateLimited) {
+                return; // Try the rest on the next run
+            }
+            batch = journal.findPending(batchSize);
+        }
+    }
+
+    /**
+     * @return the number of journaled payments still waiting for the bank
+     */
+    int getPendingCount() {
+        return journal.countPending();
+    }
+
+    long getSettledCount() {
+        return settled.sum();
+    }
+
+    long getFailedCount() {
+        return failed.sum();
+    }
+
+    long getRequeuedCount() {
+        return requeued.sum();
+    }
+
+    /**
+     * Stops draining. Pending payments stay in the journal for the next start.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private PaymentResult record(PaymentJournal.Entry entry, PaymentResult result) {
+        // No answer from the bank is treated like a bank failure: the payment stays in the journal
+        PaymentStatus outcome = result == null ? PaymentStatus.PENDING : result.toPaymentStatus();
+        if (!paymentRepository.transitionStatus(entry.getPaymentId(), PaymentStatus.SENT, outcome)) {
+            System.err.println("Payment " + entry.getPaymentId() + " was no longer SENT when recording " + outcome);
+        }
+        switch (outcome) {
+            case SETTLED:
+                settled.increment();
+                return result;
+            case FAILED:
+                failed.increment();
+                return result;
+            default:
+                requeued.increment();
+                return PaymentResult.queued();
+        }
+    }
+
+    private void drainSafely() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the journal is retried on the next run
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.retailtech.quickcasheasy.payment;
+
+import com.retailtech.quickcasheasy.database.DatabaseConnectionManager;
+import com.retailtech.quickcasheasy.database.DatabaseUtils;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Durable, append-only record of card payments that have to reach the bank.
+ * <p>
+ * A payment is written to the payments table together with its journal entry in one transaction, before the bank is
+ * contacted, so a sale is never lost when the bank is unreachable or the till restarts. The status of the payment tells
+ * whether an entry still has to be sent: PENDING entries are waiting for the background drain, SENT entries are being
+ * sent by someone. Entries are kept for reporting, but the card number is cleared
+ * in the same transaction that moves the payment to SETTLED or FAILED, so it is not kept once the bank has answered.
+ */
+class PaymentJournal {
+
+    /**
+     * A payment request waiting to be sent to the bank.
+     */
+    static final class Entry {
+        private final long paymentId;
+        private final String idempotencyKey;
+        private final int cardNumber;
+        private final BigDecimal amount;
+
+        Entry(long paymentId, String idempotencyKey, int cardNumber, BigDecimal amount) {
+            this.paymentId = paymentId;
+            this.idempotencyKey = idempotencyKey;
+            this.cardNumber = cardNumber;
+            this.amount = amount;
+        }
+
+        long getPaymentId() {
+            return paymentId;
+        }
+
+        String getIdempotencyKey() {
+            return idempotencyKey;
+        }
+
+        int getCardNumber() {
+            return cardNumber;
+        }
+
+        BigDecimal getAmount() {
+            return amount;
+        }
+    }
+
+    private final DatabaseUtils dbUtils;
+
+    PaymentJournal(DatabaseUtils dbUtils) {
+        this.dbUtils = dbUtils;
+    }
+
+    /**
+     * Stores a new payment and its journal entry in one transaction. The payment is stored as SENT, claimed by the
+     * caller, so the background drain does not send it while the caller does; if the till stops before the outcome is
+     * recorded, {@link #recoverInFlight()} hands it to the drain on the next start.
+     *
+     * @param amount     the amount to charge
+     * @param method     the payment method
+     * @param cardNumber the card to charge
+     * @return the journal entry, with the generated payment ID and a new idempotency key
+     */
+    Entry append(BigDecimal amount, String method, int cardNumber) {
+        String idempotencyKey = UUID.randomUUID().toString();
+        long createdAt = System.currentTimeMillis();
+        try (Connection connection = DatabaseConnectionManager.getConnection();
+             PreparedStatement insertPayment = connection.prepareStatement(
+                     "INSERT INTO payments (method, amount, status, success, created_at) VALUES (?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement insertEntry = connection.prepareStatement(
+                     "INSERT INTO payment_journal (payment_id, idempotency_key, card_number, amount, created_at) VALUES (?, ?, ?, ?, ?)")) {
+            try {
+                insertPayment.setString(1, method);
+                insertPayment.setBigDecimal(2, amount);
+                insertPayment.setString(3, PaymentStatus.SENT.name());
+                insertPayment.setBoolean(4, false);
+                insertPayment.setLong(5, createdAt);
+                insertPayment.executeUpdate();
+
+                long paymentId;
+                try (ResultSet generatedKeys = insertPayment.getGeneratedKeys()) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("Inserting payment failed, no ID obtained.");
+                    }
+                    paymentId = generatedKeys.getLong(1);
+                }
+
+                insertEntry.setLong(1, paymentId);
+                insertEntry.setString(2, idempotencyKey);
+                insertEntry.setInt(3, cardNumber);
+                insertEntry.setBigDecimal(4, amount);
+                insertEntry.setLong(5, createdAt);
+                insertEntry.executeUpdate();
+
+                connection.commit();
+                return new Entry(paymentId, idempotencyKey, cardNumber, amount);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Error journaling payment: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the oldest entries whose payment is still PENDING, in the order they were taken.
+     *
+     * @param limit the maximum number of entries
+     * @return the entries to send
+     */
+    List<Entry> findPending(int limit) {
+        String sql = "SELECT j.payment_id, j.idempotency_key, j.card_number, j.amount FROM payment_journal j "
+                + "JOIN payments p ON p.id = j.payment_id WHERE p.status = ? ORDER BY j.id LIMIT ?";
+        return dbUtils.executeQuery(sql, rs -> {
+            List<Entry> entries = new ArrayList<>();
+            while (rs.next()) {
+                entries.add(new Entry(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getBigDecimal(4)));
+            }
+            return entries;
+        }, PaymentStatus.PENDING.name(), limit);
+    }
+
+    /**
+     * @return the number of journaled payments still waiting for the bank
+     */
+    int countPending() {
+        String sql = "SELECT COUNT(*) FROM payment_journal j JOIN payments p ON p.id = j.payment_id WHERE p.status = ?";
+        return dbUtils.executeQuery(sql, rs -> rs.next() ? rs.getInt(1) : 0, PaymentStatus.PENDING.name());
+    }
+
+    /**
+     * Puts journaled payments left SENT by a previous run back to PENDING. Their outcome is unknown, and sending them
+     * again with the same idempotency key is safe.
+     *
+     * @return the number of payments to send again
+     */
+    int recoverInFlight() {
+        return dbUtils.executeUpdate("UPDATE payments SET status = ? WHERE status = ? AND id IN (SELECT payment_id FROM payment_journal)",
+                PaymentStatus.PENDING.name(), PaymentStatus.SENT.name());
+    }
+}
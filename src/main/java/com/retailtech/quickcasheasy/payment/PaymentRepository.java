@@ -2,11 +2,26 @@ package com.retailtech.quickcasheasy.payment;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 interface PaymentRepository {
 
     List<Payment> findAll();
 
+    // Stream all payments from an open cursor; close the stream to release the connection
+    Stream<Payment> streamAll();
+
+    /**
+     * Streams the payments created in {@code [fromMillis, toMillis)}, oldest first, whether or not they went through
+     * the payment journal. Payments stored before their creation time was recorded, without a journal entry, have no
+     * time and are never included.
+     *
+     * @param fromMillis start of the window, inclusive, in epoch milliseconds
+     * @param toMillis   end of the window, exclusive, in epoch milliseconds
+     * @return the payments; close the stream to release the connection
+     */
+    Stream<Payment> streamCreatedBetween(long fromMillis, long toMillis);
+
     Optional<Payment> findById(Long id);
 
     void save(Payment payment);
@@ -14,4 +29,24 @@ interface PaymentRepository {
     void delete(Long id);
 
     boolean existsById(Long id);
+
+    /**
+     * Sets the status and success flag of a payment in a single update, without reading it first.
+     *
+     * @param id      the ID of the payment
+     * @param status  the new status
+     * @param success the new success flag
+     * @return true if the payment exists and was updated
+     */
+    boolean updateStatus(Long id, String status, boolean success);
+
+    /**
+     * Moves a payment from one status to another in a single conditional update.
+     *
+     * @param id   the ID of the payment
+     * @param from the status the payment must have
+     * @param to   the new status
+     * @return true if the payment had status {@code from} and was updated, false otherwise
+     */
+    boolean transitionStatus(Long id, PaymentStatus from, PaymentStatus to);
 }
@@ -1,54 +1,53 @@
 package com.retailtech.quickcasheasy.payment;
 
+import com.retailtech.quickcasheasy.database.DatabaseConnectionManager;
 import com.retailtech.quickcasheasy.database.DatabaseUtils;
+import com.retailtech.quickcasheasy.database.RowMapper;
 
 import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 class PaymentRepositoryImpl implements PaymentRepository {
 
+    // Column list and index-based mapping for payment rows
+    private static final RowMapper<Payment> PAYMENT_MAPPER = RowMapper.of(
+            (rs, col) -> new Payment(rs.getLong(col[0]), rs.getBigDecimal(col[1]), rs.getString(col[2]), rs.getString(col[3]), rs.getBoolean(col[4])),
+            "id", "amount", "method", "status", "success");
+
     private final DatabaseUtils dbUtils; // Utility class for managing database connections
 
-    // Constructor injecting DatabaseUtils
+    // Constructor injecting DatabaseUtils; the payments table is created by the schema migrations at startup
     public PaymentRepositoryImpl(DatabaseUtils dbUtils) {
         this.dbUtils = dbUtils;
-        initializeDatabase(); // Initialize the payments table if it doesn't exist
-    }
-
-    // Initialize the payments table in the database if it doesn't exist
-    private void initializeDatabase() {
-        String sql = "CREATE TABLE IF NOT EXISTS payments ("
-                + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
-                + "method VARCHAR(255), "
-                + "amount DECIMAL(10,2), "
-                + "status VARCHAR(50), "
-                + "success BOOLEAN)";
-        dbUtils.executeUpdate(sql);
     }
 
     // Fetch all payments from the database
     @Override
     public List<Payment> findAll() {
-        String sql = "SELECT * FROM payments";
-        return dbUtils.executeQuery(sql, this::mapResultSetToPaymentList);
+        String sql = PAYMENT_MAPPER.selectFrom("payments");
+        return dbUtils.executeQuery(sql, PAYMENT_MAPPER.toList());
+    }
+
+    // Stream all payments from an open cursor, in constant memory
+    @Override
+    public Stream<Payment> streamAll() {
+        return dbUtils.stream(PAYMENT_MAPPER.selectFrom("payments"), PAYMENT_MAPPER);
+    }
+
+    // Stream the payments taken in a time window; uses the index on payments.created_at
+    @Override
+    public Stream<Payment> streamCreatedBetween(long fromMillis, long toMillis) {
+        String sql = PAYMENT_MAPPER.selectFrom("payments") + " WHERE created_at >= ? AND created_at < ? ORDER BY created_at";
+        return dbUtils.stream(sql, PAYMENT_MAPPER, fromMillis, toMillis);
     }
 
     // Fetch a payment by its ID from the database
     @Override
     public Optional<Payment> findById(Long id) {
-        String sql = "SELECT * FROM payments WHERE id = ?";
-        return dbUtils.executeQuery(sql, rs -> {
-            try {
-                if (rs.next()) {
-                    return Optional.of(mapRowToPayment(rs));
-                }
-            } catch (SQLException e) {
-                throw new RuntimeException(e);
-            }
-            return Optional.empty();
-        }, id);
+        String sql = PAYMENT_MAPPER.selectFrom("payments") + " WHERE id = ?";
+        return dbUtils.executeQuery(sql, PAYMENT_MAPPER.toOptional(), id);
     }
 
     // Save a payment to the database
@@ -56,8 +55,9 @@ class PaymentRepositoryImpl implements PaymentRepository {
     public void save(Payment payment) {
         if (payment.getId() == null) {
             // Insert new payment
-            String sql = "INSERT INTO payments (method, amount, status, success) VALUES (?, ?, ?, ?)";
-            Long generatedId = dbUtils.executeInsert(sql, payment.getMethod(), payment.getAmount(), payment.getStatus(), payment.isSuccess());
+            String sql = "INSERT INTO payments (method, amount, status, success, created_at) VALUES (?, ?, ?, ?, ?)";
+            Long generatedId = dbUtils.executeInsert(sql, payment.getMethod(), payment.getAmount(), payment.getStatus(), payment.isSuccess(),
+                    System.currentTimeMillis());
             payment.setId(generatedId);  // Set the generated ID back to the payment object
         } else {
             // Update existing payment
@@ -85,28 +85,46 @@ class PaymentRepositoryImpl implements PaymentRepository {
         }, id);
     }
 
-    // Helper method to map a result set to a list of payments
-    private List<Payment> mapResultSetToPaymentList(ResultSet rs) {
-        List<Payment> payments = new ArrayList<>();
-        try {
-            while (rs.next()) {
-                payments.add(mapRowToPayment(rs)); // Map each row to a Payment object
+    // Set the status without reading the payment first
+    @Override
+    public boolean updateStatus(Long id, String status, boolean success) {
+        String sql = "UPDATE payments SET status = ?, success = ? WHERE id = ?";
+        boolean finished = PaymentStatus.SETTLED.name().equals(status) || PaymentStatus.FAILED.name().equals(status);
+        return changeStatus(sql, id, finished, status, success, id);
+    }
+
+    // Compare-and-set the status, so two senders cannot both claim the same payment
+    @Override
+    public boolean transitionStatus(Long id, PaymentStatus from, PaymentStatus to) {
+        String sql = "UPDATE payments SET status = ?, success = ? WHERE id = ? AND status = ?";
+        boolean finished = to == PaymentStatus.SETTLED || to == PaymentStatus.FAILED;
+        return changeStatus(sql, id, finished, to.name(), to.isSuccess(), id, from.name());
+    }
+
+    // Run a status update; once the payment has an outcome its card number is cleared from the journal in the same transaction
+    private boolean changeStatus(String sql, Long id, boolean finished, Object... params) {
+        try (Connection connection = DatabaseConnectionManager.getConnection();
+             PreparedStatement updateStatus = connection.prepareStatement(sql);
+             PreparedStatement clearCard = connection.prepareStatement("UPDATE payment_journal SET card_number = NULL WHERE payment_id = ?")) {
+            try {
+                for (int i = 0; i < params.length; i++) {
+                    updateStatus.setObject(i + 1, params[i]);
+                }
+                boolean updated = updateStatus.executeUpdate() == 1;
+                if (updated && finished) {
+                    clearCard.setLong(1, id);
+                    clearCard.executeUpdate();
+                }
+                connection.commit();
+                return updated;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
             }
         } catch (SQLException e) {
-            throw new RuntimeException("Error mapping result set to payment list", e);
+            e.printStackTrace();
+            throw new RuntimeException("Error updating payment status: " + e.getMessage(), e);
         }
-        return payments;
-    }
-
-    // Helper method to map a single row in the result set to a Payment object
-    private Payment mapRowToPayment(ResultSet rs) throws SQLException {
-        return new Payment(
-                rs.getLong("id"),
-                rs.getBigDecimal("amount"),
-                rs.getString("method"),
-                rs.getString("status"),
-                rs.getBoolean("success")
-        );
     }
 
 }
@@ -0,0 +1,158 @@
+package com.retailtech.quickcasheasy.payment;
+
+/**
+ * Outcome of a payment request sent to the bank.
+ */
+public final class PaymentResult {
+
+    /**
+     * How the bank answered a payment request.
+     */
+    public enum Status {
+        /** The bank charged the card. */
+        APPROVED,
+        /** The bank refused the payment, for example because of invalid card data. */
+        DECLINED,
+        /** The bank could not process the payment (server error, unknown endpoint, unexpected answer). */
+        BANK_ERROR,
+        /** The bank did not answer in time; the card may or may not have been charged. */
+        TIMED_OUT,
+        /** The bank was not contacted because recent calls to it failed. */
+        CIRCUIT_OPEN,
+        /** The payment is stored and will be sent when the bank is reachable again. */
+        QUEUED
+    }
+
+    private final Status status;
+    private final int httpStatus;   // 0 when no response was received
+    private final String message;   // Shown to the cashier
+
+    PaymentResult(Status status, int httpStatus, String message) {
+        this.status = status;
+        this.httpStatus = httpStatus;
+        this.message = message;
+    }
+
+    /**
+     * Maps the bank's HTTP response to a result.
+     *
+     * @param httpStatus the HTTP status code
+     * @param body       the response body
+     * @return the payment result
+     */
+    static PaymentResult fromResponse(int httpStatus, String body) {
+        switch (httpStatus) {
+            case 200:
+                return new PaymentResult(Status.APPROVED, httpStatus, "Payment processed successfully.");
+            case 301:
+            case 302:
+                return new PaymentResult(Status.BANK_ERROR, httpStatus, "Redirect occurred during payment. Check logs for the new location.");
+            case 400:
+                return new PaymentResult(Status.DECLINED, httpStatus, "Payment failed: Invalid input. " + body);
+            case 404:
+                return new PaymentResult(Status.BANK_ERROR, httpStatus, "Payment failed: Endpoint not found.");
+            case 500:
+                return new PaymentResult(Status.BANK_ERROR, httpStatus, "Payment failed: Internal server error.");
+            default:
+                return new PaymentResult(Status.BANK_ERROR, httpStatus,
+                        "Payment failed with unexpected status code: " + httpStatus + ". Response: " + body);
+        }
+    }
+
+    /**
+     * Result for a request the bank did not answer in time.
+     *
+     * @return the timed-out result
+     */
+    static PaymentResult timedOut() {
+        return new PaymentResult(Status.TIMED_OUT, 0, "Payment failed: The bank did not respond in time.");
+    }
+
+    /**
+     * Result for a payment that was not sent because the bank is considered unavailable.
+     *
+     * @return the circuit-open result
+     */
+    static PaymentResult circuitOpen() {
+        return new PaymentResult(Status.CIRCUIT_OPEN, 0, "Payment failed: The bank is currently unavailable. Please try again shortly.");
+    }
+
+    /**
+     * Result for a payment that is stored locally and will be sent to the bank later.
+     *
+     * @return the queued result
+     */
+    static PaymentResult queued() {
+        return new PaymentResult(Status.QUEUED, 0, "The bank is not reachable. The payment is stored and will be sent automatically.");
+    }
+
+    /**
+     * @return true if the sale can be completed: the bank charged the card or the payment is queued for it
+     */
+    public boolean isAccepted() {
+        return status == Status.APPROVED || status == Status.QUEUED;
+    }
+
+    /**
+     * Returns the final status of a sent payment with this result.
+     * Only an outage (no answer in time, a server error or an open circuit) keeps the payment for another attempt;
+     * any other answer, such as an unknown endpoint, a redirect or an unexpected 4xx, will not change when the payment
+     * is sent again and fails it.
+     *
+     * @return SETTLED if approved, PENDING if the payment has to be sent again, or FAILED otherwise
+     */
+    PaymentStatus toPaymentStatus() {
+        if (status == Status.APPROVED) {
+            return PaymentStatus.SETTLED;
+        }
+        return isRetryable() ? PaymentStatus.PENDING : PaymentStatus.FAILED;
+    }
+
+    /**
+     * @return true if the bank was unavailable, so sending the payment again later can succeed
+     */
+    boolean isRetryable() {
+        return isBankFailure() || status == Status.CIRCUIT_OPEN || status == Status.QUEUED;
+    }
+
+    /**
+     * @return true if the bank itself failed (server error or no answer in time), as opposed to declining the payment
+     */
+    boolean isBankFailure() {
+        return status == Status.TIMED_OUT || httpStatus >= 500;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return true if the bank charged the card
+     */
+    public boolean isApproved() {
+        return status == Status.APPROVED;
+    }
+
+    /**
+     * @return the HTTP status code of the bank's response, or 0 if none was received
+     */
+    public int getHttpStatus() {
+        return httpStatus;
+    }
+
+    /**
+     * @return a message describing the result, suitable for showing to the cashier
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentResult{" +
+                "status=" + status +
+                ", httpStatus=" + httpStatus +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -1,11 +1,14 @@
 package com.retailtech.quickcasheasy.payment;
 
-import com.retailtech.quickcasheasy.database.DatabaseUtils;
+import com.retailtech.quickcasheasy.concurrent.BackgroundExecutor;
 import com.retailtech.quickcasheasy.exception.PaymentNotFoundException;
 
-import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
 
 /**
  * Internal service handling payment business logic.
@@ -14,11 +17,13 @@ import java.util.List;
 class PaymentService {
 
     private final PaymentRepository paymentRepository;
-    private final BankPaymentClient bankPaymentClient;
+    private final PaymentJournal paymentJournal;
+    private final PaymentForwarder paymentForwarder;
 
-    PaymentService() {
-        this.paymentRepository = new PaymentRepositoryImpl(new DatabaseUtils());
-        this.bankPaymentClient = new BankPaymentClient();
+    PaymentService(PaymentRepository paymentRepository, PaymentJournal paymentJournal, PaymentForwarder paymentForwarder) {
+        this.paymentRepository = paymentRepository;
+        this.paymentJournal = paymentJournal;
+        this.paymentForwarder = paymentForwarder;
     }
 
     /**
@@ -54,7 +59,30 @@ class PaymentService {
     }
 
     /**
-     * Updates the status and success flag of a payment.
+     * Streams all payments. The stream holds a database connection until it is closed.
+     *
+     * @return a stream of all payments
+     */
+    Stream<Payment> streamPayments() {
+        return paymentRepository.streamAll();
+    }
+
+    /**
+     * Streams the payments taken in a time window, oldest first.
+     *
+     * @param from start of the window, inclusive
+     * @param to   end of the window, exclusive
+     * @return a stream of payments
+     */
+    Stream<Payment> streamPayments(Instant from, Instant to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("Invalid time window: " + from + " - " + to);
+        }
+        return paymentRepository.streamCreatedBetween(from.toEpochMilli(), to.toEpochMilli());
+    }
+
+    /**
+     * Updates the status and success flag of a payment with a single UPDATE; the payment is not read first.
      *
      * @param paymentId the ID of the payment
      * @param status    the new status
@@ -62,16 +90,32 @@ class PaymentService {
      * @throws PaymentNotFoundException if the payment is not found
      */
     void updatePaymentStatus(Long paymentId, String status, boolean success) {
-        Payment payment = getPaymentById(paymentId);
-        if (payment != null) {
-            payment.setStatus(status);
-            payment.setSuccess(success);
-            paymentRepository.save(payment); // Update in repository
-        } else {
+        if (!paymentRepository.updateStatus(paymentId, status, success)) {
             throw new PaymentNotFoundException(paymentId);
         }
     }
 
+    /**
+     * Moves a payment from one status to another with a compare-and-set, so a concurrent change is never overwritten.
+     * The success flag follows the new status.
+     *
+     * @param paymentId the ID of the payment
+     * @param from      the status the payment is expected to have
+     * @param to        the new status
+     * @return true if the payment was updated, false if its status was no longer {@code from}
+     * @throws PaymentNotFoundException if the payment is not found
+     */
+    boolean transitionPaymentStatus(Long paymentId, PaymentStatus from, PaymentStatus to) {
+        if (paymentRepository.transitionStatus(paymentId, from, to)) {
+            return true;
+        }
+        // Only a failed update pays for the extra lookup
+        if (!paymentRepository.existsById(paymentId)) {
+            throw new PaymentNotFoundException(paymentId);
+        }
+        return false;
+    }
+
     /**
      * Deletes a payment by its ID.
      *
@@ -87,27 +131,37 @@ class PaymentService {
     }
 
     /**
-     * Initiates an external payment by calling the bank's API and saving the transaction locally.
+     * Takes a card payment. The payment is stored in the payment journal before the bank is contacted, then sent once;
+     * if the bank cannot process it, it is sent again in the background when the bank is back. The background drain
+     * does not touch the payment while this attempt is running, so the result is the bank's answer to this attempt.
+     * Runs off the calling thread.
      *
-     * @param id          the ID of the transaction
+     * @param amount     the amount to be paid
+     * @param method     the payment method
+     * @param cardNumber the card number associated with the primary account to debit
+     * @return a future completed with the bank's answer, or {@link PaymentResult.Status#QUEUED} if it has to wait
+     */
+    CompletableFuture<PaymentResult> submitPayment(BigDecimal amount, String method, int cardNumber) {
+        return BackgroundExecutor.call(() -> paymentJournal.append(amount, method, cardNumber))
+                .thenCompose(paymentForwarder::send);
+    }
+
+    /**
+     * Initiates an external payment by saving the transaction locally and calling the bank's API.
+     * A payment the bank cannot process right now is kept and sent later instead of being lost.
+     *
+     * @param id          ignored; the payment ID is generated when the payment is stored
      * @param amount      the amount to be paid
      * @param method      the payment method
      * @param cardNumber  the card number associated with the primary account to debit
      * @return the response from the bank's API
-     * @throws RuntimeException if there is an error processing the payment
+     * @throws RuntimeException if the payment could not be stored
      */
     String initiateExternalPayment(Long id, BigDecimal amount, String method, int cardNumber) {
         try {
-            // Call the bank API with the card number and amount
-            String response = bankPaymentClient.makeBankPayment(cardNumber, amount);
-
-            // Create and save the local transaction
-            Payment payment = new Payment(id, amount, method, "Completed", true);
-            paymentRepository.save(payment);
-
-            return response; // Return the response from the bank system
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException("Failed to process payment", e);
+            return submitPayment(amount, method, cardNumber).join().getMessage();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Failed to process payment", BackgroundExecutor.unwrap(e));
         }
     }
 
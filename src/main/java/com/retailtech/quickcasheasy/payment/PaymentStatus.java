@@ -0,0 +1,24 @@
+package com.retailtech.quickcasheasy.payment;
+
+/**
+ * Lifecycle of a card payment. A payment is stored as PENDING before the bank is contacted, moves to SENT while a
+ * request to the bank is in flight, and ends as SETTLED or FAILED. A SENT payment whose request failed goes back
+ * to PENDING and is sent again with the same idempotency key.
+ */
+public enum PaymentStatus {
+    /** Stored locally; waiting to be sent to the bank. */
+    PENDING,
+    /** A request to the bank is in flight. */
+    SENT,
+    /** The bank charged the card. */
+    SETTLED,
+    /** The bank refused the payment. */
+    FAILED;
+
+    /**
+     * @return the value of the payments.success column for this status
+     */
+    boolean isSuccess() {
+        return this == SETTLED;
+    }
+}
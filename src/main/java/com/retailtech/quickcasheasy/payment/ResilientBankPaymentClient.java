@@ -0,0 +1,138 @@
+package com.retailtech.quickcasheasy.payment;
+
+import com.retailtech.quickcasheasy.concurrent.BackgroundExecutor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends payments through a {@link BankPaymentClient}, retrying bank failures and failing fast while the bank is down.
+ * <p>
+ * Server errors, timeouts and unreachable-bank errors are retried according to the {@link RetryPolicy}, all with the
+ * same idempotency key so the bank charges the card at most once. Declined payments are not retried. Every attempt is
+ * recorded in the {@link CircuitBreaker}; while the circuit is open, payments complete at once with
+ * {@link PaymentResult.Status#CIRCUIT_OPEN} instead of waiting for the bank.
+ */
+public class ResilientBankPaymentClient {
+
+    private static volatile ResilientBankPaymentClient sharedInstance;
+
+    private final BankPaymentClient client;
+    private final CircuitBreaker circuitBreaker;
+    private final RetryPolicy retryPolicy;
+    private final LongAdder retries = new LongAdder();
+
+    ResilientBankPaymentClient(BankPaymentClient client, CircuitBreaker circuitBreaker, RetryPolicy retryPolicy) {
+        this.client = client;
+        this.circuitBreaker = circuitBreaker;
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Returns the client shared by all payment screens, so they all see the same circuit state.
+     *
+     * @return the shared resilient client
+     */
+    public static ResilientBankPaymentClient getInstance() {
+        ResilientBankPaymentClient instance = sharedInstance;
+        if (instance == null) {
+            synchronized (ResilientBankPaymentClient.class) {
+                instance = sharedInstance;
+                if (instance == null) {
+                    instance = new ResilientBankPaymentClient(new BankPaymentClient(),
+                            CircuitBreaker.fromSystemProperties(), RetryPolicy.fromSystemProperties());
+                    sharedInstance = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Sends a payment to the bank without blocking the calling thread.
+     *
+     * @param cardNumber the card number associated with the primary account to be charged
+     * @param amount     the amount to be deducted from the account
+     * @return a future completed with the bank's final answer, or exceptionally if the bank could not be reached
+     */
+    public CompletableFuture<PaymentResult> makePayment(int cardNumber, BigDecimal amount) {
+        return makePayment(cardNumber, amount, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Sends a payment to the bank without blocking the calling thread, using the given idempotency key for all
+     * attempts, so a payment sent again later (for example from the payment journal) is charged at most once.
+     *
+     * @param cardNumber     the card number associated with the primary account to be charged
+     * @param amount         the amount to be deducted from the account
+     * @param idempotencyKey identifies the payment at the bank
+     * @return a future completed with the bank's final answer, or exceptionally if the bank could not be reached
+     */
+    public CompletableFuture<PaymentResult> makePayment(int cardNumber, BigDecimal amount, String idempotencyKey) {
+        CompletableFuture<PaymentResult> outcome = new CompletableFuture<>();
+        attempt(cardNumber, amount, idempotencyKey, 1, outcome, PaymentResult.circuitOpen(), null);
+        return outcome;
+    }
+
+    /**
+     * @return the state and transition counters of the circuit breaker
+     */
+    public CircuitBreakerStats getCircuitBreakerStats() {
+        return circuitBreaker.getStats();
+    }
+
+    /**
+     * @return the number of retried bank calls
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    private void attempt(int cardNumber, BigDecimal amount, String idempotencyKey, int attempt,
+                         CompletableFuture<PaymentResult> outcome, PaymentResult lastResult, Throwable lastError) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            // Report what the previous attempt saw; a timed-out payment must not look like one never sent
+            complete(outcome, lastResult, lastError);
+            return;
+        }
+
+        CompletableFuture<PaymentResult> call;
+        try {
+            call = client.makeBankPaymentAsync(cardNumber, amount, idempotencyKey);
+        } catch (RuntimeException e) {
+            // Failed before a request was sent; handled like a failed call, so the permission is released and the
+            // caller gets an answer instead of waiting forever
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((result, error) -> {
+            Throwable cause = error == null ? null : BackgroundExecutor.unwrap(error);
+            boolean failed = cause != null || result.isBankFailure();
+            if (!failed) {
+                circuitBreaker.onSuccess();
+                outcome.complete(result);
+                return;
+            }
+
+            circuitBreaker.onFailure();
+            if (attempt >= retryPolicy.getMaxAttempts()) {
+                complete(outcome, result, cause);
+                return;
+            }
+            retries.increment();
+            long delayMillis = retryPolicy.backoffMillis(attempt);
+            CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS, BackgroundExecutor.executor())
+                    .execute(() -> attempt(cardNumber, amount, idempotencyKey, attempt + 1, outcome, result, cause));
+        });
+    }
+
+    private static void complete(CompletableFuture<PaymentResult> outcome, PaymentResult result, Throwable error) {
+        if (error != null) {
+            outcome.completeExceptionally(error);
+        } else {
+            outcome.complete(result);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.retailtech.quickcasheasy.payment;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How often and how long to wait before a failed bank call is tried again.
+ * Delays grow exponentially and are drawn at random below the cap ("full jitter"),
+ * so lanes that failed at the same moment do not all retry at the same moment.
+ */
+final class RetryPolicy {
+
+    static final String MAX_ATTEMPTS_PROPERTY = "qce.bank.retry.maxAttempts";
+    static final String BASE_DELAY_PROPERTY = "qce.bank.retry.baseDelayMs";
+    static final String MAX_DELAY_PROPERTY = "qce.bank.retry.maxDelayMs";
+
+    private final int maxAttempts;       // Including the first call
+    private final long baseDelayMillis;  // Cap of the delay before the first retry
+    private final long maxDelayMillis;   // Cap of any delay
+
+    RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt is required");
+        }
+        if (baseDelayMillis < 0 || maxDelayMillis < baseDelayMillis) {
+            throw new IllegalArgumentException("Retry delays must satisfy 0 <= base <= max");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Builds the policy from system properties: by default three attempts, with delays capped at 200 ms, 400 ms
+     * and never more than 2 seconds.
+     *
+     * @return the retry policy
+     */
+    static RetryPolicy fromSystemProperties() {
+        return new RetryPolicy(
+                Integer.getInteger(MAX_ATTEMPTS_PROPERTY, 3),
+                Long.getLong(BASE_DELAY_PROPERTY, 200L),
+                Long.getLong(MAX_DELAY_PROPERTY, 2_000L));
+    }
+
+    int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Returns the delay before the next attempt.
+     *
+     * @param failedAttempts the number of attempts made so far (1 after the first call failed)
+     * @return a random delay between 0 and {@code min(maxDelay, baseDelay * 2^(failedAttempts - 1))}
+     */
+    long backoffMillis(int failedAttempts) {
+        return (long) (ThreadLocalRandom.current().nextDouble() * backoffCapMillis(failedAttempts));
+    }
+
+    /**
+     * Returns the upper bound of the delay before the next attempt.
+     */
+    long backoffCapMillis(int failedAttempts) {
+        int shift = Math.min(failedAttempts - 1, 30); // Beyond this the cap is reached anyway
+        return Math.min(maxDelayMillis, baseDelayMillis << shift);
+    }
+}
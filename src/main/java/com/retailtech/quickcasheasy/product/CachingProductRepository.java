@@ -0,0 +1,138 @@
+package com.retailtech.quickcasheasy.product;
+
+import com.retailtech.quickcasheasy.product.dto.ProductDTO;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Read-through cache in front of another ProductRepository.
+ * Barcode lookups are served from memory after the first scan; writes invalidate the affected entry.
+ */
+public class CachingProductRepository implements ProductRepository {
+
+    // Maximum number of cached products, overridable with -Dqce.catalog.cache.maxSize=...
+    static final String CACHE_SIZE_PROPERTY = "qce.catalog.cache.maxSize";
+    private static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private static volatile CachingProductRepository sharedInstance;
+
+    private final ProductRepository delegate;
+    private final ProductCatalogCache cache;
+
+    /**
+     * Creates a caching repository in front of the given repository.
+     *
+     * @param delegate the repository that reads and writes the database
+     * @param maxSize  the maximum number of cached products
+     */
+    public CachingProductRepository(ProductRepository delegate, int maxSize) {
+        this.delegate = delegate;
+        this.cache = new ProductCatalogCache(maxSize);
+    }
+
+    /**
+     * Returns the catalog cache shared by all screens, backed by ProductRepositoryImpl.
+     *
+     * @return the shared caching repository
+     */
+    public static CachingProductRepository getInstance() {
+        CachingProductRepository instance = sharedInstance;
+        if (instance == null) {
+            synchronized (CachingProductRepository.class) {
+                instance = sharedInstance;
+                if (instance == null) {
+                    instance = new CachingProductRepository(new ProductRepositoryImpl(),
+                            Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE));
+                    sharedInstance = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public List<Product> getAllProducts() {
+        return delegate.getAllProducts();
+    }
+
+    @Override
+    public Stream<Product> streamAllProducts() {
+        return delegate.streamAllProducts();
+    }
+
+    @Override
+    public long forEachProduct(Consumer<? super Product> action) {
+        return delegate.forEachProduct(action);
+    }
+
+    /**
+     * Retrieves a product by barcode, loading and caching it on a miss.
+     *
+     * @param barcode the barcode of the product to retrieve
+     * @return an Optional containing the product if found, or empty if not found
+     */
+    @Override
+    public Optional<ProductDTO> getProductByBarcode(String barcode) {
+        if (barcode == null) {
+            return Optional.empty();
+        }
+        ProductDTO cached = cache.get(barcode);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        // A write that lands while the product is loaded invalidates it; the loaded row is then not cached
+        long loadStartedAt = cache.generation();
+        Optional<ProductDTO> loaded = delegate.getProductByBarcode(barcode);
+        loaded.ifPresent(product -> cache.put(barcode, product, loadStartedAt));
+        return loaded;
+    }
+
+    @Override
+    public void saveProduct(Product product) {
+        delegate.saveProduct(product);
+        cache.invalidate(product.getBarcode());
+    }
+
+    /**
+     * Saves many products through the underlying repository and then drops the cached catalog,
+     * since a price list import typically touches a large part of it.
+     */
+    @Override
+    public long saveProducts(Iterable<Product> products, int batchSize, ProductImportListener progressListener) {
+        try {
+            return delegate.saveProducts(products, batchSize, progressListener);
+        } finally {
+            cache.clear();
+        }
+    }
+
+    @Override
+    public void deleteProductByBarcode(String barcode) {
+        delegate.deleteProductByBarcode(barcode);
+        cache.invalidate(barcode);
+    }
+
+    @Override
+    public boolean existsByBarcode(String barcode) {
+        return getProductByBarcode(barcode).isPresent();
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of the catalog cache.
+     *
+     * @return a snapshot of the cache statistics
+     */
+    public CatalogCacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    /**
+     * Drops all cached products, for example after the catalog was changed outside this application.
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+}
@@ -0,0 +1,57 @@
+package com.retailtech.quickcasheasy.product;
+
+/**
+ * Point-in-time snapshot of the product catalog cache counters.
+ */
+public final class CatalogCacheStats {
+
+    private final int maxSize;
+    private final int size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    CatalogCacheStats(int maxSize, int size, long hits, long misses, long evictions) {
+        this.maxSize = maxSize;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogCacheStats{" +
+                "maxSize=" + maxSize +
+                ", size=" + size +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                '}';
+    }
+}
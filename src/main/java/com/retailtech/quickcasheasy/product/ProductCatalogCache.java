@@ -0,0 +1,128 @@
+package com.retailtech.quickcasheasy.product;
+
+import com.retailtech.quickcasheasy.product.dto.ProductDTO;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded, least-recently-used cache of products keyed by barcode.
+ * Entries are immutable ProductDTOs, so they can be shared between screens without copying.
+ * <p>
+ * Every invalidation is stamped with a generation number. A product loaded from the database is only cached if its
+ * barcode was not invalidated after the load started, so a load racing with a write cannot put the old row back.
+ */
+class ProductCatalogCache {
+
+    private final int maxSize;
+    private final Map<String, ProductDTO> entries;   // Access-ordered, guarded by this
+    private final Map<String, Long> invalidatedAt;   // Latest invalidation per barcode, guarded by this
+    private long generation;                         // Bumped on every invalidation, guarded by this
+    private long forgottenAt;                        // Latest generation dropped from invalidatedAt, guarded by this
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding at most the given number of products.
+     *
+     * @param maxSize the maximum number of cached products
+     */
+    ProductCatalogCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ProductDTO> eldest) {
+                if (size() > ProductCatalogCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        // Oldest invalidation first; once one is dropped, loads started before it are not cached at all
+        this.invalidatedAt = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                if (size() > ProductCatalogCache.this.maxSize) {
+                    forgottenAt = Math.max(forgottenAt, eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Looks up a product, counting the hit or miss.
+     *
+     * @param barcode the barcode of the product
+     * @return the cached product, or null if it is not cached
+     */
+    ProductDTO get(String barcode) {
+        ProductDTO product;
+        synchronized (this) {
+            product = entries.get(barcode);
+        }
+        if (product != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return product;
+    }
+
+    /**
+     * Returns the current generation; read it before loading a product and pass it to {@link #put}.
+     *
+     * @return the number of invalidations so far
+     */
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Caches a product loaded from the database, unless its barcode was invalidated after the load started.
+     *
+     * @param barcode       the barcode of the product
+     * @param product       the loaded product
+     * @param loadStartedAt the {@link #generation()} read before the load
+     * @return true if the product was cached
+     */
+    synchronized boolean put(String barcode, ProductDTO product, long loadStartedAt) {
+        if (forgottenAt > loadStartedAt) {
+            return false;
+        }
+        Long invalidated = invalidatedAt.get(barcode);
+        if (invalidated != null && invalidated > loadStartedAt) {
+            return false;
+        }
+        entries.put(barcode, product);
+        return true;
+    }
+
+    synchronized void invalidate(String barcode) {
+        entries.remove(barcode);
+        invalidatedAt.remove(barcode);   // Re-insert, so the map stays ordered by generation
+        invalidatedAt.put(barcode, ++generation);
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        invalidatedAt.clear();
+        forgottenAt = ++generation;
+    }
+
+    CatalogCacheStats getStats() {
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        return new CatalogCacheStats(maxSize, size, hits.sum(), misses.sum(), evictions.sum());
+    }
+}
@@ -0,0 +1,144 @@
+package com.retailtech.quickcasheasy.product;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads products from a supplier price list in CSV format, one line at a time.
+ * Expected columns are {@code barcode,name,price,category_id}; a header line starting with "barcode" (in any case) is
+ * skipped, as is a UTF-8 byte order mark at the start of the input.
+ * The category column may be empty. Fields may be quoted with double quotes, using "" for a literal quote.
+ */
+class ProductCsvReader implements Iterable<Product> {
+
+    private static final String BYTE_ORDER_MARK = "\uFEFF";
+
+    private final BufferedReader reader;
+    private boolean iteratorCreated;
+
+    ProductCsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Returns an iterator that parses the next product only when it is requested.
+     * The underlying reader can only be consumed once.
+     *
+     * @return an iterator over the products in the CSV input
+     */
+    @Override
+    public Iterator<Product> iterator() {
+        if (iteratorCreated) {
+            throw new IllegalStateException("CSV input can only be iterated once");
+        }
+        iteratorCreated = true;
+        return new Iterator<>() {
+            private Product next;
+            private int lineNumber;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    next = readNext();
+                }
+                return next != null;
+            }
+
+            @Override
+            public Product next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Product product = next;
+                next = null;
+                return product;
+            }
+
+            private Product readNext() {
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        lineNumber++;
+                        if (lineNumber == 1 && line.startsWith(BYTE_ORDER_MARK)) {
+                            // Written by Excel and other Windows tools when saving as UTF-8
+                            line = line.substring(BYTE_ORDER_MARK.length());
+                        }
+                        if (line.isBlank() || (lineNumber == 1 && line.regionMatches(true, 0, "barcode", 0, 7))) {
+                            continue;
+                        }
+                        return parseLine(line, lineNumber);
+                    }
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error reading product CSV at line " + lineNumber, e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Parses one CSV line into a Product.
+     *
+     * @param line       the CSV line
+     * @param lineNumber the line number, used in error messages
+     * @return the parsed product
+     * @throws IllegalArgumentException if the line does not contain a valid product
+     */
+    static Product parseLine(String line, int lineNumber) {
+        List<String> fields = splitFields(line, lineNumber);
+        if (fields.size() < 3 || fields.size() > 4) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": expected barcode,name,price[,category_id] but found "
+                    + fields.size() + " fields");
+        }
+        String barcode = fields.get(0).trim();
+        if (barcode.isEmpty()) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": barcode cannot be empty");
+        }
+        try {
+            BigDecimal price = new BigDecimal(fields.get(2).trim());
+            String category = fields.size() == 4 ? fields.get(3).trim() : "";
+            Long categoryId = category.isEmpty() ? null : Long.valueOf(category);
+            return new Product(barcode, fields.get(1).trim(), price, categoryId);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": invalid number in '" + line + "'", e);
+        }
+    }
+
+    private static List<String> splitFields(String line, int lineNumber) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
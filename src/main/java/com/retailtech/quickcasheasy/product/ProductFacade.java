@@ -1,10 +1,14 @@
 package com.retailtech.quickcasheasy.product;
 
 import com.retailtech.quickcasheasy.category.CategoryFacade;
+import com.retailtech.quickcasheasy.exception.ProductNotFoundException;
 import com.retailtech.quickcasheasy.product.dto.ProductDTO;
 
+import java.io.Reader;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Facade for product-related operations.
@@ -26,6 +30,36 @@ public class ProductFacade {
         this.categoryFacade = categoryFacade;
     }
 
+    /**
+     * Creates a product facade backed by the shared catalog cache, as used by the screens.
+     *
+     * @return a new product facade
+     */
+    public static ProductFacade createDefault() {
+        return createDefault(new CategoryFacade());
+    }
+
+    /**
+     * Creates a product facade backed by the shared catalog cache that checks categories through the given facade.
+     *
+     * @param categoryFacade the category facade to use
+     * @return a new product facade
+     */
+    public static ProductFacade createDefault(CategoryFacade categoryFacade) {
+        return create(CachingProductRepository.getInstance(), categoryFacade);
+    }
+
+    /**
+     * Creates a product facade over the given repository.
+     *
+     * @param productRepository the repository to read and write products
+     * @param categoryFacade    the category facade to use
+     * @return a new product facade
+     */
+    public static ProductFacade create(ProductRepository productRepository, CategoryFacade categoryFacade) {
+        return new ProductFacade(new ProductService(productRepository, categoryFacade), categoryFacade);
+    }
+
     /**
      * Retrieves all products as ProductDTOs.
      *
@@ -35,6 +69,16 @@ public class ProductFacade {
         return productService.getAllProducts();
     }
 
+    /**
+     * Streams all products as ProductDTOs in constant memory, for exports of the whole catalog.
+     * The stream holds a database connection until it is closed; use it in a try-with-resources block.
+     *
+     * @return a stream of ProductDTOs
+     */
+    public Stream<ProductDTO> streamAllProducts() {
+        return productService.streamAllProducts();
+    }
+
     /**
      * Retrieves a product by its barcode as a ProductDTO.
      *
@@ -64,6 +108,46 @@ public class ProductFacade {
         productService.createProduct(barcode, name, price, categoryId);
     }
 
+    /**
+     * Saves many products in batches, for example a supplier price list.
+     * Existing products with the same barcode are updated.
+     *
+     * @param products         the products to save, consumed as they are iterated
+     * @param batchSize        the number of products per batch and commit
+     * @param progressListener notified with the running total after each commit
+     * @return the number of products saved
+     */
+    public long saveProducts(Iterable<ProductDTO> products, int batchSize, ProductImportListener progressListener) {
+        if (products == null) {
+            throw new IllegalArgumentException("Products cannot be null");
+        }
+        Iterable<Product> mapped = () -> StreamSupport.stream(products.spliterator(), false)
+                .map(product -> new Product(product.getBarcode(), product.getName(), product.getPrice(), product.getCategoryId()))
+                .iterator();
+        return productService.saveProducts(mapped, batchSize, listenerOrNone(progressListener));
+    }
+
+    /**
+     * Imports products from CSV input with the columns {@code barcode,name,price,category_id}.
+     * The input is read line by line while batches are written, so the whole file is never held in memory.
+     *
+     * @param csv              the CSV input; the caller remains responsible for closing it
+     * @param batchSize        the number of products per batch and commit
+     * @param progressListener notified with the running total after each commit
+     * @return the number of products imported
+     * @throws IllegalArgumentException if a line cannot be parsed
+     */
+    public long importProductsFromCsv(Reader csv, int batchSize, ProductImportListener progressListener) {
+        if (csv == null) {
+            throw new IllegalArgumentException("CSV input cannot be null");
+        }
+        return productService.saveProducts(new ProductCsvReader(csv), batchSize, listenerOrNone(progressListener));
+    }
+
+    private ProductImportListener listenerOrNone(ProductImportListener progressListener) {
+        return progressListener != null ? progressListener : ProductImportListener.NONE;
+    }
+
     /**
      * Deletes a product by its barcode.
      *
@@ -77,26 +161,22 @@ public class ProductFacade {
      * Retrieves the name of a product given its barcode.
      *
      * @param barcode the barcode of the product
-     * @return the name of the product, or null if not found
+     * @return the name of the product
+     * @throws ProductNotFoundException if no product has the barcode
      */
     public String getProductName(String barcode) {
-        ProductDTO product = productService.getProductByBarcode(barcode);  // Use ProductService to get the product
-        return (product != null) ? product.getName() : null;            // Return name or null if not found
+        return productService.getProductByBarcode(barcode).getName();  // Use ProductService to get the product
     }
 
     /**
      * Retrieves the price of a product given its barcode.
      *
      * @param barcode the barcode of the product
-     * @return the price of the product, or throws RuntimeException if not found
+     * @return the price of the product
+     * @throws ProductNotFoundException if no product has the barcode
      */
     public BigDecimal getProductPrice(String barcode) {
-        ProductDTO product = productService.getProductByBarcode(barcode);  // Use ProductService to get the product
-        if (product != null) {
-            return product.getPrice();  // Directly return BigDecimal from ProductDTO
-        } else {
-            throw new RuntimeException("Product not found for barcode: " + barcode);
-        }
+        return productService.getProductByBarcode(barcode).getPrice();  // Directly return BigDecimal from ProductDTO
     }
 
     /**
@@ -0,0 +1,20 @@
+package com.retailtech.quickcasheasy.product;
+
+/**
+ * Callback for reporting progress of a bulk product import.
+ */
+@FunctionalInterface
+public interface ProductImportListener {
+
+    /**
+     * A listener that ignores progress updates.
+     */
+    ProductImportListener NONE = productsSaved -> { };
+
+    /**
+     * Called after each batch of products has been committed.
+     *
+     * @param productsSaved the total number of products committed so far
+     */
+    void onProgress(long productsSaved);
+}
@@ -4,15 +4,57 @@ import com.retailtech.quickcasheasy.product.dto.ProductDTO;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface ProductRepository {
 
+    // Number of products sent per JDBC batch and committed together when no batch size is given
+    int DEFAULT_BATCH_SIZE = 500;
+
     List<Product> getAllProducts();
 
+    /**
+     * Reads all products one row at a time, for example to export the catalog, without building a list.
+     *
+     * @param action receives each product
+     * @return the number of products read
+     */
+    long forEachProduct(Consumer<? super Product> action);
+
+    /**
+     * Streams all products from an open cursor, so the catalog can be exported in constant memory.
+     * The stream holds a database connection until it is closed; use it in a try-with-resources block.
+     *
+     * @return the products
+     */
+    Stream<Product> streamAllProducts();
+
     Optional<ProductDTO> getProductByBarcode(String barcode);
 
     void saveProduct(Product product);
 
+    /**
+     * Saves many products using JDBC batching, committing once per batch.
+     * The products are consumed as they are iterated, so the input can be streamed.
+     *
+     * @param products         the products to save
+     * @param batchSize        the number of products per batch and commit
+     * @param progressListener notified with the running total after each commit
+     * @return the number of products saved
+     */
+    long saveProducts(Iterable<Product> products, int batchSize, ProductImportListener progressListener);
+
+    /**
+     * Saves many products with the default batch size.
+     *
+     * @param products the products to save
+     * @return the number of products saved
+     */
+    default long saveProducts(Iterable<Product> products) {
+        return saveProducts(products, DEFAULT_BATCH_SIZE, ProductImportListener.NONE);
+    }
+
     void deleteProductByBarcode(String barcode);
 
     boolean existsByBarcode(String barcode);
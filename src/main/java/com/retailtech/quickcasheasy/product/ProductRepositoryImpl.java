@@ -1,6 +1,9 @@
 package com.retailtech.quickcasheasy.product;
 
 import com.retailtech.quickcasheasy.database.DatabaseConnectionManager;
+import com.retailtech.quickcasheasy.database.DatabaseUtils;
+import com.retailtech.quickcasheasy.database.RowMapper;
+import com.retailtech.quickcasheasy.database.SqlDialect;
 import com.retailtech.quickcasheasy.product.dto.ProductDTO;
 
 import java.sql.Connection;
@@ -10,12 +13,43 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implementation of ProductRepository using a database connection.
  */
 public class ProductRepositoryImpl implements ProductRepository {
 
+    // Column lists and index-based mapping for product rows
+    private static final RowMapper<Product> PRODUCT_MAPPER = RowMapper.of(
+            (rs, col) -> new Product(rs.getString(col[0]), rs.getString(col[1]), rs.getBigDecimal(col[2]), rs.getLong(col[3])),
+            "barcode", "name", "price", "category_id");
+    private static final RowMapper<ProductDTO> PRODUCT_DTO_MAPPER = RowMapper.of(
+            (rs, col) -> new ProductDTO(rs.getString(col[0]), rs.getString(col[1]), rs.getBigDecimal(col[2]), rs.getLong(col[3])),
+            "barcode", "name", "price", "category_id");
+    private static final String SELECT_BY_BARCODE_SQL = PRODUCT_DTO_MAPPER.selectFrom("products") + " WHERE barcode = ?";
+    private static final String SELECT_ALL_SQL = PRODUCT_MAPPER.selectFrom("products");
+
+    private final String upsertSql;   // Single-statement insert-or-update for the configured database
+    private final DatabaseUtils dbUtils = new DatabaseUtils();
+
+    /**
+     * Creates a repository for the database configured in DatabaseConnectionManager.
+     */
+    public ProductRepositoryImpl() {
+        this(DatabaseConnectionManager.getDialect());
+    }
+
+    /**
+     * Creates a repository that writes products using the given SQL dialect.
+     *
+     * @param dialect the SQL dialect of the database
+     */
+    public ProductRepositoryImpl(SqlDialect dialect) {
+        this.upsertSql = dialect.upsert("products", List.of("barcode"), List.of("barcode", "name", "price", "category_id"));
+    }
+
     /**
      * Saves a product to the repository.
      *
@@ -23,20 +57,11 @@ public class ProductRepositoryImpl implements ProductRepository {
      */
     @Override
     public void saveProduct(Product product) {
-        if (product == null) {
-            throw new IllegalArgumentException("Product cannot be null");
-        }
-        if (product.getBarcode() == null) {
-            throw new IllegalArgumentException("Barcode cannot be null");
-        }
+        validateProduct(product);
 
-        String sql = "MERGE INTO products (barcode, name, price, category_id) VALUES (?, ?, ?, ?)";
         try (Connection connection = DatabaseConnectionManager.getConnection();
-             PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, product.getBarcode());
-            pstmt.setString(2, product.getName());
-            pstmt.setBigDecimal(3, product.getPrice());
-            pstmt.setLong(4, product.getCategoryId());
+             PreparedStatement pstmt = connection.prepareStatement(upsertSql)) {
+            bindProduct(pstmt, product);
 
             pstmt.executeUpdate();
             connection.commit();
@@ -46,6 +71,77 @@ public class ProductRepositoryImpl implements ProductRepository {
         }
     }
 
+    /**
+     * Saves many products on one connection, sending them in JDBC batches and committing once per batch.
+     * Batches committed before a failure stay saved; the failing batch is rolled back.
+     *
+     * @param products         the products to save
+     * @param batchSize        the number of products per batch and commit
+     * @param progressListener notified with the running total after each commit
+     * @return the number of products saved
+     */
+    @Override
+    public long saveProducts(Iterable<Product> products, int batchSize, ProductImportListener progressListener) {
+        if (products == null) {
+            throw new IllegalArgumentException("Products cannot be null");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+
+        long saved = 0;
+        try (Connection connection = DatabaseConnectionManager.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(upsertSql)) {
+            int pending = 0;
+            try {
+                for (Product product : products) {
+                    validateProduct(product);
+                    bindProduct(pstmt, product);
+                    pstmt.addBatch();
+
+                    if (++pending == batchSize) {
+                        saved += commitBatch(connection, pstmt, pending);
+                        pending = 0;
+                        progressListener.onProgress(saved);
+                    }
+                }
+                if (pending > 0) {
+                    saved += commitBatch(connection, pstmt, pending);
+                    progressListener.onProgress(saved);
+                }
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Error saving products after " + saved + " were saved: " + e.getMessage(), e);
+        }
+        return saved;
+    }
+
+    private int commitBatch(Connection connection, PreparedStatement pstmt, int pending) throws SQLException {
+        pstmt.executeBatch();
+        connection.commit();
+        return pending;
+    }
+
+    private void validateProduct(Product product) {
+        if (product == null) {
+            throw new IllegalArgumentException("Product cannot be null");
+        }
+        if (product.getBarcode() == null) {
+            throw new IllegalArgumentException("Barcode cannot be null");
+        }
+    }
+
+    private void bindProduct(PreparedStatement pstmt, Product product) throws SQLException {
+        pstmt.setString(1, product.getBarcode());
+        pstmt.setString(2, product.getName());
+        pstmt.setBigDecimal(3, product.getPrice());
+        pstmt.setObject(4, product.getCategoryId());
+    }
+
     /**
      * Retrieves a product by barcode.
      *
@@ -57,20 +153,16 @@ public class ProductRepositoryImpl implements ProductRepository {
         if (barcode == null) {
             return Optional.empty();
         }
-        String sql = "SELECT * FROM products WHERE barcode = ?";
         try (Connection connection = DatabaseConnectionManager.getConnection();
-             PreparedStatement pstmt = connection.prepareStatement(sql)) {
+             PreparedStatement pstmt = connection.prepareStatement(SELECT_BY_BARCODE_SQL)) {
             pstmt.setString(1, barcode);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                ProductDTO product = new ProductDTO(rs.getString("barcode"), rs.getString("name"), rs.getBigDecimal("price"), rs.getLong("category_id"));
-                return Optional.of(product);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return PRODUCT_DTO_MAPPER.first(rs);
             }
         } catch (SQLException e) {
             e.printStackTrace();
             throw new RuntimeException("Error retrieving product by barcode: " + e.getMessage(), e);
         }
-        return Optional.empty();
     }
 
 
@@ -104,19 +196,36 @@ public class ProductRepositoryImpl implements ProductRepository {
     @Override
     public List<Product> getAllProducts() {
         List<Product> products = new ArrayList<>();
-        String sql = "SELECT * FROM products";
+        forEachProduct(products::add);
+        return products;
+    }
+
+    /**
+     * Reads all products one row at a time, without collecting them into a list.
+     *
+     * @param action receives each product
+     * @return the number of products read
+     */
+    @Override
+    public long forEachProduct(Consumer<? super Product> action) {
         try (Connection connection = DatabaseConnectionManager.getConnection();
-             PreparedStatement pstmt = connection.prepareStatement(sql);
+             PreparedStatement pstmt = connection.prepareStatement(SELECT_ALL_SQL);
              ResultSet rs = pstmt.executeQuery()) {
-            while (rs.next()) {
-                Product product = new Product(rs.getString("barcode"), rs.getString("name"), rs.getBigDecimal("price"), rs.getLong("category_id"));
-                products.add(product);
-            }
+            return PRODUCT_MAPPER.forEach(rs, action);
         } catch (SQLException e) {
             e.printStackTrace();
             throw new RuntimeException("Error retrieving all products: " + e.getMessage(), e);
         }
-        return products;
+    }
+
+    /**
+     * Streams all products from an open cursor; close the stream to release the connection.
+     *
+     * @return the products
+     */
+    @Override
+    public Stream<Product> streamAllProducts() {
+        return dbUtils.stream(SELECT_ALL_SQL, PRODUCT_MAPPER);
     }
 
     /**
@@ -1,10 +1,12 @@
 package com.retailtech.quickcasheasy.product;
 
 import com.retailtech.quickcasheasy.category.CategoryFacade;
+import com.retailtech.quickcasheasy.exception.ProductNotFoundException;
 import com.retailtech.quickcasheasy.product.dto.ProductDTO;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing product-related operations.
@@ -38,18 +40,29 @@ class ProductService {
                 .toList();
     }
 
+    /**
+     * Streams all products as ProductDTOs without loading the catalog into memory.
+     * The stream holds a database connection until it is closed.
+     *
+     * @return A stream of ProductDTOs.
+     */
+    public Stream<ProductDTO> streamAllProducts() {
+        return productRepository.streamAllProducts()
+                .map(product -> new ProductDTO(product.getBarcode(), product.getName(), product.getPrice(), product.getCategoryId()));
+    }
+
     /**
      * Retrieves a product by its barcode and maps it to a ProductDTO.
      *
      * @param barcode The barcode of the product to retrieve.
      * @return The ProductDTO for the given barcode.
-     * @throws RuntimeException if the product with the given barcode is not found.
+     * @throws ProductNotFoundException if no product has the given barcode.
      */
     public ProductDTO getProductByBarcode(String barcode) {
         // Find a product by its barcode and map it to ProductDTO, throw exception if not found
         return productRepository.getProductByBarcode(barcode)
                 .map(product -> new ProductDTO(product.getBarcode(), product.getName(), product.getPrice(), product.getCategoryId()))
-                .orElseThrow(() -> new RuntimeException("Product not found for barcode: " + barcode));
+                .orElseThrow(() -> new ProductNotFoundException(barcode));
     }
 
     /**
@@ -74,6 +87,20 @@ class ProductService {
         productRepository.saveProduct(product);
     }
 
+    /**
+     * Saves many products in batches.
+     * Categories are not looked up one by one; the products table's foreign key, enforced on every connection,
+     * rejects a batch with an unknown category ID.
+     *
+     * @param products         The products to save, consumed as they are iterated.
+     * @param batchSize        The number of products per batch and commit.
+     * @param progressListener Notified with the running total after each commit.
+     * @return The number of products saved.
+     */
+    public long saveProducts(Iterable<Product> products, int batchSize, ProductImportListener progressListener) {
+        return productRepository.saveProducts(products, batchSize, progressListener);
+    }
+
     /**
      * Deletes a product by its barcode.
      *
@@ -1,12 +1,13 @@
 package com.retailtech.quickcasheasy.user;
 
+import com.retailtech.quickcasheasy.ApplicationContext;
+import com.retailtech.quickcasheasy.ViewRegistry;
+import com.retailtech.quickcasheasy.concurrent.BackgroundExecutor;
 import com.retailtech.quickcasheasy.exception.UserNotFoundException;
 import com.retailtech.quickcasheasy.user.dto.UserDTO;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.Alert.AlertType;
@@ -21,7 +22,7 @@ import java.util.List;
  * Controller class for handling user-related operations in the JavaFX application.
  * Manages user registration, login, and user management functionalities.
  */
-public class AdminController {
+public class AdminController implements ViewRegistry.Resettable {
 
     // FXML-injected UI components for registration
     @FXML
@@ -72,8 +73,6 @@ public class AdminController {
      */
     @FXML
     public void initialize() {
-        // Initialize UserFacade with required dependencies
-        this.userFacade = new UserFacade(new UserService(new UserRepositoryImpl()));
 
         // Initialize the observable list
         this.userList = FXCollections.observableArrayList();
@@ -89,8 +88,11 @@ public class AdminController {
         // Add action buttons to the table
         addActionsToTable();
 
-        // Load users into the table
-        loadUsers();
+        // Shared UserFacade, built at startup off the FX thread; users are loaded once it is ready
+        ApplicationContext.whenReady().thenAcceptAsync(context -> {
+            this.userFacade = context.getUserFacade();
+            loadUsers();
+        }, BackgroundExecutor.fxThread());
     }
 
     /**
@@ -136,17 +138,25 @@ public class AdminController {
         loadUsers();
     }
 
+    /**
+     * Reloads the user list and clears the form when the screen is shown again for the next login.
+     */
+    @Override
+    public void reset() {
+        selectedUser = null;
+        loadUsers();
+    }
+
     /**
      * Handles the management of users, switching to the user management view.
      */
     @FXML
     private void handleManageUsers() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/retailtech/quickcasheasy/user/user_management_view.fxml"));
-            Parent root = loader.load();
+            Scene scene = ViewRegistry.getInstance().get("/com/retailtech/quickcasheasy/user/user_management_view.fxml").getScene();
 
-            Stage stage = (Stage) ((Stage) loader.getController()).getScene().getWindow();
-            stage.setScene(new Scene(root));
+            Stage stage = (Stage) userTableView.getScene().getWindow();
+            stage.setScene(scene);
             stage.show();
         } catch (IOException e) {
             showAlert(Alert.AlertType.ERROR, "Error", "Unable to load User Management view.");
@@ -159,11 +169,10 @@ public class AdminController {
     @FXML
     private void handleViewReports() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/retailtech/quickcasheasy/reports/reports_view.fxml"));
-            Parent root = loader.load();
+            Scene scene = ViewRegistry.getInstance().get("/com/retailtech/quickcasheasy/reports/reports_view.fxml").getScene();
 
-            Stage stage = (Stage) ((Stage) loader.getController()).getScene().getWindow();
-            stage.setScene(new Scene(root));
+            Stage stage = (Stage) userTableView.getScene().getWindow();
+            stage.setScene(scene);
             stage.show();
         } catch (IOException e) {
             showAlert(Alert.AlertType.ERROR, "Error", "Unable to load Reports view.");
@@ -176,11 +185,10 @@ public class AdminController {
     @FXML
     private void handleLogout() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/retailtech/quickcasheasy/home/home_view.fxml"));
-            Parent root = loader.load();
+            Scene home = ViewRegistry.getInstance().get(ViewRegistry.HOME).getScene();
 
             Stage stage = (Stage) userTableView.getScene().getWindow();
-            stage.setScene(new Scene(root));
+            stage.setScene(home);
             stage.show();
         } catch (IOException e) {
             showAlert(Alert.AlertType.ERROR, "Error", "Unable to log out.");
@@ -244,15 +252,14 @@ public class AdminController {
             throw new IllegalArgumentException("User ID cannot be null");
         }
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/retailtech/quickcasheasy/user/edit_user_view.fxml"));
-            Parent root = loader.load();
+            ViewRegistry.View view = ViewRegistry.getInstance().get(ViewRegistry.EDIT_USER);
 
-            EditUserController controller = loader.getController();
+            EditUserController controller = view.getController();
             controller.setUser(user);
 
             Stage stage = new Stage();
             stage.setTitle("Edit User");
-            stage.setScene(new Scene(root));
+            stage.setScene(view.getScene());
             stage.showAndWait();
 
             if (controller.isSaved()) {
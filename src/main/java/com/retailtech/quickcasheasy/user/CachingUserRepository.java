@@ -0,0 +1,175 @@
+package com.retailtech.quickcasheasy.user;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.Optional;
+
+/**
+ * Read-through cache in front of another UserRepository, used by the login screen.
+ * Lookups by username are served from memory for a limited time, so a shift change with many logins does not query
+ * the database for every one; saving or deleting a user invalidates its entry.
+ */
+public class CachingUserRepository implements UserRepository {
+
+    // Cache bounds, overridable with -Dqce.user.cache.maxSize=... and -Dqce.user.cache.ttlMs=...
+    static final String CACHE_SIZE_PROPERTY = "qce.user.cache.maxSize";
+    static final String CACHE_TTL_PROPERTY = "qce.user.cache.ttlMs";
+    private static final int DEFAULT_CACHE_SIZE = 256;
+    private static final long DEFAULT_CACHE_TTL_MS = 60_000;
+
+    private static volatile CachingUserRepository sharedInstance;
+
+    private final UserRepository delegate;
+    private final UserCache cache;
+
+    /**
+     * Creates a caching repository in front of the given repository.
+     *
+     * @param delegate the repository that reads and writes the database
+     * @param maxSize  the maximum number of cached users
+     * @param ttlMs    how long a user stays cached, in milliseconds
+     */
+    public CachingUserRepository(UserRepository delegate, int maxSize, long ttlMs) {
+        this(delegate, new UserCache(maxSize, ttlMs));
+    }
+
+    CachingUserRepository(UserRepository delegate, UserCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /**
+     * Returns the user cache shared by all screens, backed by UserRepositoryImpl.
+     *
+     * @return the shared caching repository
+     */
+    public static CachingUserRepository getInstance() {
+        CachingUserRepository instance = sharedInstance;
+        if (instance == null) {
+            synchronized (CachingUserRepository.class) {
+                instance = sharedInstance;
+                if (instance == null) {
+                    instance = new CachingUserRepository(new UserRepositoryImpl(),
+                            Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE),
+                            Long.getLong(CACHE_TTL_PROPERTY, DEFAULT_CACHE_TTL_MS));
+                    sharedInstance = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public void saveUser(User user) {
+        try {
+            delegate.saveUser(user);
+        } finally {
+            if (user != null) {
+                cache.invalidate(user.getUserName(), user.getId());
+            }
+        }
+    }
+
+    @Override
+    public int saveUsers(Collection<User> users) {
+        try {
+            return delegate.saveUsers(users);
+        } finally {
+            if (users != null) {
+                users.stream()
+                        .filter(Objects::nonNull)
+                        .forEach(user -> cache.invalidate(user.getUserName(), user.getId()));
+            }
+        }
+    }
+
+    /**
+     * Updates a user by ID. The cached entry is dropped by ID as well, since the username may have changed.
+     *
+     * @param user the user with updated details
+     * @return true if the user was updated, false if no user has that ID
+     */
+    @Override
+    public boolean updateUser(User user) {
+        try {
+            return delegate.updateUser(user);
+        } finally {
+            if (user != null) {
+                cache.invalidate(user.getUserName(), user.getId());
+            }
+        }
+    }
+
+    /**
+     * Replaces a user's password if it is unchanged. The cached entry is dropped by ID.
+     *
+     * @param id               the ID of the user
+     * @param expectedPassword the stored value the new one replaces
+     * @param newPassword      the value to store
+     * @return true if the password was replaced
+     */
+    @Override
+    public boolean updatePassword(Long id, String expectedPassword, String newPassword) {
+        try {
+            return delegate.updatePassword(id, expectedPassword, newPassword);
+        } finally {
+            cache.invalidate(null, id);
+        }
+    }
+
+    /**
+     * Retrieves a user by username, loading and caching it on a miss. Unknown usernames are not cached, so a newly
+     * created user can log in straight away.
+     *
+     * @param username the username of the user to retrieve
+     * @return an Optional containing the user if found, or empty if not found
+     */
+    @Override
+    public Optional<User> getUserByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        User cached = cache.get(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        // A write that lands while the user is loaded invalidates it; the loaded row is then not cached
+        long loadStartedAt = cache.generation();
+        Optional<User> loaded = delegate.getUserByUsername(username);
+        loaded.ifPresent(user -> cache.put(user, loadStartedAt));
+        return loaded;
+    }
+
+    @Override
+    public void deleteUserByUsername(String username) {
+        try {
+            delegate.deleteUserByUsername(username);
+        } finally {
+            cache.invalidate(username, null);
+        }
+    }
+
+    @Override
+    public List<User> getAllUsers() {
+        return delegate.getAllUsers();
+    }
+
+    @Override
+    public Stream<User> streamAllUsers() {
+        return delegate.streamAllUsers();
+    }
+
+    @Override
+    public Optional<User> getUserById(Long id) {
+        return delegate.getUserById(id);
+    }
+
+    /**
+     * Drops all cached users, for example after users were changed outside this application.
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+}
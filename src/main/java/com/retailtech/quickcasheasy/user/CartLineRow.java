@@ -0,0 +1,59 @@
+package com.retailtech.quickcasheasy.user;
+
+import com.retailtech.quickcasheasy.cart.dto.CartItemDTO;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
+
+/**
+ * One line of the cart table on the cashier and customer screens.
+ * Quantity and line total are observable, so a repeat scan updates the row in place
+ * and the table redraws only the affected cells. The values come from the cart, see {@link CartTableModel}.
+ */
+final class CartLineRow {
+
+    private final String barcode;
+    private final ReadOnlyStringWrapper productName;
+    private final IntegerProperty quantity = new SimpleIntegerProperty(this, "quantity");
+    private final LongProperty totalPriceMinorUnits = new SimpleLongProperty(this, "totalPriceMinorUnits");
+
+    CartLineRow(String barcode, String productName) {
+        this.barcode = barcode;
+        this.productName = new ReadOnlyStringWrapper(this, "productName", productName);
+    }
+
+    /**
+     * Shows the current quantity and line total of the cart line.
+     *
+     * @param line the line as reported by the cart
+     */
+    void update(CartItemDTO line) {
+        quantity.set(line.getQuantity());
+        totalPriceMinorUnits.set(line.getTotalPriceMinorUnits());
+    }
+
+    String getBarcode() {
+        return barcode;
+    }
+
+    String getProductName() {
+        return productName.get();
+    }
+
+    ReadOnlyStringProperty productNameProperty() {
+        return productName.getReadOnlyProperty();
+    }
+
+    ReadOnlyIntegerProperty quantityProperty() {
+        return quantity;
+    }
+
+    ReadOnlyLongProperty totalPriceMinorUnitsProperty() {
+        return totalPriceMinorUnits;
+    }
+}
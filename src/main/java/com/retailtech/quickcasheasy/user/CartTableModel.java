@@ -0,0 +1,58 @@
+package com.retailtech.quickcasheasy.user;
+
+import com.retailtech.quickcasheasy.cart.CartListener;
+import com.retailtech.quickcasheasy.cart.dto.CartItemDTO;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rows of a cart table, kept in step with a cart through its change events.
+ * Rows are indexed by barcode, so a repeat scan finds its row without searching the list.
+ */
+final class CartTableModel implements CartListener {
+
+    private final ObservableList<CartLineRow> rows = FXCollections.observableArrayList();
+    private final Map<String, CartLineRow> rowsByBarcode = new HashMap<>();
+
+    /**
+     * @return the rows to show in the table, in scan order
+     */
+    ObservableList<CartLineRow> getRows() {
+        return rows;
+    }
+
+    @Override
+    public void lineAdded(CartItemDTO line) {
+        CartLineRow row = new CartLineRow(line.getBarcode(), line.getProductName());
+        row.update(line);
+        rowsByBarcode.put(line.getBarcode(), row);
+        rows.add(row);
+    }
+
+    @Override
+    public void lineUpdated(CartItemDTO line) {
+        CartLineRow row = rowsByBarcode.get(line.getBarcode());
+        if (row != null) {
+            row.update(line);
+        } else {
+            lineAdded(line);
+        }
+    }
+
+    @Override
+    public void lineRemoved(String barcode) {
+        CartLineRow row = rowsByBarcode.remove(barcode);
+        if (row != null) {
+            rows.remove(row);
+        }
+    }
+
+    @Override
+    public void cartCleared() {
+        rowsByBarcode.clear();
+        rows.clear();
+    }
+}
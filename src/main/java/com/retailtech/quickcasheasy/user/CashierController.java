@@ -1,58 +1,61 @@
 package com.retailtech.quickcasheasy.user;
 
-import com.retailtech.quickcasheasy.cart.dto.CartItemDTO;
+import com.retailtech.quickcasheasy.ApplicationContext;
+import com.retailtech.quickcasheasy.ViewRegistry;
+import com.retailtech.quickcasheasy.money.Money;
 import com.retailtech.quickcasheasy.payment.PaymentController;
-import com.retailtech.quickcasheasy.product.ProductRepositoryImpl;
-import com.retailtech.quickcasheasy.product.dto.ProductDTO;
+import com.retailtech.quickcasheasy.cart.CartFacade;
+import com.retailtech.quickcasheasy.cart.CartListener;
+import com.retailtech.quickcasheasy.concurrent.BackgroundExecutor;
+import com.retailtech.quickcasheasy.concurrent.SerialExecutor;
+import com.retailtech.quickcasheasy.exception.ProductNotFoundException;
 import com.retailtech.quickcasheasy.user.dto.UserDTO;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.text.Text;
+import javafx.stage.Modality;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller class for handling cashier-related operations in the JavaFX application.
  * Manages viewing cart items, scanning products, updating account information, and logging out.
  */
-public class CashierController {
+public class CashierController implements ViewRegistry.Resettable {
 
     @FXML
     private Text totalAmountText;
 
     @FXML
-    private TableView<CartItemDTO> cartTableView;
+    private TableView<CartLineRow> cartTableView;
 
     @FXML
-    private TableColumn<CartItemDTO, String> productNameColumn;
+    private TableColumn<CartLineRow, String> productNameColumn;
 
     @FXML
-    private TableColumn<CartItemDTO, Integer> quantityColumn;
+    private TableColumn<CartLineRow, Number> quantityColumn;
 
     @FXML
-    private TableColumn<CartItemDTO, BigDecimal> totalPriceColumn;
+    private TableColumn<CartLineRow, Number> totalPriceColumn;
 
     @FXML
     private TextField barcodeField;
 
-    // Observable list for table data binding
-    private ObservableList<CartItemDTO> cartItemList;
+    // Table rows, updated from the cart's change events
+    private final CartTableModel cartTableModel = new CartTableModel();
 
     // Currently logged-in user
     private UserDTO loggedInUser;
 
-    // Product repository for handling product-related operations
-    private ProductRepositoryImpl productRepository;
+    // Cart of this screen; all cart arithmetic happens here. Only used on the cart queue
+    private CartFacade cartFacade;
+
+    // Runs cart changes off the FX thread, one at a time and in scan order
+    private final SerialExecutor cartQueue = BackgroundExecutor.newSerialExecutor();
 
     /**
      * Initializes the controller class. This method is automatically called
@@ -60,26 +63,35 @@ public class CashierController {
      */
     @FXML
     public void initialize() {
-        // Initialize the observable list
-        this.cartItemList = FXCollections.observableArrayList();
-
-        // Initialize the product repository
-        this.productRepository = new ProductRepositoryImpl();
+        // Products are read through the shared catalog cache so repeat scans do not hit the database.
+        // The cart is created on the cart queue once the shared facades are built, so scans made before wait for it.
+        cartQueue.execute(() -> {
+            CartFacade cart = new CartFacade(ApplicationContext.whenReady().join().getProductFacade());
+            // Cart changes happen on the cart queue; the table and total are updated on the FX thread
+            cart.addListener(CartListener.dispatchingTo(BackgroundExecutor.fxThread(), cartTableModel));
+            cart.addListener(CartListener.dispatchingTo(BackgroundExecutor.fxThread(), new CartListener() {
+                @Override
+                public void totalChanged(Money total) {
+                    showTotalAmount(total);
+                }
+            }));
+            cartFacade = cart;
+        });
 
         // Configure the TableView columns
-        productNameColumn.setCellValueFactory(new PropertyValueFactory<>("productName"));
-        quantityColumn.setCellValueFactory(new PropertyValueFactory<>("quantity"));
-        totalPriceColumn.setCellValueFactory(new PropertyValueFactory<>("totalPrice"));
+        productNameColumn.setCellValueFactory(cellData -> cellData.getValue().productNameProperty());
+        quantityColumn.setCellValueFactory(cellData -> cellData.getValue().quantityProperty());
+        totalPriceColumn.setCellValueFactory(cellData -> cellData.getValue().totalPriceMinorUnitsProperty());
 
-        // Add custom cell factory for formatting BigDecimal in totalPriceColumn
-        totalPriceColumn.setCellFactory(column -> new TableCell<CartItemDTO, BigDecimal>() {
+        // Add custom cell factory for formatting minor units in totalPriceColumn
+        totalPriceColumn.setCellFactory(column -> new TableCell<CartLineRow, Number>() {
             @Override
-            protected void updateItem(BigDecimal item, boolean empty) {
+            protected void updateItem(Number item, boolean empty) {
                 super.updateItem(item, empty);
                 if (empty || item == null) {
                     setText(null);
                 } else {
-                    setText(item.setScale(2, BigDecimal.ROUND_HALF_UP).toPlainString() + " NOK");
+                    setText(Money.format(item.longValue()) + " NOK");
                 }
             }
         });
@@ -91,6 +103,16 @@ public class CashierController {
         barcodeField.setOnAction(this::handleAddToCart);
     }
 
+    /**
+     * Empties the cart and the barcode field when the screen is shown again for the next login.
+     */
+    @Override
+    public void reset() {
+        loggedInUser = null;
+        barcodeField.clear();
+        clearCart();
+    }
+
     /**
      * Handles viewing cart items for the logged-in customer.
      */
@@ -107,7 +129,7 @@ public class CashierController {
             // Here we should load cart items for the logged-in user
             // Placeholder implementation as the actual cart retrieval logic is not provided
             // cartItemList.setAll(cartService.getCartItemsByUser(loggedInUser.getId()));
-            cartTableView.setItems(cartItemList);
+            cartTableView.setItems(cartTableModel.getRows());
         } catch (Exception e) {
             showAlert(Alert.AlertType.ERROR, "Error", "Failed to load cart items.");
         }
@@ -115,28 +137,53 @@ public class CashierController {
 
     /**
      * Handles the action of proceeding to the payment screen.
-     * Opens a new window for payment, passing the total amount to be paid.
+     * The total is read on the cart queue, after any scans still being looked up, and the payment window is then
+     * opened on the FX thread.
      */
     @FXML
     private void handleProceedToPayment(ActionEvent actionEvent) {
+        long requestedAt = System.nanoTime();
+        CompletableFuture.supplyAsync(() -> cartFacade.getTotalAmount(), cartQueue)
+                .whenCompleteAsync((total, error) -> {
+                    if (error != null) {
+                        BackgroundExecutor.unwrap(error).printStackTrace();
+                        showAlert(Alert.AlertType.ERROR, "Error", "Failed to read the cart total.");
+                    } else {
+                        openPaymentWindow(total, requestedAt);
+                    }
+                }, BackgroundExecutor.fxThread());
+    }
+
+    /**
+     * Opens a new window for payment, passing the total amount to be paid.
+     * The payment view is loaded once and reused for every sale; the time from the button press to the window being
+     * shown is logged.
+     *
+     * @param total       The amount to pay.
+     * @param requestedAt When the payment was requested, from {@link System#nanoTime()}.
+     */
+    private void openPaymentWindow(Money total, long requestedAt) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/retailtech/quickcasheasy/payment/payment_view.fxml"));
-            Parent root = loader.load();
+            ViewRegistry.View view = ViewRegistry.getInstance().get(ViewRegistry.PAYMENT);
 
             // Get the PaymentController instance
-            PaymentController paymentController = loader.getController();
+            PaymentController paymentController = view.getController();
 
-            // Calculate total amount and set it in PaymentController
-            BigDecimal totalAmount = calculateTotalAmount();
-            paymentController.setAmountToPay(totalAmount);
+            // Set the current total amount in PaymentController
+            paymentController.setAmountToPay(total);
 
             // Pass this CashierController to PaymentController
             paymentController.setCashierController(this);
 
-            // Open the payment window
+            // Open the payment window; the cart cannot be changed or paid again while it is open
             Stage stage = new Stage();
+            stage.initModality(Modality.APPLICATION_MODAL);
+            stage.initOwner(barcodeField.getScene().getWindow());
             stage.setTitle("Payment");
-            stage.setScene(new Scene(root));
+            stage.setScene(view.getScene());
+            stage.setOnCloseRequest(paymentController::handleCloseRequest);
+            stage.setOnShown(event -> System.out.println("Payment window opened in "
+                    + (System.nanoTime() - requestedAt) / 1_000_000 + " ms"));
             stage.showAndWait();
 
             System.out.println("Payment window closed.");
@@ -148,23 +195,19 @@ public class CashierController {
 
 
     /**
-     * Calculates the total amount based on items in the cart.
+     * Shows the cart total, as reported by the cart after each change.
      *
-     * @return The total amount as BigDecimal.
+     * @param total The total amount.
      */
-    private BigDecimal calculateTotalAmount() {
-        BigDecimal total = cartItemList.stream()
-                .map(CartItemDTO::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
+    private void showTotalAmount(Money total) {
         // Update the totalAmountText in the UI
-        totalAmountText.setText(total.setScale(2, BigDecimal.ROUND_HALF_UP).toPlainString() + " NOK");
-
-        return total;
+        totalAmountText.setText(total + " NOK");
     }
 
     /**
      * Handles adding a product to the cart by scanning the barcode.
+     * The field is cleared straight away so the next scan can be typed while the product is looked up;
+     * the table is updated from the cart's change events.
      */
     @FXML
     private void handleAddToCart(ActionEvent actionEvent) {
@@ -175,34 +218,26 @@ public class CashierController {
             return;
         }
 
-        Optional<ProductDTO> productOpt = productRepository.getProductByBarcode(barcode).map(product -> new ProductDTO(product.getBarcode(), product.getName(), product.getPrice(), product.getCategoryId()));
-
-        if (productOpt.isPresent()) {
-            ProductDTO product = productOpt.get();
-            boolean itemExists = false;
-
-            // Check if item is already in the cart and update quantity
-            for (CartItemDTO item : cartItemList) {
-                if (item.getProductName().equals(product.getName())) {
-                    itemExists = true;
-                    cartItemList.set(cartItemList.indexOf(item),
-                            new CartItemDTO(item.getProductName(), item.getQuantity() + 1,
-                                    item.getTotalPrice().add(product.getPrice())));
-                    break;
-                }
-            }
-
-            // If item does not exist in the cart, add it as a new item
-            if (!itemExists) {
-                cartItemList.add(new CartItemDTO(product.getName(), 1, product.getPrice()));
-            }
-
-            cartTableView.refresh();
-            barcodeField.clear();
-            calculateTotalAmount();
+        barcodeField.clear();
+        CompletableFuture.runAsync(() -> cartFacade.addProductToCart(barcode, 1), cartQueue)
+                .exceptionallyAsync(error -> {
+                    handleScanFailure(barcode, BackgroundExecutor.unwrap(error));
+                    return null;
+                }, BackgroundExecutor.fxThread());
+    }
 
-        } else {
+    /**
+     * Reports a scan that could not be added to the cart.
+     *
+     * @param barcode The scanned barcode.
+     * @param error   The exception thrown while adding the product.
+     */
+    private void handleScanFailure(String barcode, Throwable error) {
+        if (error instanceof ProductNotFoundException) {
             showAlert(Alert.AlertType.ERROR, "Error", "Product not found.");
+        } else {
+            error.printStackTrace();
+            showAlert(Alert.AlertType.ERROR, "Error", "Failed to add product " + barcode + " to the cart.");
         }
     }
 
@@ -221,18 +256,17 @@ public class CashierController {
         }
 
         try {
-            // Load the FXML file for the edit user view
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/retailtech/quickcasheasy/user/edit_user_view.fxml"));
-            Parent root = loader.load();
+            // Get the edit user view, loaded once and reset for each use
+            ViewRegistry.View view = ViewRegistry.getInstance().get(ViewRegistry.EDIT_USER);
 
-            // Get the controller from the FXML loader and set the logged-in user
-            EditUserController controller = loader.getController();
+            // Get the controller of the view and set the logged-in user
+            EditUserController controller = view.getController();
             controller.setUser(loggedInUser);
 
             // Create a new stage for the edit user window
             Stage stage = new Stage();
             stage.setTitle("Update Account");
-            stage.setScene(new Scene(root));
+            stage.setScene(view.getScene());
             stage.showAndWait();
 
             // Check if changes were saved in the EditUserController
@@ -256,11 +290,10 @@ public class CashierController {
     @FXML
     private void handleLogout(ActionEvent actionEvent) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/retailtech/quickcasheasy/home/home_view.fxml"));
-            Parent root = loader.load();
+            Scene home = ViewRegistry.getInstance().get(ViewRegistry.HOME).getScene();
 
             Stage stage = (Stage) cartTableView.getScene().getWindow();
-            stage.setScene(new Scene(root));
+            stage.setScene(home);
             stage.show();
         } catch (IOException e) {
             showAlert(Alert.AlertType.ERROR, "Error", "Unable to log out.");
@@ -269,14 +302,14 @@ public class CashierController {
     }
 
     /**
-     * Clears the cart and updates the UI.
+     * Clears the cart on the cart queue; the UI is updated from the cart's change events.
      */
     public void clearCart() {
         System.out.println("Clearing the cart...");
-        cartItemList.clear();
-        cartTableView.refresh();
-        calculateTotalAmount();
-        System.out.println("Cart cleared successfully.");
+        cartQueue.execute(() -> {
+            cartFacade.clearCart();
+            System.out.println("Cart cleared successfully.");
+        });
     }
 
 
@@ -1,54 +1,56 @@
 package com.retailtech.quickcasheasy.user;
 
-import com.retailtech.quickcasheasy.cart.dto.CartItemDTO;
-import com.retailtech.quickcasheasy.product.ProductRepositoryImpl;
-import com.retailtech.quickcasheasy.product.dto.ProductDTO;
+import com.retailtech.quickcasheasy.ApplicationContext;
+import com.retailtech.quickcasheasy.ViewRegistry;
+import com.retailtech.quickcasheasy.money.Money;
+import com.retailtech.quickcasheasy.cart.CartFacade;
+import com.retailtech.quickcasheasy.cart.CartListener;
+import com.retailtech.quickcasheasy.concurrent.BackgroundExecutor;
+import com.retailtech.quickcasheasy.concurrent.SerialExecutor;
+import com.retailtech.quickcasheasy.exception.ProductNotFoundException;
 import com.retailtech.quickcasheasy.user.dto.UserDTO;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller class for handling customer-related operations in the JavaFX application.
  * Manages viewing cart items, scanning products, updating account information, and logging out.
  */
-public class CustomerController {
+public class CustomerController implements ViewRegistry.Resettable {
 
     // FXML-injected UI components for cart management
     @FXML
-    private TableView<CartItemDTO> cartTableView;
+    private TableView<CartLineRow> cartTableView;
 
     @FXML
-    private TableColumn<CartItemDTO, String> productNameColumn;
+    private TableColumn<CartLineRow, String> productNameColumn;
 
     @FXML
-    private TableColumn<CartItemDTO, Integer> quantityColumn;
+    private TableColumn<CartLineRow, Number> quantityColumn;
 
     @FXML
-    private TableColumn<CartItemDTO, BigDecimal> totalPriceColumn;
+    private TableColumn<CartLineRow, Number> totalPriceColumn;
 
     @FXML
     private TextField barcodeField;
 
-    // Observable list for table data binding
-    private ObservableList<CartItemDTO> cartItemList;
+    // Table rows, updated from the cart's change events
+    private final CartTableModel cartTableModel = new CartTableModel();
 
     // Currently logged-in user
     private UserDTO loggedInUser;
 
-    // Product repository for handling product-related operations
-    private ProductRepositoryImpl productRepository;
+    // Cart of this screen; all cart arithmetic happens here. Only used on the cart queue
+    private CartFacade cartFacade;
+
+    // Runs cart changes off the FX thread, one at a time and in scan order
+    private final SerialExecutor cartQueue = BackgroundExecutor.newSerialExecutor();
 
     /**
      * Initializes the controller class. This method is automatically called
@@ -56,16 +58,26 @@ public class CustomerController {
      */
     @FXML
     public void initialize() {
-        // Initialize the observable list
-        this.cartItemList = FXCollections.observableArrayList();
-
-        // Initialize the product repository
-        this.productRepository = new ProductRepositoryImpl();
+        // Products are read through the shared catalog cache so repeat scans do not hit the database.
+        // The cart is created on the cart queue once the shared facades are built, so scans made before wait for it.
+        cartQueue.execute(() -> {
+            CartFacade cart = new CartFacade(ApplicationContext.whenReady().join().getProductFacade());
+            // Cart changes happen on the cart queue; the table is updated on the FX thread
+            cart.addListener(CartListener.dispatchingTo(BackgroundExecutor.fxThread(), cartTableModel));
+            cartFacade = cart;
+        });
 
         // Configure the TableView columns
-        productNameColumn.setCellValueFactory(new PropertyValueFactory<>("productName"));
-        quantityColumn.setCellValueFactory(new PropertyValueFactory<>("quantity"));
-        totalPriceColumn.setCellValueFactory(new PropertyValueFactory<>("totalPrice"));
+        productNameColumn.setCellValueFactory(cellData -> cellData.getValue().productNameProperty());
+        quantityColumn.setCellValueFactory(cellData -> cellData.getValue().quantityProperty());
+        totalPriceColumn.setCellValueFactory(cellData -> cellData.getValue().totalPriceMinorUnitsProperty());
+        totalPriceColumn.setCellFactory(column -> new TableCell<CartLineRow, Number>() {
+            @Override
+            protected void updateItem(Number item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : Money.format(item.longValue()));
+            }
+        });
 
         // Load cart items into the table
         loadCartItems();
@@ -75,6 +87,16 @@ public class CustomerController {
 
     }
 
+    /**
+     * Empties the cart and the barcode field when the screen is shown again for the next login.
+     */
+    @Override
+    public void reset() {
+        loggedInUser = null;
+        barcodeField.clear();
+        cartQueue.execute(() -> cartFacade.clearCart());
+    }
+
     /**
      * Handles viewing cart items for the logged-in customer.
      */
@@ -91,7 +113,7 @@ public class CustomerController {
             // Here we should load cart items for the logged-in user
             // Placeholder implementation as the actual cart retrieval logic is not provided
             // cartItemList.setAll(cartService.getCartItemsByUser(loggedInUser.getId()));
-            cartTableView.setItems(cartItemList);
+            cartTableView.setItems(cartTableModel.getRows());
         } catch (Exception e) {
             showAlert(Alert.AlertType.ERROR, "Error", "Failed to load cart items.");
         }
@@ -99,6 +121,8 @@ public class CustomerController {
 
     /**
      * Handles adding a product to the cart by scanning the barcode.
+     * The field is cleared straight away so the next scan can be typed while the product is looked up;
+     * the table is updated from the cart's change events.
      */
     @FXML
     private void handleAddToCart(ActionEvent actionEvent) {
@@ -109,33 +133,26 @@ public class CustomerController {
             return;
         }
 
-        Optional<ProductDTO> productOpt = productRepository.getProductByBarcode(barcode).map(product -> new ProductDTO(product.getBarcode(), product.getName(), product.getPrice(), product.getCategoryId()));
-
-        if (productOpt.isPresent()) {
-            ProductDTO product = productOpt.get();
-            boolean itemExists = false;
-
-            // Check if item is already in the cart and update quantity
-            for (CartItemDTO item : cartItemList) {
-                if (item.getProductName().equals(product.getName())) {
-                    itemExists = true;
-                    cartItemList.set(cartItemList.indexOf(item),
-                            new CartItemDTO(item.getProductName(), item.getQuantity() + 1,
-                                    item.getTotalPrice().add(product.getPrice())));
-                    break;
-                }
-            }
-
-            // If item does not exist in the cart, add it as a new item
-            if (!itemExists) {
-                cartItemList.add(new CartItemDTO(product.getName(), 1, product.getPrice()));
-            }
-
-            cartTableView.refresh();
-            barcodeField.clear();
+        barcodeField.clear();
+        CompletableFuture.runAsync(() -> cartFacade.addProductToCart(barcode, 1), cartQueue)
+                .exceptionallyAsync(error -> {
+                    handleScanFailure(barcode, BackgroundExecutor.unwrap(error));
+                    return null;
+                }, BackgroundExecutor.fxThread());
+    }
 
-        } else {
+    /**
+     * Reports a scan that could not be added to the cart.
+     *
+     * @param barcode The scanned barcode.
+     * @param error   The exception thrown while adding the product.
+     */
+    private void handleScanFailure(String barcode, Throwable error) {
+        if (error instanceof ProductNotFoundException) {
             showAlert(Alert.AlertType.ERROR, "Error", "Product not found.");
+        } else {
+            error.printStackTrace();
+            showAlert(Alert.AlertType.ERROR, "Error", "Failed to add product " + barcode + " to the cart.");
         }
     }
 
@@ -145,11 +162,10 @@ public class CustomerController {
     @FXML
     private void handleLogout(ActionEvent actionEvent) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/retailtech/quickcasheasy/home/home_view.fxml"));
-            Parent root = loader.load();
+            Scene home = ViewRegistry.getInstance().get(ViewRegistry.HOME).getScene();
 
             Stage stage = (Stage) cartTableView.getScene().getWindow();
-            stage.setScene(new Scene(root));
+            stage.setScene(home);
             stage.show();
         } catch (IOException e) {
             showAlert(Alert.AlertType.ERROR, "Error", "Unable to log out.");
@@ -1,5 +1,6 @@
 package com.retailtech.quickcasheasy.user;
 
+import com.retailtech.quickcasheasy.ViewRegistry;
 import com.retailtech.quickcasheasy.user.dto.UserDTO;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -8,7 +9,7 @@ import javafx.stage.Stage;
 /**
  * Controller for the edit user dialog window.
  */
-public class EditUserController {
+public class EditUserController implements ViewRegistry.Resettable {
 
     @FXML
     private TextField usernameField;
@@ -20,6 +21,16 @@ public class EditUserController {
     private UserDTO user;
     private boolean isSaved = false;
 
+    /**
+     * Forgets the previous edit before the dialog is opened for another user.
+     */
+    @Override
+    public void reset() {
+        user = null;
+        isSaved = false;
+        passwordField.clear();
+    }
+
     /**
      * Initialize the fields with the selected user's information.
      */
@@ -53,9 +64,11 @@ public class EditUserController {
             return;
         }
 
-        // Update the user object with new values
+        // Update the user object with new values; an empty password field keeps the current password
         user.setUserName(usernameField.getText());
-        user.setPassword(passwordField.getText());
+        if (!passwordField.getText().isEmpty()) {
+            user.setPassword(passwordField.getText());
+        }
         user.setRole(UserRole.valueOf(roleComboBox.getValue()));
 
         // Indicate that the user has saved the changes
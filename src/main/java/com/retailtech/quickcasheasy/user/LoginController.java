@@ -1,11 +1,10 @@
 package com.retailtech.quickcasheasy.user;
 
-import com.retailtech.quickcasheasy.database.DatabaseConnectionManager;
-import com.retailtech.quickcasheasy.user.dto.UserDTO;
+import com.retailtech.quickcasheasy.ApplicationContext;
+import com.retailtech.quickcasheasy.ViewRegistry;
+import com.retailtech.quickcasheasy.concurrent.BackgroundExecutor;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.PasswordField;
@@ -14,15 +13,11 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 
 /**
  * Controller class for handling user login in the QuickCashEasy application.
  */
-public class LoginController {
+public class LoginController implements ViewRegistry.Resettable {
 
     // FXML-injected UI components for login
     @FXML
@@ -31,9 +26,6 @@ public class LoginController {
     @FXML
     private PasswordField loginPasswordField;
 
-    // Facade for user-related business logic
-    private UserFacade userFacade;
-
     /**
      * Default constructor for LoginController.
      */
@@ -41,18 +33,17 @@ public class LoginController {
     }
 
     /**
-     * Initializes the controller class. This method is automatically called
-     * after the FXML file has been loaded.
+     * Clears the login form when the login screen is shown again after a logout.
      */
-    @FXML
-    public void initialize() {
-        // Initialize UserFacade with required dependencies
-        this.userFacade = new UserFacade(new UserService(new UserRepositoryImpl()));
+    @Override
+    public void reset() {
+        loginUsernameField.clear();
+        loginPasswordField.clear();
     }
 
     /**
      * Handles user login.
-     * Validates the input fields and calls the userFacade to authenticate the user.
+     * Validates the input fields and authenticates the user off the FX thread.
      * If successful, navigates to the appropriate user view based on the role.
      */
     @FXML
@@ -66,60 +57,50 @@ public class LoginController {
             return;
         }
 
-        // Authenticate user using database connection
-        try (Connection connection = DatabaseConnectionManager.getConnection();
-             PreparedStatement pstmt = connection.prepareStatement("SELECT * FROM users WHERE username = ? AND password = ?")) {
-            pstmt.setString(1, username);
-            pstmt.setString(2, password);
-
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                String role = rs.getString("role");
-                UserDTO loggedInUser = new UserDTO(username, role);
-                showAlert(Alert.AlertType.INFORMATION, "Success", "Logged in successfully.");
-                loginUsernameField.clear();
-                loginPasswordField.clear();
-
-                // Navigate to a different view based on the role
-                switchToPostLoginView(loggedInUser);
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Login Failed", "Invalid login credentials.");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showAlert(Alert.AlertType.ERROR, "Error", "An error occurred while connecting to the database.");
-        }
+        // One lookup returns the user with its role; repeat logins are served from the user cache.
+        // The password hash is checked off the FX thread.
+        // The first login waits for the shared UserFacade, built after the schema migrations started at boot.
+        ApplicationContext.whenReady()
+                .thenCompose(context -> context.getUserFacade().authenticateAsync(username, password))
+                .whenCompleteAsync((user, error) -> {
+                    if (error != null) {
+                        BackgroundExecutor.unwrap(error).printStackTrace();
+                        showAlert(Alert.AlertType.ERROR, "Error", "An error occurred while connecting to the database.");
+                    } else if (user.isPresent()) {
+                        showAlert(Alert.AlertType.INFORMATION, "Success", "Logged in successfully.");
+                        loginUsernameField.clear();
+                        loginPasswordField.clear();
+
+                        // Navigate to a different view based on the role
+                        showPostLoginView(user.get().getRole());
+                    } else {
+                        showAlert(Alert.AlertType.ERROR, "Login Failed", "Invalid login credentials.");
+                    }
+                }, BackgroundExecutor.fxThread());
     }
 
     /**
-     * Switches to the appropriate view based on the user's role.
+     * Loads the view for the given role into the login window.
      *
-     * @param user The logged-in user whose role determines the view to load.
+     * @param role The user's role.
      */
-    private void switchToPostLoginView(UserDTO user) {
-        try (Connection connection = DatabaseConnectionManager.getConnection();
-             PreparedStatement pstmt = connection.prepareStatement("SELECT role FROM users WHERE username = ?")) {
-            pstmt.setString(1, user.getUserName());
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                String role = rs.getString("role");
-                FXMLLoader loader;
-                if (role.equals("ADMIN")) {
-                    loader = new FXMLLoader(getClass().getResource("/com/retailtech/quickcasheasy/user/admin_view.fxml"));
-                } else if (role.equals("CASHIER")) {
-                    loader = new FXMLLoader(getClass().getResource("/com/retailtech/quickcasheasy/user/cashier_view.fxml"));
-                } else {
-                    loader = new FXMLLoader(getClass().getResource("/com/retailtech/quickcasheasy/user/customer_view.fxml"));
-                }
-
-                Parent root = loader.load();
-                Stage stage = (Stage) loginUsernameField.getScene().getWindow();
-                stage.setScene(new Scene(root));
-                stage.show();
+    private void showPostLoginView(UserRole role) {
+        try {
+            String view;
+            if (role == UserRole.ADMIN) {
+                view = ViewRegistry.ADMIN;
+            } else if (role == UserRole.CASHIER) {
+                view = ViewRegistry.CASHIER;
             } else {
-                showAlert(Alert.AlertType.ERROR, "Error", "User role not found.");
+                view = ViewRegistry.CUSTOMER;
             }
-        } catch (SQLException | IOException e) {
+
+            // Preloaded at startup; a screen used before is reset and shown again
+            Scene scene = ViewRegistry.getInstance().get(view).getScene();
+            Stage stage = (Stage) loginUsernameField.getScene().getWindow();
+            stage.setScene(scene);
+            stage.show();
+        } catch (IOException e) {
             e.printStackTrace();
             showAlert(Alert.AlertType.ERROR, "Error", "Failed to load the user dashboard.");
         }
@@ -0,0 +1,44 @@
+package com.retailtech.quickcasheasy.user;
+
+/**
+ * Turns passwords into the form stored in the users table and checks a login attempt against it.
+ * Implementations are slow on purpose; call them off the FX thread.
+ */
+interface PasswordHasher {
+
+    /**
+     * Hashes a password with a fresh random salt.
+     *
+     * @param password the password typed by the user
+     * @return the encoded hash, including everything needed to verify it later
+     */
+    String hash(String password);
+
+    /**
+     * Checks a password against a stored value.
+     * Stored values that are not hashes are treated as legacy plaintext passwords.
+     *
+     * @param password the password typed by the user
+     * @param stored   the value from the users table
+     * @return true if the password matches
+     */
+    boolean verify(String password, String stored);
+
+    /**
+     * Tells whether a stored value was produced by this hasher.
+     *
+     * @param stored the value from the users table
+     * @return true if the value is an encoded hash
+     */
+    boolean isHash(String stored);
+
+    /**
+     * Tells whether a stored value should be replaced after the next successful login,
+     * because it is still plaintext or was hashed with less than the minimum cost.
+     * The minimum must not change between runs, or every row would be hashed again after each restart.
+     *
+     * @param stored the value from the users table
+     * @return true if the password should be hashed again
+     */
+    boolean needsRehash(String stored);
+}
@@ -0,0 +1,186 @@
+package com.retailtech.quickcasheasy.user;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * PBKDF2-HMAC-SHA256 password hasher from the JDK.
+ * Hashes are stored as {@code pbkdf2-sha256$<iterations>$<salt>$<hash>}, so the cost can be raised later without
+ * breaking existing rows: a row hashed with fewer than the minimum iterations is hashed again on the next successful
+ * login.
+ * <p>
+ * The shared instance picks its iteration count at startup by timing a probe hash on this machine, so that one login
+ * costs about {@code qce.password.targetMs} milliseconds; {@code -Dqce.password.iterations=...} fixes the count instead.
+ * The calibrated count varies from run to run, so rows are only rehashed below {@link #MIN_CALIBRATED_ITERATIONS};
+ * with a fixed count, rows below that count are rehashed.
+ */
+final class Pbkdf2PasswordHasher implements PasswordHasher {
+
+    static final String PREFIX = "pbkdf2-sha256$";
+    static final String ITERATIONS_PROPERTY = "qce.password.iterations";
+    static final String TARGET_MS_PROPERTY = "qce.password.targetMs";
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final long DEFAULT_TARGET_MS = 100;
+    // Calibration never goes below this, however slow the till is
+    static final int MIN_CALIBRATED_ITERATIONS = 100_000;
+    private static final int MAX_CALIBRATED_ITERATIONS = 2_000_000;
+    private static final int PROBE_ITERATIONS = 20_000;
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static volatile Pbkdf2PasswordHasher sharedInstance;
+
+    private final int iterations;
+    private final int minIterations;    // Stored hashes with fewer iterations are replaced on login
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Creates a hasher with a fixed iteration count, rehashing stored hashes below that count.
+     *
+     * @param iterations the PBKDF2 iteration count used for new hashes
+     */
+    Pbkdf2PasswordHasher(int iterations) {
+        this(iterations, iterations);
+    }
+
+    /**
+     * Creates a hasher that rehashes stored hashes only below a separate minimum.
+     *
+     * @param iterations    the PBKDF2 iteration count used for new hashes
+     * @param minIterations stored hashes with fewer iterations are replaced on the next successful login
+     */
+    Pbkdf2PasswordHasher(int iterations, int minIterations) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("Iterations must be positive: " + iterations);
+        }
+        if (minIterations > iterations) {
+            throw new IllegalArgumentException("Minimum iterations " + minIterations + " exceed iterations " + iterations);
+        }
+        this.iterations = iterations;
+        this.minIterations = minIterations;
+    }
+
+    /**
+     * Returns the hasher shared by the application, calibrating it on first use. Calibration takes a few hundred
+     * milliseconds, so the first call must not happen on the FX thread.
+     *
+     * @return the shared hasher
+     */
+    static Pbkdf2PasswordHasher getInstance() {
+        Pbkdf2PasswordHasher instance = sharedInstance;
+        if (instance == null) {
+            synchronized (Pbkdf2PasswordHasher.class) {
+                instance = sharedInstance;
+                if (instance == null) {
+                    Integer fixed = Integer.getInteger(ITERATIONS_PROPERTY);
+                    instance = fixed != null
+                            ? new Pbkdf2PasswordHasher(fixed)
+                            : new Pbkdf2PasswordHasher(calibrate(Long.getLong(TARGET_MS_PROPERTY, DEFAULT_TARGET_MS)),
+                                    MIN_CALIBRATED_ITERATIONS);
+                    sharedInstance = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Works out how many iterations one hash can afford on this machine within the target time.
+     *
+     * @param targetMs the wanted time for one hash, in milliseconds
+     * @return the iteration count, rounded to a thousand and kept between the calibration bounds
+     */
+    static int calibrate(long targetMs) {
+        long start = System.nanoTime();
+        byte[] salt = new byte[SALT_BYTES];
+        long best = Long.MAX_VALUE;
+        // The first probe also pays for class loading and JIT, so the fastest of three is used
+        for (int i = 0; i < 3; i++) {
+            long probeStart = System.nanoTime();
+            derive("calibration".toCharArray(), salt, PROBE_ITERATIONS);
+            best = Math.min(best, System.nanoTime() - probeStart);
+        }
+        double perIteration = (double) Math.max(best, 1) / PROBE_ITERATIONS;
+        long wanted = (long) (targetMs * 1_000_000L / perIteration);
+        int iterations = (int) Math.min(MAX_CALIBRATED_ITERATIONS,
+                Math.max(MIN_CALIBRATED_ITERATIONS, wanted / 1000 * 1000));
+        System.out.println("Password hashing calibrated to " + iterations + " PBKDF2 iterations (target " + targetMs
+                + " ms) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return iterations;
+    }
+
+    int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = derive(password.toCharArray(), salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    @Override
+    public boolean verify(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        if (!isHash(stored)) {
+            // Legacy row written before passwords were hashed
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[0]);
+            byte[] salt = Base64.getDecoder().decode(parts[1]);
+            byte[] expected = Base64.getDecoder().decode(parts[2]);
+            if (storedIterations <= 0) {
+                return false;
+            }
+            return MessageDigest.isEqual(expected, derive(password.toCharArray(), salt, storedIterations));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Malformed password hash in the users table");
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isHash(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    @Override
+    public boolean needsRehash(String stored) {
+        if (!isHash(stored)) {
+            return true;
+        }
+        int end = stored.indexOf('$', PREFIX.length());
+        try {
+            return end < 0 || Integer.parseInt(stored.substring(PREFIX.length(), end)) < minIterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static byte[] derive(char[] password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("PBKDF2 is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
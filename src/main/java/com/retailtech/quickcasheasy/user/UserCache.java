@@ -0,0 +1,166 @@
+package com.retailtech.quickcasheasy.user;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded cache of users keyed by username, whose entries expire after a fixed time to live.
+ * The expiry bounds how long a change made outside this application (for example on another lane) can go unseen.
+ * Users are mutable, so copies are stored and handed out.
+ * <p>
+ * Every invalidation is stamped with a generation number. A user loaded from the database is only cached if neither
+ * its username nor its ID was invalidated after the load started, so a load racing with a write cannot put the old
+ * row back into the cache.
+ */
+class UserCache {
+
+    /**
+     * A cached user and the time it stops being valid.
+     */
+    private static final class Entry {
+        private final User user;
+        private final long expiresAtNanos;
+
+        private Entry(User user, long expiresAtNanos) {
+            this.user = user;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, Entry> entries;   // Access-ordered, guarded by this
+    private final Map<Object, Long> invalidatedAt;   // Latest invalidation per username and per ID, guarded by this
+    private long generation;                    // Bumped on every invalidation, guarded by this
+    private long forgottenAt;                   // Latest generation dropped from invalidatedAt, guarded by this
+
+    /**
+     * Creates a cache holding at most the given number of users for the given time.
+     *
+     * @param maxSize the maximum number of cached users
+     * @param ttlMs   how long a user stays cached, in milliseconds
+     */
+    UserCache(int maxSize, long ttlMs) {
+        this(maxSize, ttlMs, System::nanoTime);
+    }
+
+    UserCache(int maxSize, long ttlMs, LongSupplier nanoClock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        if (ttlMs < 1) {
+            throw new IllegalArgumentException("Time to live must be at least 1 ms");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > UserCache.this.maxSize;
+            }
+        };
+        // Oldest invalidation first; once one is dropped, loads started before it are not cached at all
+        this.invalidatedAt = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Long> eldest) {
+                if (size() > 2 * UserCache.this.maxSize) {
+                    forgottenAt = Math.max(forgottenAt, eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Looks up a user; an expired entry is dropped.
+     *
+     * @param username the username
+     * @return a copy of the cached user, or null if it is not cached or expired
+     */
+    synchronized User get(String username) {
+        Entry entry = entries.get(username);
+        if (entry == null) {
+            return null;
+        }
+        if (nanoClock.getAsLong() - entry.expiresAtNanos >= 0) {
+            entries.remove(username);
+            return null;
+        }
+        return copy(entry.user);
+    }
+
+    /**
+     * Returns the current generation; read it before loading a user and pass it to {@link #put(User, long)}.
+     *
+     * @return the number of invalidations so far
+     */
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Caches a user loaded from the database, unless its username or ID was invalidated after the load started.
+     *
+     * @param user          the loaded user
+     * @param loadStartedAt the {@link #generation()} read before the load
+     * @return true if the user was cached
+     */
+    synchronized boolean put(User user, long loadStartedAt) {
+        if (invalidatedSince(user.getUserName(), loadStartedAt) || invalidatedSince(user.getId(), loadStartedAt)) {
+            return false;
+        }
+        entries.put(user.getUserName(), new Entry(copy(user), nanoClock.getAsLong() + ttlNanos));
+        return true;
+    }
+
+    /**
+     * Drops a user by username and, if it has an ID, any entry with the same ID, so a renamed user is not found under
+     * the old name.
+     *
+     * @param username the username
+     * @param id       the user ID, or null
+     */
+    synchronized void invalidate(String username, Long id) {
+        generation++;
+        if (username != null) {
+            entries.remove(username);
+            stamp(username);
+        }
+        if (id != null) {
+            entries.values().removeIf(entry -> id.equals(entry.user.getId()));
+            stamp(id);
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        invalidatedAt.clear();
+        forgottenAt = ++generation;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private void stamp(Object key) {
+        invalidatedAt.remove(key);   // Re-insert, so the map stays ordered by generation
+        invalidatedAt.put(key, generation);
+    }
+
+    private boolean invalidatedSince(Object key, long loadStartedAt) {
+        if (forgottenAt > loadStartedAt) {
+            return true;
+        }
+        Long at = key != null ? invalidatedAt.get(key) : null;
+        return at != null && at > loadStartedAt;
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getUserName(), user.getPassword(), user.getRole());
+    }
+}
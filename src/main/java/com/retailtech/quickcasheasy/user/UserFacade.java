@@ -1,9 +1,13 @@
 package com.retailtech.quickcasheasy.user;
 
+import com.retailtech.quickcasheasy.concurrent.BackgroundExecutor;
 import com.retailtech.quickcasheasy.user.dto.UserDTO;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Facade for user-related operations.
@@ -20,6 +24,15 @@ public class UserFacade {
         this.userService = userService;
     }
 
+    /**
+     * Creates a user facade backed by the users table, with the shared user cache in front of it.
+     *
+     * @return a new user facade
+     */
+    public static UserFacade createDefault() {
+        return new UserFacade(new UserService(CachingUserRepository.getInstance()));
+    }
+
     /**
      * Registers a new user.
      *
@@ -43,6 +56,28 @@ public class UserFacade {
         return mapToDTO(user);
     }
 
+    /**
+     * Registers many users at once, for example when onboarding new staff.
+     * The users are saved in one batch; a user whose username already exists is updated.
+     *
+     * @param users the users to register; their IDs are ignored
+     * @return the number of users saved
+     */
+    public int registerUsers(List<UserDTO> users) {
+        if (users == null) {
+            throw new IllegalArgumentException("Users cannot be null");
+        }
+        List<User> newUsers = users.stream()
+                .map(user -> {
+                    if (user.getUserName() == null || user.getPassword() == null || user.getRole() == null) {
+                        throw new IllegalArgumentException("Username, password and role cannot be null");
+                    }
+                    return new User(null, user.getUserName(), user.getPassword(), user.getRole());
+                })
+                .collect(Collectors.toList());
+        return userService.registerUsers(newUsers);
+    }
+
     /**
      * Authenticates a user by username and password.
      *
@@ -54,6 +89,29 @@ public class UserFacade {
         return userService.authenticateUser(username, password);
     }
 
+    /**
+     * Authenticates a user by username and password with a single lookup.
+     *
+     * @param username the username of the user
+     * @param password the password of the user
+     * @return the user, including its role, if the credentials match, or empty otherwise
+     */
+    public Optional<UserDTO> authenticate(String username, String password) {
+        return userService.authenticate(username, password).map(this::mapToDTO);
+    }
+
+    /**
+     * Authenticates a user on a background thread. Password hashing is slow on purpose, so screens use this
+     * instead of {@link #authenticate(String, String)} to keep the FX thread free.
+     *
+     * @param username the username of the user
+     * @param password the password of the user
+     * @return a future completed with the user if the credentials match, or empty otherwise
+     */
+    public CompletableFuture<Optional<UserDTO>> authenticateAsync(String username, String password) {
+        return BackgroundExecutor.call(() -> authenticate(username, password));
+    }
+
     /**
      * Retrieves a user by username.
      *
@@ -85,6 +143,16 @@ public class UserFacade {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Streams all users in constant memory, for exports.
+     * The stream holds a database connection until it is closed; use it in a try-with-resources block.
+     *
+     * @return a stream of UserDTOs
+     */
+    public Stream<UserDTO> streamAllUsers() {
+        return userService.streamAllUsers().map(this::mapToDTO);
+    }
+
     /**
      * Converts a User entity to a UserDTO.
      *
@@ -108,6 +176,7 @@ public class UserFacade {
      * @param password the new password
      * @param role     the new role
      * @throws IllegalArgumentException if any parameter is null or invalid
+     * @throws com.retailtech.quickcasheasy.exception.UserNotFoundException if no user has the given ID
      */
     public void updateUser(Long id, String username, String password, UserRole role) {
         if (id == null) {
@@ -123,19 +192,8 @@ public class UserFacade {
             throw new IllegalArgumentException("User role cannot be null");
         }
 
-        // Find the existing user by ID
-        User user = userService.getUserByUsername(username);
-        if (user == null) {
-            throw new IllegalArgumentException("User not found for ID: " + id);
-        }
-
-        // Update the user details
-        user.setUserName(username);
-        user.setPassword(password);
-        user.setRole(role);
-
-        // Save the updated user
-        userService.updateUser(user);
+        // Update by ID in one statement; an unknown ID throws UserNotFoundException
+        userService.updateUser(new User(id, username, password, role));
     }
 
 }
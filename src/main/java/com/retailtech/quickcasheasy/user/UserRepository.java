@@ -1,7 +1,9 @@
 package com.retailtech.quickcasheasy.user;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository {
     /**
@@ -11,6 +13,32 @@ public interface UserRepository {
      */
     void saveUser(User user);
 
+    /**
+     * Save many users at once, for example when onboarding new staff.
+     *
+     * @param users the users to save
+     * @return the number of users saved
+     */
+    int saveUsers(Collection<User> users);
+
+    /**
+     * Update the user with the ID of the given user.
+     *
+     * @param user the user with updated details
+     * @return true if the user was updated, false if no user has that ID
+     */
+    boolean updateUser(User user);
+
+    /**
+     * Replace a user's password only if it still has the expected value, leaving the other columns alone.
+     *
+     * @param id               the ID of the user
+     * @param expectedPassword the stored value the new one replaces
+     * @param newPassword      the value to store
+     * @return true if the password was replaced, false if the user is gone or its password has changed since
+     */
+    boolean updatePassword(Long id, String expectedPassword, String newPassword);
+
     /**
      * Retrieve a user by username.
      *
@@ -33,6 +61,13 @@ public interface UserRepository {
      */
     List<User> getAllUsers();
 
+    /**
+     * Stream all users from an open cursor. Close the stream to release its database connection.
+     *
+     * @return the users
+     */
+    Stream<User> streamAllUsers();
+
     public Optional<User> getUserById(Long id);
 
 }
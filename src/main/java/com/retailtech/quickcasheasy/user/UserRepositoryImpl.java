@@ -1,64 +1,161 @@
 package com.retailtech.quickcasheasy.user;
 
 import com.retailtech.quickcasheasy.database.DatabaseConnectionManager;
+import com.retailtech.quickcasheasy.database.DatabaseUtils;
+import com.retailtech.quickcasheasy.database.RowMapper;
+import com.retailtech.quickcasheasy.database.SqlDialect;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Implementation of UserRepository using a database connection.
  */
 public class UserRepositoryImpl implements UserRepository {
 
+    // Column list and index-based mapping for user rows
+    private static final RowMapper<User> USER_MAPPER = RowMapper.of(
+            (rs, col) -> new User(rs.getLong(col[0]), rs.getString(col[1]), rs.getString(col[2]), UserRole.valueOf(rs.getString(col[3]))),
+            "id", "username", "password", "role");
+    private static final String SELECT_BY_USERNAME_SQL = USER_MAPPER.selectFrom("users") + " WHERE username = ?";
+    private static final String SELECT_BY_ID_SQL = USER_MAPPER.selectFrom("users") + " WHERE id = ?";
+    private static final String SELECT_ALL_SQL = USER_MAPPER.selectFrom("users");
+    private static final String UPDATE_BY_ID_SQL = "UPDATE users SET username = ?, password = ?, role = ? WHERE id = ?";
+    private static final String UPDATE_PASSWORD_SQL = "UPDATE users SET password = ? WHERE id = ? AND password = ?";
+
+    private final String upsertSql;   // Single-statement insert-or-update on the unique username
+    private final DatabaseUtils dbUtils = new DatabaseUtils();
+
+    /**
+     * Creates a repository for the database configured in DatabaseConnectionManager.
+     */
+    public UserRepositoryImpl() {
+        this(DatabaseConnectionManager.getDialect());
+    }
+
+    /**
+     * Creates a repository that writes users using the given SQL dialect.
+     *
+     * @param dialect the SQL dialect of the database
+     */
+    public UserRepositoryImpl(SqlDialect dialect) {
+        this.upsertSql = dialect.upsert("users", List.of("username"), List.of("username", "password", "role"));
+    }
+
     /**
-     * Saves a user to the repository.
+     * Saves a user to the repository, inserting it or updating the user with the same username
+     * in a single statement.
      *
      * @param user the user to save
      */
+    @Override
     public void saveUser(User user) {
-        if (user == null) {
-            throw new IllegalArgumentException("User cannot be null");
+        validateUser(user);
+
+        try (Connection connection = DatabaseConnectionManager.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(upsertSql)) {
+            bindUser(pstmt, user);
+            pstmt.executeUpdate();
+            connection.commit();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Error saving user: " + e.getMessage(), e);
         }
-        if (user.getUserName() == null) {
-            throw new IllegalArgumentException("Username cannot be null");
+    }
+
+    /**
+     * Saves many users on one connection in a single JDBC batch and transaction.
+     * Either all users are saved or, if one fails, none are.
+     *
+     * @param users the users to save
+     * @return the number of users saved
+     */
+    @Override
+    public int saveUsers(Collection<User> users) {
+        if (users == null) {
+            throw new IllegalArgumentException("Users cannot be null");
+        }
+        users.forEach(this::validateUser);
+        if (users.isEmpty()) {
+            return 0;
         }
 
-        // Check if user already exists
-        Optional<User> existingUser = getUserByUsername(user.getUserName());
-        if (existingUser.isPresent()) {
-            // If user exists, update their details
-            String updateSql = "UPDATE users SET password = ?, role = ? WHERE username = ?";
-            try (Connection connection = DatabaseConnectionManager.getConnection();
-                 PreparedStatement pstmt = connection.prepareStatement(updateSql)) {
-                pstmt.setString(1, user.getPassword());
-                pstmt.setString(2, user.getRole().name());
-                pstmt.setString(3, user.getUserName());
-                pstmt.executeUpdate();
-                connection.commit();
-            } catch (SQLException e) {
-                e.printStackTrace();
-                throw new RuntimeException("Error updating user: " + e.getMessage(), e);
-            }
-        } else {
-            // If user does not exist, insert a new one
-            String insertSql = "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
-            try (Connection connection = DatabaseConnectionManager.getConnection();
-                 PreparedStatement pstmt = connection.prepareStatement(insertSql)) {
-                pstmt.setString(1, user.getUserName());
-                pstmt.setString(2, user.getPassword());
-                pstmt.setString(3, user.getRole().name());
-                pstmt.executeUpdate();
+        try (Connection connection = DatabaseConnectionManager.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(upsertSql)) {
+            try {
+                for (User user : users) {
+                    bindUser(pstmt, user);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
                 connection.commit();
             } catch (SQLException e) {
-                e.printStackTrace();
-                throw new RuntimeException("Error saving user: " + e.getMessage(), e);
+                connection.rollback();
+                throw e;
             }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Error saving users: " + e.getMessage(), e);
+        }
+        return users.size();
+    }
+
+    /**
+     * Updates the user with the ID of the given user in a single statement.
+     *
+     * @param user the user with updated details
+     * @return true if the user was updated, false if no user has that ID
+     */
+    @Override
+    public boolean updateUser(User user) {
+        validateUser(user);
+        if (user.getId() == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+
+        try (Connection connection = DatabaseConnectionManager.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(UPDATE_BY_ID_SQL)) {
+            pstmt.setString(1, user.getUserName());
+            pstmt.setString(2, user.getPassword());
+            pstmt.setString(3, user.getRole().name());
+            pstmt.setLong(4, user.getId());
+            int updated = pstmt.executeUpdate();
+            connection.commit();
+            return updated > 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Error updating user: " + e.getMessage(), e);
+        }
+    }
+
+    // Compare-and-set on the password column only, so a concurrent role change or password reset is not overwritten
+    @Override
+    public boolean updatePassword(Long id, String expectedPassword, String newPassword) {
+        return dbUtils.executeUpdate(UPDATE_PASSWORD_SQL, newPassword, id, expectedPassword) == 1;
+    }
+
+    private void validateUser(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+        if (user.getUserName() == null) {
+            throw new IllegalArgumentException("Username cannot be null");
         }
+        if (user.getRole() == null) {
+            throw new IllegalArgumentException("User role cannot be null");
+        }
+    }
+
+    private void bindUser(PreparedStatement pstmt, User user) throws SQLException {
+        pstmt.setString(1, user.getUserName());
+        pstmt.setString(2, user.getPassword());
+        pstmt.setString(3, user.getRole().name());
     }
 
 
@@ -100,20 +197,16 @@ public Optional<User> getUserByUsername(String username) {
     if (username == null) {
         return Optional.empty();
     }
-    String sql = "SELECT * FROM users WHERE username = ?";
     try (Connection connection = DatabaseConnectionManager.getConnection();
-         PreparedStatement pstmt = connection.prepareStatement(sql)) {
+         PreparedStatement pstmt = connection.prepareStatement(SELECT_BY_USERNAME_SQL)) {
         pstmt.setString(1, username);
-        ResultSet rs = pstmt.executeQuery();
-        if (rs.next()) {
-            User user = new User(rs.getLong("id"), rs.getString("username"), rs.getString("password"), UserRole.valueOf(rs.getString("role")));
-            return Optional.of(user);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return USER_MAPPER.first(rs);
         }
     } catch (SQLException e) {
         e.printStackTrace();
         throw new RuntimeException("Error retrieving user by username: " + e.getMessage(), e);
     }
-    return Optional.empty();
 }
 
 /**
@@ -145,20 +238,24 @@ public void deleteUserByUsername(String username) {
  */
 @Override
 public List<User> getAllUsers() {
-    List<User> users = new ArrayList<>();
-    String sql = "SELECT * FROM users";
     try (Connection connection = DatabaseConnectionManager.getConnection();
-         PreparedStatement pstmt = connection.prepareStatement(sql);
+         PreparedStatement pstmt = connection.prepareStatement(SELECT_ALL_SQL);
          ResultSet rs = pstmt.executeQuery()) {
-        while (rs.next()) {
-            User user = new User(rs.getLong("id"), rs.getString("username"), rs.getString("password"), UserRole.valueOf(rs.getString("role")));
-            users.add(user);
-        }
+        return USER_MAPPER.list(rs);
     } catch (SQLException e) {
         e.printStackTrace();
         throw new RuntimeException("Error retrieving all users: " + e.getMessage(), e);
     }
-    return users;
+}
+
+/**
+ * Streams all users from an open cursor; close the stream to release the connection.
+ *
+ * @return the users
+ */
+@Override
+public Stream<User> streamAllUsers() {
+    return dbUtils.stream(SELECT_ALL_SQL, USER_MAPPER);
 }
 
 /**
@@ -172,19 +269,15 @@ public Optional<User> getUserById(Long id) {
     if (id == null) {
         return Optional.empty();
     }
-    String sql = "SELECT * FROM users WHERE id = ?";
     try (Connection connection = DatabaseConnectionManager.getConnection();
-         PreparedStatement pstmt = connection.prepareStatement(sql)) {
+         PreparedStatement pstmt = connection.prepareStatement(SELECT_BY_ID_SQL)) {
         pstmt.setLong(1, id);
-        ResultSet rs = pstmt.executeQuery();
-        if (rs.next()) {
-            User user = new User(rs.getLong("id"), rs.getString("username"), rs.getString("password"), UserRole.valueOf(rs.getString("role")));
-            return Optional.of(user);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return USER_MAPPER.first(rs);
         }
     } catch (SQLException e) {
         e.printStackTrace();
         throw new RuntimeException("Error retrieving user by ID: " + e.getMessage(), e);
     }
-    return Optional.empty();
 }
 }
\ No newline at end of file
@@ -2,7 +2,12 @@ package com.retailtech.quickcasheasy.user;
 
 import com.retailtech.quickcasheasy.exception.UserNotFoundException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Internal service handling user business logic.
@@ -11,14 +16,28 @@ import java.util.List;
 class UserService {
 
     private final UserRepository userRepository;
+    // Resolved on first use, so calibrating the default hasher never runs while the facade is built
+    private final Supplier<? extends PasswordHasher> passwordHasher;
+
+    // Hash checked when the username is unknown, so a wrong username costs as much as a wrong password
+    private volatile String unknownUserHash;
 
     // Constructor injecting the repository
     UserService(UserRepository userRepository) {
+        this(userRepository, Pbkdf2PasswordHasher::getInstance);
+    }
+
+    UserService(UserRepository userRepository, PasswordHasher passwordHasher) {
+        this(userRepository, () -> passwordHasher);
+    }
+
+    UserService(UserRepository userRepository, Supplier<? extends PasswordHasher> passwordHasher) {
         this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
     }
 
     /**
-     * Register a new user.
+     * Register a new user. The password is stored hashed.
      *
      * @param username the username of the user
      * @param password the password of the user
@@ -28,7 +47,7 @@ class UserService {
         if (userRepository.getUserById(id).isPresent()) {
             throw new RuntimeException("User with this username already exists!");
         }
-        User newUser = new User(null, username, password, role);
+        User newUser = new User(null, username, hasher().hash(password), role);
         userRepository.saveUser(newUser);
     }
 
@@ -40,9 +59,67 @@ class UserService {
      * @return true if authentication is successful, false otherwise
      */
     boolean authenticateUser(String username, String password) {
-        return userRepository.getUserByUsername(username)
-                .map(user -> user.getPassword().equals(password))
-                .orElse(false);
+        return authenticate(username, password).isPresent();
+    }
+
+    /**
+     * Authenticate a user by username and password with a single lookup, returning the user with its role.
+     * A password still stored in plaintext, or hashed below the hasher's minimum cost, is hashed again
+     * after a successful login. Hashing is slow on purpose; do not call this on the FX thread.
+     *
+     * @param username the username of the user
+     * @param password the password of the user
+     * @return the user if the credentials match, or empty otherwise
+     */
+    Optional<User> authenticate(String username, String password) {
+        Optional<User> found = userRepository.getUserByUsername(username);
+        if (found.isEmpty()) {
+            hasher().verify(password, unknownUserHash());
+            return Optional.empty();
+        }
+        User user = found.get();
+        String stored = user.getPassword();
+        if (!hasher().verify(password, stored)) {
+            return Optional.empty();
+        }
+        if (hasher().needsRehash(stored)) {
+            rehashPassword(user, password);
+        }
+        return found;
+    }
+
+    /**
+     * Stores a fresh hash for a user who has just logged in. Only the password column is written, and only while it
+     * still holds the value the login was checked against, so a role change or password reset made in the meantime
+     * (or a stale cached user) is never overwritten. A failure is logged and does not fail the login; the row is
+     * migrated on a later login instead.
+     *
+     * @param user     the user who logged in
+     * @param password the password the user logged in with
+     */
+    private void rehashPassword(User user, String password) {
+        String stored = user.getPassword();
+        String rehashed = hasher().hash(password);
+        try {
+            if (userRepository.updatePassword(user.getId(), stored, rehashed)) {
+                user.setPassword(rehashed);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Failed to store the new password hash for " + user.getUserName() + ": " + e.getMessage());
+        }
+    }
+
+    private PasswordHasher hasher() {
+        return passwordHasher.get();
+    }
+
+    private String unknownUserHash() {
+        String hash = unknownUserHash;
+        if (hash == null) {
+            hash = hasher().hash("unknown-user");
+            unknownUserHash = hash;
+        }
+        return hash;
     }
 
     /**
@@ -77,19 +154,47 @@ class UserService {
     }
 
     /**
-     * Update an existing user.
+     * Stream all users. The stream holds a database connection until it is closed.
+     *
+     * @return a stream of all Users
+     */
+    Stream<User> streamAllUsers() {
+        return userRepository.streamAllUsers();
+    }
+
+    /**
+     * Update an existing user by ID in a single statement.
      * If the user does not exist, an exception is thrown.
+     * A new password is hashed; a password that is already a hash (the one loaded with the user) is kept.
      *
      * @param user the user object with updated details
      */
     public void updateUser(User user) {
-        // Check if the user exists
-        if (user.getId() == null || userRepository.getUserById(user.getId()).isEmpty()) {
+        if (user.getId() == null) {
             throw new UserNotFoundException("User not found for ID: " + user.getId());
         }
+        if (user.getPassword() != null && !hasher().isHash(user.getPassword())) {
+            user.setPassword(hasher().hash(user.getPassword()));
+        }
 
-        // Save the updated user to the repository
-        userRepository.saveUser(user);
+        // Update the row; no row means the user was not found
+        if (!userRepository.updateUser(user)) {
+            throw new UserNotFoundException("User not found for ID: " + user.getId());
+        }
+    }
+
+    /**
+     * Register many users at once, for example when onboarding new staff. Passwords are stored hashed.
+     * A user whose username already exists is updated.
+     *
+     * @param users the users to register
+     * @return the number of users saved
+     */
+    int registerUsers(Collection<User> users) {
+        List<User> hashed = users.stream()
+                .map(user -> new User(null, user.getUserName(), hasher().hash(user.getPassword()), user.getRole()))
+                .collect(Collectors.toList());
+        return userRepository.saveUsers(hashed);
     }
 
 }
@@ -0,0 +1,11 @@
+-- Indexes for the columns our lookup and reporting queries filter on.
+-- products.barcode, users.username and the payment_journal keys are already indexed by their PRIMARY KEY / UNIQUE constraints.
+
+-- Payments by status: pending card payments for the forwarder, recovery of SENT payments at startup
+CREATE INDEX IF NOT EXISTS idx_payments_status ON payments (status);
+
+-- Products by category: category reports, and the ON DELETE SET NULL lookup when a category is deleted
+CREATE INDEX IF NOT EXISTS idx_products_category_id ON products (category_id);
+
+-- Journal entries by time: reporting on card payments taken in a period
+CREATE INDEX IF NOT EXISTS idx_payment_journal_created_at ON payment_journal (created_at);
@@ -0,0 +1,26 @@
+-- The card number is only needed until the bank has answered; once a payment is SETTLED or FAILED it is cleared.
+-- SQLite cannot drop the NOT NULL constraint on payment_journal.card_number, so the table is rebuilt without it.
+
+CREATE TABLE payment_journal_v3 (
+                          id INTEGER PRIMARY KEY AUTOINCREMENT, -- Unique identifier for each journal entry
+                          payment_id INTEGER NOT NULL UNIQUE,   -- The payment this request belongs to
+                          idempotency_key TEXT NOT NULL UNIQUE, -- Sent with every attempt so the bank charges once
+                          card_number INTEGER,                  -- Card to charge; NULL once the payment has an outcome
+                          amount DECIMAL(10, 2) NOT NULL,       -- Amount to charge
+                          created_at INTEGER NOT NULL,          -- When the payment was taken (epoch milliseconds)
+                          FOREIGN KEY (payment_id) REFERENCES payments(id)
+);
+
+-- Copy the entries, dropping the card number of payments that already have an outcome
+INSERT INTO payment_journal_v3 (id, payment_id, idempotency_key, card_number, amount, created_at)
+SELECT j.id, j.payment_id, j.idempotency_key,
+       CASE WHEN p.status IN ('SETTLED', 'FAILED') THEN NULL ELSE j.card_number END,
+       j.amount, j.created_at
+FROM payment_journal j LEFT JOIN payments p ON p.id = j.payment_id;
+
+DROP TABLE payment_journal;
+
+ALTER TABLE payment_journal_v3 RENAME TO payment_journal;
+
+-- Dropped with the old table
+CREATE INDEX IF NOT EXISTS idx_payment_journal_created_at ON payment_journal (created_at);
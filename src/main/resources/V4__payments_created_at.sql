@@ -0,0 +1,11 @@
+-- When each payment was taken (epoch milliseconds), so reports for a period cover every payment,
+-- not only the card payments that have a journal entry.
+ALTER TABLE payments ADD COLUMN created_at INTEGER;
+
+-- Journaled payments already carry their time; older payments without an entry have no known time and stay NULL
+UPDATE payments
+SET created_at = (SELECT j.created_at FROM payment_journal j WHERE j.payment_id = payments.id)
+WHERE created_at IS NULL;
+
+-- Payments by time: the annual export and other reports for a period
+CREATE INDEX IF NOT EXISTS idx_payments_created_at ON payments (created_at);
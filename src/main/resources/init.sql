@@ -44,3 +44,13 @@ CREATE TABLE IF NOT EXISTS payments (
                           success BOOLEAN NOT NULL              -- Indicates whether the payment was successful
 );
 
+-- Create the 'payment_journal' table: append-only record of card payments to send to the bank
+CREATE TABLE IF NOT EXISTS payment_journal (
+                          id INTEGER PRIMARY KEY AUTOINCREMENT, -- Primary key, also the order payments are sent in
+                          payment_id INTEGER NOT NULL UNIQUE,   -- The payment this request belongs to
+                          idempotency_key TEXT NOT NULL UNIQUE, -- Sent with every attempt so the bank charges once
+                          card_number INTEGER NOT NULL,         -- Card to charge
+                          amount DECIMAL(10, 2) NOT NULL,       -- Amount to charge
+                          created_at INTEGER NOT NULL,          -- When the payment was taken (epoch milliseconds)
+                          FOREIGN KEY (payment_id) REFERENCES payments(id)
+);
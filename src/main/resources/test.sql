@@ -9,7 +9,7 @@ CREATE TABLE IF NOT EXISTS test (
 
 CREATE TABLE users (
                        id INTEGER PRIMARY KEY AUTOINCREMENT,
-                       username TEXT NOT NULL,
+                       username TEXT NOT NULL UNIQUE,
                        password TEXT NOT NULL,
                        role TEXT NOT NULL
 );
@@ -0,0 +1,91 @@
+package com.retailtech.quickcasheasy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BootPipelineTest {
+
+    @Test
+    @DisplayName("Should run independent phases at the same time")
+    void shouldRunPhasesInParallel() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            BootPipeline boot = new BootPipeline(executor);
+            CountDownLatch bothRunning = new CountDownLatch(2);
+            Runnable waitForOther = () -> {
+                bothRunning.countDown();
+                try {
+                    assertTrue(bothRunning.await(5, TimeUnit.SECONDS), "Phases ran one after the other");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+
+            boot.phase("first", waitForOther);
+            boot.phase("second", waitForOther);
+            boot.whenDone().get(5, TimeUnit.SECONDS);
+
+            assertEquals(2, boot.getTimings().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should start a phase only after the phase it depends on")
+    void shouldRespectDependencies() throws Exception {
+        BootPipeline boot = new BootPipeline(Runnable::run);
+        CompletableFuture<Void> gate = new CompletableFuture<>();
+        AtomicBoolean ran = new AtomicBoolean();
+
+        CompletableFuture<Void> dependent = boot.phase("dependent", gate, () -> ran.set(true));
+        assertFalse(ran.get());
+
+        gate.complete(null);
+        dependent.get(5, TimeUnit.SECONDS);
+        assertTrue(ran.get());
+        assertTrue(boot.getTimings().containsKey("dependent"));
+    }
+
+    @Test
+    @DisplayName("Should finish the boot even when a phase fails, skipping the phases depending on it")
+    void shouldFinishWhenPhaseFails() throws Exception {
+        BootPipeline boot = new BootPipeline(Runnable::run);
+        AtomicBoolean dependentRan = new AtomicBoolean();
+
+        CompletableFuture<Void> failing = boot.phase("failing", () -> {
+            throw new IllegalStateException("Database is locked");
+        });
+        boot.phase("dependent", failing, () -> dependentRan.set(true));
+        boot.phase("independent", () -> { });
+
+        boot.whenDone().get(5, TimeUnit.SECONDS);
+        assertFalse(dependentRan.get());
+        assertEquals(Set.of("independent"), boot.getTimings().keySet());
+    }
+
+    @Test
+    @DisplayName("Should time work started outside the pipeline")
+    void shouldTrackExternalWork() throws Exception {
+        BootPipeline boot = new BootPipeline(Runnable::run);
+        CompletableFuture<String> work = new CompletableFuture<>();
+
+        boot.track("fxml", work);
+        CompletableFuture<Void> done = boot.whenDone();
+        assertFalse(done.isDone());
+
+        work.complete("loaded");
+        done.get(5, TimeUnit.SECONDS);
+        assertTrue(boot.getTimings().containsKey("fxml"));
+    }
+}
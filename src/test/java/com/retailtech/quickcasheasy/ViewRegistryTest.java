@@ -0,0 +1,94 @@
+package com.retailtech.quickcasheasy;
+
+import javafx.scene.Group;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ViewRegistryTest {
+
+    private final List<String> loaded = new ArrayList<>();
+    private ViewRegistry registry;
+
+    /**
+     * Controller that counts how often it was reset.
+     */
+    static class CountingController implements ViewRegistry.Resettable {
+        int resets;
+
+        @Override
+        public void reset() {
+            resets++;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Loads run straight away on the calling thread instead of the FX thread
+        registry = new ViewRegistry(fxml -> {
+            if (fxml.equals("missing.fxml")) {
+                throw new IOException("View not found: " + fxml);
+            }
+            loaded.add(fxml);
+            return new ViewRegistry.View(new Group(), new CountingController());
+        }, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Should load a view once and reuse it on later navigations")
+    void shouldReuseLoadedView() throws IOException {
+        ViewRegistry.View first = registry.get(ViewRegistry.PAYMENT);
+        ViewRegistry.View second = registry.get(ViewRegistry.PAYMENT);
+
+        assertSame(first, second);
+        assertEquals(List.of(ViewRegistry.PAYMENT), loaded);
+        assertEquals(1, registry.getLoadCount());
+        assertEquals(1, registry.getReuseCount());
+    }
+
+    @Test
+    @DisplayName("Should reset the controller each time a used view is shown again")
+    void shouldResetReusedView() throws IOException {
+        CountingController controller = registry.get(ViewRegistry.CASHIER).getController();
+        assertEquals(0, controller.resets);
+
+        registry.get(ViewRegistry.CASHIER);
+        registry.get(ViewRegistry.CASHIER);
+        assertEquals(2, controller.resets);
+    }
+
+    @Test
+    @DisplayName("Should not reset a preloaded view the first time it is shown")
+    void shouldNotResetPreloadedView() throws IOException {
+        registry.preload(ViewRegistry.CASHIER, ViewRegistry.PAYMENT).join();
+
+        CountingController controller = registry.get(ViewRegistry.CASHIER).getController();
+        assertEquals(0, controller.resets);
+        assertEquals(List.of(ViewRegistry.CASHIER, ViewRegistry.PAYMENT), loaded);
+    }
+
+    @Test
+    @DisplayName("Should keep preloading after a view fails to load")
+    void shouldSkipFailedPreload() {
+        registry.preload("missing.fxml", ViewRegistry.PAYMENT).join();
+
+        assertEquals(List.of(ViewRegistry.PAYMENT), loaded);
+        assertThrows(IOException.class, () -> registry.get("missing.fxml"));
+    }
+
+    @Test
+    @DisplayName("Should load a view again after it was evicted")
+    void shouldReloadEvictedView() throws IOException {
+        ViewRegistry.View first = registry.get(ViewRegistry.EDIT_USER);
+        registry.evict(ViewRegistry.EDIT_USER);
+
+        assertNotSame(first, registry.get(ViewRegistry.EDIT_USER));
+        assertEquals(2, registry.getLoadCount());
+    }
+}
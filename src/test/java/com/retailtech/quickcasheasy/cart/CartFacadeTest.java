@@ -1,12 +1,18 @@
 package com.retailtech.quickcasheasy.cart;
 
 import com.retailtech.quickcasheasy.cart.dto.CartItemDTO;
+import com.retailtech.quickcasheasy.category.CategoryFacade;
+import com.retailtech.quickcasheasy.exception.ProductNotFoundException;
+import com.retailtech.quickcasheasy.money.Money;
 import com.retailtech.quickcasheasy.product.ProductFacade;
+import com.retailtech.quickcasheasy.product.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,7 +43,7 @@ class CartFacadeTest {
         CartItemDTO item = cartItems.get(0);
         assertEquals("Apple", item.getProductName());
         assertEquals(2, item.getQuantity());
-        assertEquals(BigDecimal.valueOf(3.00), item.getTotalPrice());
+        assertEquals(new BigDecimal("3.00"), item.getTotalPrice());
     }
 
     @Test
@@ -69,7 +75,7 @@ class CartFacadeTest {
         List<CartItemDTO> cartItems = cartFacade.getCartItems();
         CartItemDTO item = cartItems.get(0);
         assertEquals(5, item.getQuantity());
-        assertEquals(BigDecimal.valueOf(7.50), item.getTotalPrice());
+        assertEquals(new BigDecimal("7.50"), item.getTotalPrice());
     }
 
     @Test
@@ -86,7 +92,7 @@ class CartFacadeTest {
         List<CartItemDTO> cartItems = cartFacade.getCartItems();
         assertTrue(cartItems.isEmpty());
         BigDecimal total = cartFacade.getTotal();
-        assertEquals(BigDecimal.ZERO, total);
+        assertEquals(new BigDecimal("0.00"), total);
     }
 
     @Test
@@ -104,6 +110,66 @@ class CartFacadeTest {
         BigDecimal total = cartFacade.getTotal();
 
         // Then
-        assertEquals(BigDecimal.valueOf(5.25), total);
+        assertEquals(new BigDecimal("5.25"), total);
+    }
+
+    @Test
+    void it_should_notify_listeners_of_cart_changes() {
+        // Given
+        when(productFacade.getProductName("123456")).thenReturn("Apple");
+        when(productFacade.getProductPrice("123456")).thenReturn(BigDecimal.valueOf(1.50));
+        List<String> events = new ArrayList<>();
+        cartFacade.addListener(new CartListener() {
+            @Override
+            public void lineAdded(CartItemDTO line) {
+                events.add("added " + line.getBarcode() + " x" + line.getQuantity());
+            }
+
+            @Override
+            public void lineUpdated(CartItemDTO line) {
+                events.add("updated " + line.getBarcode() + " x" + line.getQuantity() + " = " + line.getTotalPrice());
+            }
+
+            @Override
+            public void lineRemoved(String barcode) {
+                events.add("removed " + barcode);
+            }
+
+            @Override
+            public void cartCleared() {
+                events.add("cleared");
+            }
+
+            @Override
+            public void totalChanged(Money total) {
+                events.add("total " + total);
+            }
+        });
+
+        // When
+        cartFacade.addProductToCart("123456", 1);
+        cartFacade.addProductToCart("123456", 2);
+        cartFacade.removeProductFromCart("123456");
+        cartFacade.clearCart();
+
+        // Then
+        assertEquals(List.of(
+                "added 123456 x1", "total 1.50",
+                "updated 123456 x3 = 4.50", "total 4.50",
+                "removed 123456", "total 0.00",
+                "cleared", "total 0.00"), events);
+        verify(productFacade, times(1)).getProductPrice("123456");  // Repeat scans reuse the line's price
+    }
+
+    @Test
+    void it_should_reject_unknown_barcode() {
+        // Given a real product facade over a catalog without the barcode
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.getProductByBarcode("000000")).thenReturn(Optional.empty());
+        cartFacade = new CartFacade(ProductFacade.create(productRepository, mock(CategoryFacade.class)));
+
+        // When / Then
+        assertThrows(ProductNotFoundException.class, () -> cartFacade.addProductToCart("000000", 1));
+        assertTrue(cartFacade.getCartItems().isEmpty());
     }
 }
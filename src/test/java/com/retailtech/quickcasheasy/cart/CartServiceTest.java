@@ -2,10 +2,16 @@ package com.retailtech.quickcasheasy.cart;
 
 import com.retailtech.quickcasheasy.product.ProductFacade;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -36,7 +42,7 @@ class CartServiceTest {
         List<CartItem> cartItems = cartService.getCartItems();
         assertEquals(1, cartItems.size());  // Verify the cart contains 1 type of product
         assertEquals(2, cartItems.get(0).getQuantity());  // Verify the quantity is 2
-        assertEquals(BigDecimal.valueOf(3.00), cartService.getTotal());  // Verify the total is correct
+        assertEquals(new BigDecimal("3.00"), cartService.getTotal());  // Verify the total is correct
     }
 
     @Test
@@ -53,7 +59,7 @@ class CartServiceTest {
         // Then
         List<CartItem> cartItems = cartService.getCartItems();
         assertTrue(cartItems.isEmpty());  // Cart should be empty after removal
-        assertEquals(BigDecimal.ZERO, cartService.getTotal());  // Total should be zero
+        assertEquals(new BigDecimal("0.00"), cartService.getTotal());  // Total should be zero
     }
 
     @Test
@@ -70,7 +76,7 @@ class CartServiceTest {
         // Then
         List<CartItem> cartItems = cartService.getCartItems();
         assertEquals(5, cartItems.get(0).getQuantity());  // Verify the quantity was updated
-        assertEquals(BigDecimal.valueOf(7.50), cartService.getTotal());  // Verify the total is correct
+        assertEquals(new BigDecimal("7.50"), cartService.getTotal());  // Verify the total is correct
     }
 
     @Test
@@ -86,6 +92,44 @@ class CartServiceTest {
 
         // Then
         assertTrue(cartService.getCartItems().isEmpty());  // Verify cart is empty
-        assertEquals(BigDecimal.ZERO, cartService.getTotal());  // Verify total is zero
+        assertEquals(new BigDecimal("0.00"), cartService.getTotal());  // Verify total is zero
+    }
+
+    @RepeatedTest(50)
+    void it_should_keep_the_running_total_equal_to_the_sum_of_all_items(RepetitionInfo repetitionInfo) {
+        // Given a catalog with random prices, seeded per repetition so failures can be reproduced
+        Random random = new Random(repetitionInfo.getCurrentRepetition());
+        String[] barcodes = new String[8];
+        Map<String, BigDecimal> pricesByName = new HashMap<>();
+        for (int i = 0; i < barcodes.length; i++) {
+            barcodes[i] = "barcode-" + i;
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(100_000), random.nextInt(4));
+            pricesByName.put("Product " + i, price);
+            when(productFacade.getProductName(barcodes[i])).thenReturn("Product " + i);
+            when(productFacade.getProductPrice(barcodes[i])).thenReturn(price);
+        }
+
+        // When a random sequence of cart changes is applied
+        for (int step = 0; step < 200; step++) {
+            String barcode = barcodes[random.nextInt(barcodes.length)];
+            int operation = random.nextInt(10);
+            if (operation < 5) {
+                cartService.addProductToCart(barcode, 1 + random.nextInt(5));
+            } else if (operation < 7) {
+                cartService.updateProductQuantity(barcode, random.nextInt(10));
+            } else if (operation < 9) {
+                cartService.removeProductFromCart(barcode);
+            } else {
+                cartService.clearCart();
+            }
+
+            // Then the running total matches a full BigDecimal recomputation, with unit prices rounded half-up to øre
+            BigDecimal expected = cartService.getCartItems().stream()
+                    .map(item -> pricesByName.get(item.getProductName()).setScale(2, RoundingMode.HALF_UP)
+                            .multiply(BigDecimal.valueOf(item.getQuantity())))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertEquals(0, expected.compareTo(cartService.getTotal()),
+                    "Step " + step + ": expected " + expected + " but was " + cartService.getTotal());
+        }
     }
 }
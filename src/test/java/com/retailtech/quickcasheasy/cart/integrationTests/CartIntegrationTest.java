@@ -58,7 +58,7 @@ class CartIntegrationTest {
                 .orElse(null);
         assertNotNull(appleItem, "Apple item should be present in the cart");
         assertEquals(2, appleItem.getQuantity(), "Apple quantity should be 2");
-        assertEquals(BigDecimal.valueOf(3.00), appleItem.getTotalPrice(), "Apple total price should be 3.00");
+        assertEquals(new BigDecimal("3.00"), appleItem.getTotalPrice(), "Apple total price should be 3.00");
 
         // Verify Banana item in the cart
         CartItemDTO bananaItem = cartItems.stream()
@@ -67,11 +67,11 @@ class CartIntegrationTest {
                 .orElse(null);
         assertNotNull(bananaItem, "Banana item should be present in the cart");
         assertEquals(3, bananaItem.getQuantity(), "Banana quantity should be 3");
-        assertEquals(BigDecimal.valueOf(2.25), bananaItem.getTotalPrice(), "Banana total price should be 2.25");
+        assertEquals(new BigDecimal("2.25"), bananaItem.getTotalPrice(), "Banana total price should be 2.25");
 
         // Verify total cart value
         BigDecimal total = cartFacade.getTotal();
-        assertEquals(BigDecimal.valueOf(5.25), total, "Total cart value should be 5.25");
+        assertEquals(new BigDecimal("5.25"), total, "Total cart value should be 5.25");
     }
 
     /**
@@ -96,6 +96,6 @@ class CartIntegrationTest {
 
         // Verify that the total price is zero
         BigDecimal total = cartFacade.getTotal();
-        assertEquals(BigDecimal.ZERO, total, "Total cart value should be zero after clearing");
+        assertEquals(new BigDecimal("0.00"), total, "Total cart value should be zero after clearing");
     }
 }
@@ -0,0 +1,64 @@
+package com.retailtech.quickcasheasy.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FxThreadMonitorTest {
+
+    // Stands in for the JavaFX application thread
+    private ExecutorService fxThread;
+
+    @BeforeEach
+    void setUp() {
+        fxThread = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fxThread.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should report no stalls while the FX thread is idle")
+    void shouldReportNoStallsWhenIdle() throws Exception {
+        try (FxThreadMonitor monitor = new FxThreadMonitor(fxThread, 10, 200)) {
+            Thread.sleep(200);
+
+            FxThreadStats stats = monitor.getStats();
+            assertTrue(stats.getHeartbeats() > 0, "Heartbeats should reach an idle thread");
+            assertEquals(0, stats.getStalls());
+            assertEquals(0, stats.getTotalBlockedMillis());
+        }
+    }
+
+    @Test
+    @DisplayName("Should measure how long a task blocks the FX thread")
+    void shouldMeasureBlockedTime() throws Exception {
+        try (FxThreadMonitor monitor = new FxThreadMonitor(fxThread, 10, 100)) {
+            Thread.sleep(50);
+            fxThread.submit(() -> sleep(400)).get(5, TimeUnit.SECONDS);
+            Thread.sleep(50);
+
+            FxThreadStats stats = monitor.getStats();
+            assertEquals(1, stats.getStalls(), "One long task is one stall, not one per interval");
+            assertTrue(stats.getMaxBlockedMillis() >= 300, "Blocked for " + stats.getMaxBlockedMillis() + " ms");
+            assertTrue(stats.getTotalBlockedMillis() >= stats.getMaxBlockedMillis());
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.retailtech.quickcasheasy.concurrent;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerialExecutorTest {
+
+    @Test
+    @DisplayName("Should run tasks in submission order even when earlier tasks are slower")
+    void shouldRunTasksInSubmissionOrder() throws Exception {
+        SerialExecutor executor = BackgroundExecutor.newSerialExecutor();
+        List<Integer> completed = new ArrayList<>(); // Deliberately unsynchronized, the executor must order the writes
+        Random random = new Random(42);
+
+        CompletableFuture<Void> last = null;
+        for (int i = 0; i < 200; i++) {
+            int task = i;
+            long sleepMillis = random.nextInt(3);
+            last = CompletableFuture.runAsync(() -> {
+                sleep(sleepMillis);
+                completed.add(task);
+            }, executor);
+        }
+        last.get(10, TimeUnit.SECONDS);
+
+        assertEquals(IntStream.range(0, 200).boxed().collect(Collectors.toList()), completed);
+    }
+
+    @Test
+    @DisplayName("Should never run two tasks at the same time")
+    void shouldRunOneTaskAtATime() throws Exception {
+        SerialExecutor executor = BackgroundExecutor.newSerialExecutor();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(1);
+                running.decrementAndGet();
+            }, executor));
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, maxRunning.get());
+        assertEquals(0, executor.getQueuedTaskCount());
+    }
+
+    @Test
+    @DisplayName("Should keep running queued tasks after a task fails")
+    void shouldContinueAfterFailure() throws Exception {
+        SerialExecutor executor = BackgroundExecutor.newSerialExecutor();
+
+        CompletableFuture<Void> failing = CompletableFuture.runAsync(() -> {
+            throw new IllegalStateException("Product not found");
+        }, executor);
+        CompletableFuture<String> next = CompletableFuture.supplyAsync(() -> "next scan", executor);
+
+        assertEquals("next scan", next.get(10, TimeUnit.SECONDS));
+        assertTrue(failing.isCompletedExceptionally());
+        assertInstanceOf(IllegalStateException.class, BackgroundExecutor.unwrap(
+                assertThrows(Exception.class, failing::join)));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.retailtech.quickcasheasy.concurrent;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    @Test
+    @DisplayName("Should allow a burst up to the capacity and then refill at the configured rate")
+    void shouldLimitRate() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(10, 3, clock::get);
+
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire(), "The burst is used up");
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(99));
+        assertFalse(bucket.tryAcquire(), "Less than one token refilled");
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertTrue(bucket.tryAcquire());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        int acquired = 0;
+        while (bucket.tryAcquire()) {
+            acquired++;
+        }
+        assertEquals(3, acquired, "Refill never exceeds the capacity");
+    }
+}
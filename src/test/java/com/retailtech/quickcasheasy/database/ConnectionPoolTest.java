@@ -0,0 +1,300 @@
+package com.retailtech.quickcasheasy.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolTest {
+
+    private Path databaseFile;
+    private final List<Connection> physicalConnections = new ArrayList<>();
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        databaseFile = Files.createTempFile("qce-pool-test", ".db");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (pool != null) {
+            pool.close();
+        }
+        Files.deleteIfExists(databaseFile);
+    }
+
+    private ConnectionPool createPool(int maxSize, long borrowTimeoutMillis, long validationIntervalMillis,
+                                      long idleTimeoutMillis, long leakThresholdMillis) {
+        return createPool(maxSize, borrowTimeoutMillis, validationIntervalMillis, idleTimeoutMillis, leakThresholdMillis, false);
+    }
+
+    private ConnectionPool createPool(int maxSize, long borrowTimeoutMillis, long validationIntervalMillis,
+                                      long idleTimeoutMillis, long leakThresholdMillis, boolean leakStackTraces) {
+        ConnectionPoolConfig config = new ConnectionPoolConfig(maxSize, 0, borrowTimeoutMillis,
+                validationIntervalMillis, idleTimeoutMillis, leakThresholdMillis, leakStackTraces, 0, 8);
+        pool = new ConnectionPool(() -> {
+            Connection connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile);
+            connection.setAutoCommit(false);
+            physicalConnections.add(connection);
+            return connection;
+        }, config);
+        return pool;
+    }
+
+    @Test
+    @DisplayName("Should reuse the physical connection after it is returned")
+    void shouldReuseReturnedConnection() throws SQLException {
+        ConnectionPool pool = createPool(2, 1_000, 60_000, 60_000, 0);
+
+        try (Connection first = pool.borrow()) {
+            first.createStatement().execute("CREATE TABLE IF NOT EXISTS t (id INTEGER)");
+            first.commit();
+        }
+        try (Connection second = pool.borrow()) {
+            assertFalse(second.isClosed(), "Borrowed connection should be open");
+        }
+
+        assertEquals(1, physicalConnections.size(), "Only one physical connection should have been opened");
+        ConnectionPoolStats stats = pool.getStats();
+        assertEquals(2, stats.getBorrowCount());
+        assertEquals(0, stats.getActive());
+        assertEquals(1, stats.getIdle());
+    }
+
+    @Test
+    @DisplayName("Should reject use of a connection after it was returned")
+    void shouldRejectUseAfterClose() throws SQLException {
+        ConnectionPool pool = createPool(1, 1_000, 60_000, 60_000, 0);
+
+        Connection connection = pool.borrow();
+        connection.close();
+
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, connection::createStatement);
+    }
+
+    @Test
+    @DisplayName("Should time out when every connection is borrowed")
+    void shouldTimeOutWhenExhausted() throws SQLException {
+        ConnectionPool pool = createPool(1, 50, 60_000, 60_000, 0);
+
+        try (Connection connection = pool.borrow()) {
+            assertFalse(connection.isClosed());
+            assertThrows(SQLTimeoutException.class, pool::borrow);
+        }
+
+        ConnectionPoolStats stats = pool.getStats();
+        assertEquals(1, stats.getBorrowTimeouts());
+        assertTrue(stats.getMaxBorrowWaitNanos() > 0, "Borrow wait should be recorded");
+    }
+
+    @Test
+    @DisplayName("Should replace a connection that fails validation on borrow")
+    void shouldValidateOnBorrow() throws SQLException {
+        ConnectionPool pool = createPool(1, 1_000, 0, 60_000, 0);
+
+        pool.borrow().close();
+        physicalConnections.get(0).close(); // Simulate a connection broken while idle
+
+        try (Connection connection = pool.borrow()) {
+            assertFalse(connection.isClosed());
+        }
+
+        assertEquals(2, physicalConnections.size(), "A new physical connection should have been opened");
+        assertEquals(1, pool.getStats().getValidationFailures());
+    }
+
+    @Test
+    @DisplayName("Should evict idle connections older than the idle timeout")
+    void shouldEvictIdleConnections() throws SQLException {
+        ConnectionPool pool = createPool(2, 1_000, 60_000, 0, 0);
+
+        pool.borrow().close();
+        pool.evictIdleConnections();
+
+        ConnectionPoolStats stats = pool.getStats();
+        assertEquals(0, stats.getIdle());
+        assertEquals(1, stats.getConnectionsEvicted());
+        assertTrue(physicalConnections.get(0).isClosed(), "Evicted connection should be closed");
+    }
+
+    @Test
+    @DisplayName("Should report a connection held longer than the leak threshold once")
+    void shouldDetectLeaks() throws SQLException {
+        ConnectionPool pool = createPool(1, 1_000, 60_000, 60_000, 1);
+
+        try (Connection connection = pool.borrow()) {
+            assertFalse(connection.isClosed());
+            sleep(5);
+            pool.detectLeaks();
+            pool.detectLeaks();
+            assertEquals(1, pool.getStats().getLeaksDetected());
+            assertEquals(1, pool.getStats().getActive());
+        }
+    }
+
+    @Test
+    @DisplayName("Should show where a leaked connection was borrowed only when stack traces are enabled")
+    void shouldCaptureBorrowStackOnlyWhenEnabled() throws SQLException {
+        assertFalse(leakReport(false).contains("Connection borrowed here"));
+        pool.close();
+        assertTrue(leakReport(true).contains("Connection borrowed here"));
+    }
+
+    private String leakReport(boolean leakStackTraces) throws SQLException {
+        ConnectionPool pool = createPool(1, 1_000, 60_000, 60_000, 1, leakStackTraces);
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        try (Connection connection = pool.borrow()) {
+            assertFalse(connection.isClosed());
+            sleep(5);
+            System.setErr(new PrintStream(err, true));
+            pool.detectLeaks();
+        } finally {
+            System.setErr(originalErr);
+        }
+        assertEquals(1, pool.getStats().getLeaksDetected());
+        return err.toString();
+    }
+
+    @Test
+    @DisplayName("Should reuse a prepared statement on the same connection")
+    void shouldReusePreparedStatement() throws SQLException {
+        ConnectionPool pool = createPool(1, 1_000, 60_000, 60_000, 0);
+        createTable(pool);
+
+        for (int i = 1; i <= 3; i++) {
+            try (Connection connection = pool.borrow();
+                 PreparedStatement pstmt = connection.prepareStatement("INSERT INTO t (name) VALUES (?)", Statement.RETURN_GENERATED_KEYS)) {
+                pstmt.setString(1, "row " + i);
+                pstmt.executeUpdate();
+                connection.commit();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    assertTrue(keys.next());
+                    assertEquals(i, keys.getLong(1));
+                }
+            }
+        }
+
+        ConnectionPoolStats stats = pool.getStats();
+        assertEquals(2, stats.getStatementsPrepared(), "Only the table and the insert should have been prepared");
+        assertEquals(2, stats.getPreparesAvoided());
+    }
+
+    @Test
+    @DisplayName("Should restore fetch size, max rows and query timeout before reusing a statement")
+    void shouldResetStatementLimits() throws SQLException {
+        ConnectionPool pool = createPool(1, 1_000, 60_000, 60_000, 0);
+        createTable(pool);
+        int defaultFetchSize;
+
+        try (Connection connection = pool.borrow();
+             PreparedStatement pstmt = connection.prepareStatement("SELECT name FROM t")) {
+            defaultFetchSize = pstmt.getFetchSize();
+            pstmt.setFetchSize(defaultFetchSize + 500);
+            pstmt.setMaxRows(1);
+            pstmt.setQueryTimeout(3);
+        }
+
+        try (Connection connection = pool.borrow();
+             PreparedStatement pstmt = connection.prepareStatement("SELECT name FROM t")) {
+            assertEquals(defaultFetchSize, pstmt.getFetchSize());
+            assertEquals(0, pstmt.getMaxRows());
+            assertEquals(0, pstmt.getQueryTimeout());
+        }
+        assertEquals(1, pool.getStats().getPreparesAvoided(), "The same statement should have been reused");
+    }
+
+    @Test
+    @DisplayName("Should not hand out a statement that is still in use")
+    void shouldNotShareStatementInUse() throws SQLException {
+        ConnectionPool pool = createPool(1, 1_000, 60_000, 60_000, 0);
+        createTable(pool);
+        String sql = "SELECT COUNT(*) FROM t WHERE id > ?";
+
+        try (Connection connection = pool.borrow();
+             PreparedStatement first = connection.prepareStatement(sql);
+             PreparedStatement second = connection.prepareStatement(sql)) {
+            assertNotSame(first.unwrap(PreparedStatement.class), second.unwrap(PreparedStatement.class));
+            assertSame(connection, first.getConnection());
+        }
+        try (Connection connection = pool.borrow();
+             PreparedStatement third = connection.prepareStatement(sql)) {
+            assertFalse(third.isClosed());
+        }
+
+        ConnectionPoolStats stats = pool.getStats();
+        assertEquals(3, stats.getStatementsPrepared());
+        assertEquals(1, stats.getPreparesAvoided());
+    }
+
+    @Test
+    @DisplayName("Should close result sets left open when the statement is returned")
+    void shouldCloseLeftOpenResultSets() throws SQLException {
+        ConnectionPool pool = createPool(1, 1_000, 60_000, 60_000, 0);
+        createTable(pool);
+
+        ResultSet leftOpen;
+        try (Connection connection = pool.borrow();
+             PreparedStatement pstmt = connection.prepareStatement("SELECT * FROM t")) {
+            leftOpen = pstmt.executeQuery();
+        }
+
+        assertTrue(leftOpen.isClosed(), "Result set should be closed with its statement");
+        try (Connection connection = pool.borrow();
+             PreparedStatement pstmt = connection.prepareStatement("SELECT * FROM t");
+             ResultSet rs = pstmt.executeQuery()) {
+            assertFalse(rs.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used statement when the cache is full")
+    void shouldEvictLeastRecentlyUsedStatement() throws SQLException {
+        ConnectionPool pool = createPool(1, 1_000, 60_000, 60_000, 0);
+        createTable(pool);
+
+        try (Connection connection = pool.borrow()) {
+            for (int i = 0; i < 8; i++) {
+                connection.prepareStatement("SELECT " + i + " FROM t").close();
+            }
+        }
+
+        // The CREATE TABLE statement plus eight selects do not fit in a cache of eight
+        assertEquals(1, pool.getStats().getStatementsEvicted());
+    }
+
+    private void createTable(ConnectionPool pool) throws SQLException {
+        try (Connection connection = pool.borrow();
+             PreparedStatement pstmt = connection.prepareStatement("CREATE TABLE t (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT)")) {
+            pstmt.execute();
+            connection.commit();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
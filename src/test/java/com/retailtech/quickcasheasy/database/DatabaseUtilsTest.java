@@ -3,6 +3,10 @@ package com.retailtech.quickcasheasy.database;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.function.Executable;
 
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -75,6 +79,48 @@ public class DatabaseUtilsTest {
         assertDoesNotThrow(runScriptExecutable, "Running the init.sql script should not throw any exception");
     }
 
+    @Test
+    @DisplayName("Test stream - Read rows lazily and return the connection when the stream is closed")
+    void testStreamReleasesConnectionOnClose() {
+        for (int i = 0; i < 5; i++) {
+            dbUtils.executeInsert("INSERT INTO test (name) VALUES (?)", "Streamed" + i);
+        }
+        RowMapper<String> mapper = RowMapper.of((rs, col) -> rs.getString(col[0]), "name");
+        int activeBefore = DatabaseConnectionManager.getPoolStats().getActive();
+
+        List<String> names;
+        try (Stream<String> rows = dbUtils.stream("SELECT name FROM test WHERE name LIKE ? ORDER BY id", 2, mapper, "Streamed%")) {
+            assertEquals(activeBefore + 1, DatabaseConnectionManager.getPoolStats().getActive(), "The open stream should hold a connection");
+            names = rows.limit(3).collect(Collectors.toList());
+        }
+
+        assertEquals(List.of("Streamed0", "Streamed1", "Streamed2"), names);
+        assertEquals(activeBefore, DatabaseConnectionManager.getPoolStats().getActive(), "Closing the stream should release the connection");
+    }
+
+    @Test
+    @DisplayName("Test stream - Release the connection once the last row has been read")
+    void testStreamReleasesConnectionWhenExhausted() {
+        RowMapper<Long> mapper = RowMapper.of((rs, col) -> rs.getLong(col[0]), "id");
+        int activeBefore = DatabaseConnectionManager.getPoolStats().getActive();
+
+        long count = dbUtils.stream("SELECT id FROM test", mapper).count();
+
+        assertTrue(count > 0);
+        assertEquals(activeBefore, DatabaseConnectionManager.getPoolStats().getActive());
+    }
+
+    @Test
+    @DisplayName("Test stream - Fail fast and release the connection when the query is invalid")
+    void testStreamReleasesConnectionOnError() {
+        RowMapper<Long> mapper = RowMapper.of((rs, col) -> rs.getLong(col[0]), "missing");
+        int activeBefore = DatabaseConnectionManager.getPoolStats().getActive();
+
+        assertThrows(RuntimeException.class, () -> dbUtils.stream("SELECT id FROM test", mapper));
+        assertThrows(IllegalArgumentException.class, () -> dbUtils.stream("SELECT id FROM test", -1, mapper));
+        assertEquals(activeBefore, DatabaseConnectionManager.getPoolStats().getActive());
+    }
+
     @AfterAll
     void tearDown() {
         // Cleanup: Drop the test table after all tests
@@ -0,0 +1,62 @@
+package com.retailtech.quickcasheasy.database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseWarmupTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should read every row of the table and scan each of its indexes")
+    void shouldWarmUpTableAndIndexes() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + directory.resolve("warmup.db"))) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE products (barcode TEXT PRIMARY KEY, name TEXT, category_id INTEGER)");
+                statement.execute("CREATE INDEX idx_products_category ON products (category_id)");
+            }
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO products VALUES (?, ?, ?)")) {
+                for (int i = 0; i < 500; i++) {
+                    insert.setString(1, "BC" + i);
+                    insert.setString(2, "Product " + i);
+                    insert.setInt(3, i % 7);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+
+            // Fails if INDEXED BY cannot use the barcode or the category index
+            assertEquals(500, DatabaseWarmup.warmUp(connection, "products"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject table names that are not plain identifiers")
+    void shouldRejectInvalidTableName() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + directory.resolve("warmup.db"))) {
+            assertThrows(IllegalArgumentException.class, () -> DatabaseWarmup.warmUp(connection, "products; DROP TABLE products"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip the warmup when it is disabled")
+    void shouldSkipWhenDisabled() {
+        System.setProperty(DatabaseConnectionManager.WARMUP_PROPERTY, "false");
+        try {
+            assertEquals(0, DatabaseConnectionManager.warmUpCatalog());
+        } finally {
+            System.clearProperty(DatabaseConnectionManager.WARMUP_PROPERTY);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.retailtech.quickcasheasy.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowMapperTest {
+
+    private static final RowMapper<String> ITEM_MAPPER = RowMapper.of(
+            (rs, col) -> rs.getLong(col[0]) + ":" + rs.getString(col[1]),
+            "id", "name");
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE items (name TEXT, note TEXT, id INTEGER)");
+            statement.execute("INSERT INTO items VALUES ('apple', 'x', 1), ('pear', 'y', 2), ('plum', 'z', 3)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Should select only the mapped columns")
+    void shouldBuildExplicitSelect() {
+        assertEquals("id, name", ITEM_MAPPER.columnList());
+        assertEquals("SELECT id, name FROM items", ITEM_MAPPER.selectFrom("items"));
+    }
+
+    @Test
+    @DisplayName("Should map rows by the indexes of the declared columns, whatever their position in the query")
+    void shouldMapByResolvedIndexes() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT note, name, id FROM items ORDER BY id")) {
+            assertArrayEquals(new int[]{3, 2}, ITEM_MAPPER.resolve(rs));
+            assertEquals(List.of("1:apple", "2:pear", "3:plum"), ITEM_MAPPER.list(rs));
+        }
+    }
+
+    @Test
+    @DisplayName("Should map the first row or return empty")
+    void shouldMapFirstRow() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery(ITEM_MAPPER.selectFrom("items") + " WHERE id = 2")) {
+                assertEquals(Optional.of("2:pear"), ITEM_MAPPER.first(rs));
+            }
+            try (ResultSet rs = statement.executeQuery(ITEM_MAPPER.selectFrom("items") + " WHERE id = 9")) {
+                assertEquals(Optional.empty(), ITEM_MAPPER.first(rs));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand each row to the consumer and count them")
+    void shouldStreamRowsToConsumer() throws SQLException {
+        List<String> seen = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(ITEM_MAPPER.selectFrom("items") + " ORDER BY id DESC")) {
+            assertEquals(3, ITEM_MAPPER.toConsumer(seen::add).handle(rs));
+        }
+        assertEquals(List.of("3:plum", "2:pear", "1:apple"), seen);
+    }
+
+    @Test
+    @DisplayName("Should fail when a mapped column is missing from the query")
+    void shouldFailOnMissingColumn() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT name FROM items")) {
+            assertThrows(SQLException.class, () -> ITEM_MAPPER.list(rs));
+        }
+    }
+}
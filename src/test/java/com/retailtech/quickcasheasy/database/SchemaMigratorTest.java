@@ -0,0 +1,189 @@
+package com.retailtech.quickcasheasy.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaMigratorTest {
+
+    @TempDir
+    Path directory;
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite:" + directory.resolve("migrate.db"));
+        connection.setAutoCommit(false);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Should apply all migrations to an empty database and record each version")
+    void shouldMigrateEmptyDatabase() throws SQLException {
+        int version = new SchemaMigrator().migrate(connection);
+
+        assertEquals(SchemaMigrator.MIGRATIONS.size(), version);
+        assertEquals(List.of("1", "2", "3", "4"), column("SELECT version FROM schema_version ORDER BY version"));
+    }
+
+    @Test
+    @DisplayName("Should not run applied migrations again")
+    void shouldSkipAppliedMigrations() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator();
+        migrator.migrate(connection);
+
+        assertEquals(SchemaMigrator.MIGRATIONS.size(), migrator.migrate(connection));
+        assertEquals(List.of(String.valueOf(SchemaMigrator.MIGRATIONS.size())), column("SELECT COUNT(*) FROM schema_version"));
+    }
+
+    @Test
+    @DisplayName("Should roll back all pending migrations when one of them fails")
+    void shouldRollBackFailedMigrations() throws SQLException {
+        List<SchemaMigrator.Migration> migrations = new ArrayList<>(SchemaMigrator.MIGRATIONS);
+        migrations.add(new SchemaMigrator.Migration(migrations.size() + 1, "Missing script", "does_not_exist.sql"));
+
+        assertThrows(RuntimeException.class, () -> new SchemaMigrator(migrations).migrate(connection));
+        // Not even the schema_version table is left behind
+        assertEquals(List.of(), column("SELECT name FROM sqlite_master WHERE name IN ('schema_version', 'products')"));
+    }
+
+    @Test
+    @DisplayName("Should keep the applied version when a later migration fails")
+    void shouldKeepAppliedVersionWhenLaterMigrationFails() throws SQLException {
+        new SchemaMigrator().migrate(connection);
+        List<SchemaMigrator.Migration> migrations = new ArrayList<>(SchemaMigrator.MIGRATIONS);
+        migrations.add(new SchemaMigrator.Migration(migrations.size() + 1, "Missing script", "does_not_exist.sql"));
+
+        assertThrows(RuntimeException.class, () -> new SchemaMigrator(migrations).migrate(connection));
+        assertEquals(SchemaMigrator.MIGRATIONS.size(), SchemaMigrator.currentVersion(connection));
+    }
+
+    @Test
+    @DisplayName("Should clear the card number of journaled payments that already have an outcome")
+    void shouldClearCardNumbersOfFinishedPayments() throws SQLException {
+        new SchemaMigrator(SchemaMigrator.MIGRATIONS.subList(0, 2)).migrate(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO payments (id, amount, method, status, success) VALUES "
+                    + "(1, 10.00, 'Card', 'SETTLED', 1), (2, 20.00, 'Card', 'FAILED', 0), (3, 30.00, 'Card', 'PENDING', 0)");
+            statement.executeUpdate("INSERT INTO payment_journal (payment_id, idempotency_key, card_number, amount, created_at) VALUES "
+                    + "(1, 'key-1', 1111, 10.00, 1000), (2, 'key-2', 2222, 20.00, 2000), (3, 'key-3', 3333, 30.00, 3000)");
+        }
+        connection.commit();
+
+        new SchemaMigrator().migrate(connection);
+
+        // Only the pending payment still needs its card; every entry is kept for reporting
+        assertEquals(Arrays.asList(null, null, "3333"), column("SELECT card_number FROM payment_journal ORDER BY payment_id"));
+        assertEquals(List.of("key-1", "key-2", "key-3"), column("SELECT idempotency_key FROM payment_journal ORDER BY payment_id"));
+    }
+
+    @Test
+    @DisplayName("Should date existing payments from their journal entry")
+    void shouldBackfillPaymentCreationTime() throws SQLException {
+        new SchemaMigrator(SchemaMigrator.MIGRATIONS.subList(0, 3)).migrate(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO payments (id, amount, method, status, success) VALUES "
+                    + "(1, 10.00, 'Card', 'SETTLED', 1), (2, 20.00, 'Cash', 'COMPLETED', 1)");
+            statement.executeUpdate("INSERT INTO payment_journal (payment_id, idempotency_key, card_number, amount, created_at) VALUES "
+                    + "(1, 'key-1', NULL, 10.00, 1000)");
+        }
+        connection.commit();
+
+        new SchemaMigrator().migrate(connection);
+
+        // A payment without a journal entry has no known time
+        assertEquals(Arrays.asList("1000", null), column("SELECT created_at FROM payments ORDER BY id"));
+    }
+
+    @Test
+    @DisplayName("Should report payments for a period through the created_at index")
+    void shouldUseIndexForPaymentPeriod() throws SQLException {
+        new SchemaMigrator().migrate(connection);
+
+        String plan = plan("SELECT id, amount, method, status, success FROM payments WHERE created_at >= ? AND created_at < ? ORDER BY created_at");
+        assertTrue(plan.contains("SEARCH payments USING INDEX idx_payments_created_at"), plan);
+        assertFalse(plan.contains("TEMP B-TREE"), plan);
+    }
+
+    @Test
+    @DisplayName("Should look up pending card payments through the status index")
+    void shouldUseIndexForPendingPayments() throws SQLException {
+        new SchemaMigrator().migrate(connection);
+
+        String countPending = plan("SELECT COUNT(*) FROM payment_journal j JOIN payments p ON p.id = j.payment_id WHERE p.status = ?");
+        assertTrue(countPending.contains("SEARCH p USING COVERING INDEX idx_payments_status"), countPending);
+        assertFalse(countPending.contains("SCAN"), countPending);
+
+        String findPending = plan("SELECT j.payment_id, j.idempotency_key, j.card_number, j.amount FROM payment_journal j "
+                + "JOIN payments p ON p.id = j.payment_id WHERE p.status = ? ORDER BY j.id LIMIT ?");
+        assertTrue(findPending.contains("idx_payments_status"), findPending);
+        assertFalse(findPending.contains("SCAN p"), findPending);
+
+        String recover = plan("UPDATE payments SET status = ? WHERE status = ? AND id IN (SELECT payment_id FROM payment_journal)");
+        assertTrue(recover.contains("idx_payments_status"), recover);
+        assertFalse(recover.contains("SCAN payments"), recover);
+    }
+
+    @Test
+    @DisplayName("Should look up products by barcode and by category through an index")
+    void shouldUseIndexForProducts() throws SQLException {
+        new SchemaMigrator().migrate(connection);
+
+        assertTrue(plan("SELECT * FROM products WHERE barcode = ?").contains("SEARCH products USING INDEX sqlite_autoindex_products_1"));
+        assertTrue(plan("SELECT * FROM products WHERE category_id = ?").contains("SEARCH products USING INDEX idx_products_category_id"));
+    }
+
+    @Test
+    @DisplayName("Should look up users by username through the unique index")
+    void shouldUseIndexForUsers() throws SQLException {
+        new SchemaMigrator().migrate(connection);
+
+        assertTrue(plan("SELECT * FROM users WHERE username = ?").contains("SEARCH users USING INDEX sqlite_autoindex_users_1"));
+        assertTrue(plan("SELECT role FROM users WHERE username = ?").contains("SEARCH users USING INDEX sqlite_autoindex_users_1"));
+    }
+
+    @Test
+    @DisplayName("Should report journal entries for a period through the created_at index")
+    void shouldUseIndexForJournalPeriod() throws SQLException {
+        new SchemaMigrator().migrate(connection);
+
+        String plan = plan("SELECT COUNT(*), SUM(amount) FROM payment_journal WHERE created_at >= ? AND created_at < ?");
+        assertTrue(plan.contains("SEARCH payment_journal USING INDEX idx_payment_journal_created_at"), plan);
+    }
+
+    // The detail column of EXPLAIN QUERY PLAN, one line per step
+    private String plan(String sql) throws SQLException {
+        return String.join("\n", column("EXPLAIN QUERY PLAN " + sql));
+    }
+
+    private List<String> column(String sql) throws SQLException {
+        List<String> values = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            int column = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                values.add(rs.getString(column));
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,83 @@
+package com.retailtech.quickcasheasy.database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlDialectTest {
+
+    private static final List<String> KEY = List.of("barcode");
+    private static final List<String> COLUMNS = List.of("barcode", "name", "price");
+
+    @Test
+    @DisplayName("Should select the dialect from the JDBC URL")
+    void shouldSelectDialectFromJdbcUrl() {
+        assertEquals(SqlDialect.SQLITE, SqlDialect.fromJdbcUrl("jdbc:sqlite:QCE.db"));
+        assertEquals(SqlDialect.H2, SqlDialect.fromJdbcUrl("jdbc:h2:mem:test"));
+        assertThrows(IllegalArgumentException.class, () -> SqlDialect.fromJdbcUrl("jdbc:postgresql://localhost/qce"));
+    }
+
+    @Test
+    @DisplayName("Should build an ON CONFLICT upsert for SQLite")
+    void shouldBuildSqliteUpsert() {
+        assertEquals("INSERT INTO products (barcode, name, price) VALUES (?, ?, ?)"
+                        + " ON CONFLICT(barcode) DO UPDATE SET name = excluded.name, price = excluded.price",
+                SqlDialect.SQLITE.upsert("products", KEY, COLUMNS));
+    }
+
+    @Test
+    @DisplayName("Should build a MERGE upsert for H2")
+    void shouldBuildH2Upsert() {
+        assertEquals("MERGE INTO products (barcode, name, price) KEY (barcode) VALUES (?, ?, ?)",
+                SqlDialect.H2.upsert("products", KEY, COLUMNS));
+    }
+
+    @Test
+    @DisplayName("Should insert then update the same row on SQLite")
+    void shouldUpsertOnSqlite() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            assertUpsertInsertsThenUpdates(connection, SqlDialect.SQLITE);
+        }
+    }
+
+    @Test
+    @DisplayName("Should insert then update the same row on H2")
+    void shouldUpsertOnH2() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:dialect-test")) {
+            assertUpsertInsertsThenUpdates(connection, SqlDialect.H2);
+        }
+    }
+
+    private void assertUpsertInsertsThenUpdates(Connection connection, SqlDialect dialect) throws SQLException {
+        connection.createStatement().execute("CREATE TABLE products (barcode VARCHAR(32) PRIMARY KEY, name VARCHAR(255), price DECIMAL(10, 2))");
+        String sql = dialect.upsert("products", KEY, COLUMNS);
+
+        upsert(connection, sql, "Apple", "10.00");
+        upsert(connection, sql, "Green Apple", "11.50");
+
+        try (ResultSet rs = connection.createStatement().executeQuery("SELECT COUNT(*), MAX(name), MAX(price) FROM products")) {
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1), "Upsert should not create a second row");
+            assertEquals("Green Apple", rs.getString(2));
+            assertEquals(0, new BigDecimal("11.50").compareTo(rs.getBigDecimal(3)));
+        }
+    }
+
+    private void upsert(Connection connection, String sql, String name, String price) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setString(1, "0100000000001");
+            pstmt.setString(2, name);
+            pstmt.setBigDecimal(3, new BigDecimal(price));
+            pstmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.retailtech.quickcasheasy.database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlitePragmaProfileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should switch a new SQLite connection to WAL with the configured settings")
+    void shouldApplyProfile() throws SQLException {
+        SqlitePragmaProfile profile = SqlitePragmaProfile.of("wal", "normal", 8_192, 1_048_576, "memory", 2_500);
+
+        try (Connection connection = open()) {
+            profile.apply(connection);
+
+            assertEquals("wal", pragma(connection, "journal_mode"));
+            assertEquals("1", pragma(connection, "synchronous"));     // NORMAL
+            assertEquals("-8192", pragma(connection, "cache_size"));  // KiB
+            assertEquals("1048576", pragma(connection, "mmap_size"));
+            assertEquals("2", pragma(connection, "temp_store"));      // MEMORY
+            assertEquals("2500", pragma(connection, "busy_timeout"));
+            assertEquals("1", pragma(connection, "foreign_keys"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should use WAL and synchronous NORMAL by default")
+    void shouldDefaultToWal() {
+        assertTrue(SqlitePragmaProfile.fromSystemProperties().getPragmas().containsAll(List.of(
+                "PRAGMA journal_mode = WAL", "PRAGMA synchronous = NORMAL", "PRAGMA temp_store = MEMORY")));
+    }
+
+    @Test
+    @DisplayName("Should leave SQLite's performance defaults alone with the none profile")
+    void shouldApplyNothingForNone() throws SQLException {
+        try (Connection connection = open()) {
+            SqlitePragmaProfile.NONE.apply(connection);
+
+            assertEquals("delete", pragma(connection, "journal_mode"));
+            assertEquals("2", pragma(connection, "synchronous")); // FULL
+            assertEquals("1", pragma(connection, "foreign_keys"), "Foreign keys are enforced with every profile");
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject values that are not plain keywords")
+    void shouldRejectInvalidValues() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SqlitePragmaProfile.of("WAL; DROP TABLE users", "NORMAL", 1, 0, "MEMORY", 0));
+    }
+
+    private Connection open() throws SQLException {
+        return DriverManager.getConnection("jdbc:sqlite:" + directory.resolve("pragma.db"));
+    }
+
+    private static String pragma(Connection connection, String name) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA " + name)) {
+            assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+}
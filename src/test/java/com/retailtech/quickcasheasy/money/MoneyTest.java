@@ -0,0 +1,53 @@
+package com.retailtech.quickcasheasy.money;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    @DisplayName("Should round to two decimals half-up when converting from BigDecimal")
+    void shouldRoundHalfUp() {
+        assertEquals(1050, Money.toMinorUnits(new BigDecimal("10.5")));
+        assertEquals(1013, Money.toMinorUnits(new BigDecimal("10.125")));
+        assertEquals(1012, Money.toMinorUnits(new BigDecimal("10.1249")));
+        assertEquals(-1013, Money.toMinorUnits(new BigDecimal("-10.125")));
+    }
+
+    @Test
+    @DisplayName("Should convert minor units back to BigDecimal with two decimals")
+    void shouldConvertToBigDecimal() {
+        assertEquals(new BigDecimal("12.50"), Money.toBigDecimal(1250));
+        assertEquals(new BigDecimal("0.00"), Money.ZERO.toBigDecimal());
+        assertEquals(new BigDecimal("3.00"), Money.of(new BigDecimal("1.50")).times(2).toBigDecimal());
+    }
+
+    @Test
+    @DisplayName("Should format minor units like BigDecimal.toPlainString")
+    void shouldFormat() {
+        long[] samples = {0, 5, 10, 99, 100, 1250, -5, -1250, 123_456_789, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long sample : samples) {
+            assertEquals(BigDecimal.valueOf(sample, 2).toPlainString(), Money.format(sample), "Formatting " + sample);
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail instead of overflowing")
+    void shouldFailOnOverflow() {
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> Money.plus(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.toMinorUnits(new BigDecimal("1e30")));
+    }
+
+    @Test
+    @DisplayName("Should compare by amount")
+    void shouldCompareByAmount() {
+        assertEquals(Money.of(new BigDecimal("2.5")), Money.ofMinorUnits(250));
+        assertTrue(Money.ofMinorUnits(100).compareTo(Money.ofMinorUnits(99)) > 0);
+        assertFalse(Money.ZERO.isPositive());
+    }
+}
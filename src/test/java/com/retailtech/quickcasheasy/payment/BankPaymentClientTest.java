@@ -0,0 +1,136 @@
+package com.retailtech.quickcasheasy.payment;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests BankPaymentClient against a local stub of the bank's payment API.
+ */
+class BankPaymentClientTest {
+
+    private StubBankServer bank;
+    private BankPaymentClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        bank = new StubBankServer();
+        client = new BankPaymentClient(new BankClientConfig(bank.paymentUrl(), Duration.ofSeconds(2), Duration.ofMillis(500)));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        bank.close();
+    }
+
+    @Test
+    @DisplayName("Should post the card number and plain amount and report an approved payment")
+    void shouldApprovePayment() throws Exception {
+        bank.respondWith(200, "OK");
+
+        PaymentResult result = client.makeBankPaymentAsync(1234, new BigDecimal("12.50")).get(5, TimeUnit.SECONDS);
+
+        assertEquals(PaymentResult.Status.APPROVED, result.getStatus());
+        assertTrue(result.isApproved());
+        assertEquals(200, result.getHttpStatus());
+        assertEquals(1, bank.getRequests().size());
+        assertEquals("POST", bank.getRequests().get(0).method);
+        assertEquals("/api/payment/make?cardNumber=1234&amount=12.50", bank.getRequests().get(0).target);
+    }
+
+    @Test
+    @DisplayName("Should write large amounts without exponent notation")
+    void shouldWritePlainAmount() throws Exception {
+        client.makeBankPaymentAsync(1, new BigDecimal("1E+3")).get(5, TimeUnit.SECONDS);
+
+        assertEquals("/api/payment/make?cardNumber=1&amount=1000", bank.getRequests().get(0).target);
+    }
+
+    @Test
+    @DisplayName("Should report a declined payment with the bank's reason")
+    void shouldDeclinePayment() throws Exception {
+        bank.respondWith(400, "Insufficient funds");
+
+        PaymentResult result = client.makeBankPaymentAsync(1234, new BigDecimal("12.50")).get(5, TimeUnit.SECONDS);
+
+        assertEquals(PaymentResult.Status.DECLINED, result.getStatus());
+        assertFalse(result.isApproved());
+        assertEquals("Payment failed: Invalid input. Insufficient funds", result.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should report a bank error on a server error")
+    void shouldReportBankError() throws Exception {
+        bank.respondWith(500, "Boom");
+
+        PaymentResult result = client.makeBankPaymentAsync(1234, new BigDecimal("12.50")).get(5, TimeUnit.SECONDS);
+
+        assertEquals(PaymentResult.Status.BANK_ERROR, result.getStatus());
+        assertEquals("Payment failed: Internal server error.", result.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should return immediately and time out when the bank is slow")
+    void shouldTimeOutSlowBank() throws Exception {
+        bank.delayResponses(3_000);
+
+        long start = System.nanoTime();
+        CompletableFuture<PaymentResult> future = client.makeBankPaymentAsync(1234, new BigDecimal("12.50"));
+        assertFalse(future.isDone(), "The call must not wait for the bank");
+
+        PaymentResult result = future.get(5, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(PaymentResult.Status.TIMED_OUT, result.getStatus());
+        assertEquals(0, result.getHttpStatus());
+        assertTrue(elapsedMillis < 2_500, "Timed out after " + elapsedMillis + " ms");
+    }
+
+    @Test
+    @DisplayName("Should fail the future with an IOException when the bank cannot be reached")
+    void shouldFailWhenBankUnreachable() throws Exception {
+        URI closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = URI.create("http://127.0.0.1:" + socket.getLocalPort() + "/api/payment/make");
+        }
+        BankPaymentClient unreachable = new BankPaymentClient(new BankClientConfig(closedPort, Duration.ofSeconds(2), Duration.ofMillis(500)));
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> unreachable.makeBankPaymentAsync(1234, new BigDecimal("12.50")).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, e.getCause());
+        assertThrows(IOException.class, () -> unreachable.makeBankPayment(1234, new BigDecimal("12.50")));
+    }
+
+    @Test
+    @DisplayName("Should keep returning the bank's message from the blocking call")
+    void shouldReturnMessageFromBlockingCall() throws Exception {
+        bank.respondWith(200, "OK");
+
+        assertEquals("Payment processed successfully.", client.makeBankPayment(1234, new BigDecimal("12.50")));
+    }
+
+    @Test
+    @DisplayName("Should share an HTTP client only between configurations with the same connect timeout")
+    void shouldKeySharedClientByConnectTimeout() {
+        HttpClient fast = BankPaymentClient.sharedHttpClient(Duration.ofMillis(1_234));
+        HttpClient slow = BankPaymentClient.sharedHttpClient(Duration.ofMillis(4_321));
+
+        assertSame(fast, BankPaymentClient.sharedHttpClient(Duration.ofMillis(1_234)));
+        assertNotSame(fast, slow);
+        assertEquals(Duration.ofMillis(1_234), fast.connectTimeout().orElseThrow());
+        assertEquals(Duration.ofMillis(4_321), slow.connectTimeout().orElseThrow());
+    }
+}
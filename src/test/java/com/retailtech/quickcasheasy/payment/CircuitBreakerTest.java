@@ -0,0 +1,113 @@
+package com.retailtech.quickcasheasy.payment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        // Window of 10 calls, evaluated after 4, opens at 50% failures, stays open for 1 second
+        circuitBreaker = new CircuitBreaker(10, 4, 50, 1_000, clock::get);
+    }
+
+    @Test
+    @DisplayName("Should stay closed until the minimum number of calls is recorded")
+    void shouldWaitForMinimumCalls() {
+        fail(3);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(100, circuitBreaker.getStats().getFailureRatePercent());
+    }
+
+    @Test
+    @DisplayName("Should open at the failure rate threshold and reject calls while open")
+    void shouldOpenAtThreshold() {
+        succeed(2);
+        fail(2);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+
+        CircuitBreakerStats stats = circuitBreaker.getStats();
+        assertEquals(1, stats.getTimesOpened());
+        assertEquals(2, stats.getRejectedCalls());
+    }
+
+    @Test
+    @DisplayName("Should only count the calls inside the sliding window")
+    void shouldSlideWindow() {
+        circuitBreaker = new CircuitBreaker(4, 4, 75, 1_000, clock::get);
+        fail(2);
+        succeed(2);
+        // Window: F F S S (50%); the next two successes push both failures out
+        succeed(2);
+        assertEquals(0, circuitBreaker.getStats().getFailureRatePercent());
+        fail(2);
+        // Window: S S F F (50%), below 75%
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        fail(1);
+        // Window: F S F F (75%)
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("Should let one trial call through after the open duration and close when it succeeds")
+    void shouldCloseAfterSuccessfulTrial() {
+        fail(4);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertFalse(circuitBreaker.tryAcquirePermission());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission(), "Only one trial call at a time");
+
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getStats().getFailureRatePercent());
+
+        CircuitBreakerStats stats = circuitBreaker.getStats();
+        assertEquals(1, stats.getTimesOpened());
+        assertEquals(1, stats.getTimesHalfOpened());
+        assertEquals(1, stats.getTimesClosed());
+    }
+
+    @Test
+    @DisplayName("Should open again when the trial call fails")
+    void shouldReopenAfterFailedTrial() {
+        fail(4);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        assertEquals(2, circuitBreaker.getStats().getTimesOpened());
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(circuitBreaker.tryAcquirePermission());
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(circuitBreaker.tryAcquirePermission());
+            circuitBreaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.retailtech.quickcasheasy.payment;
+
+import com.retailtech.quickcasheasy.concurrent.TokenBucket;
+import com.retailtech.quickcasheasy.database.DatabaseUtils;
+import com.retailtech.quickcasheasy.database.SchemaMigrator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the payment journal and forwarder against the local database and a stub bank.
+ */
+class PaymentForwarderTest {
+
+    private static final String METHOD = "TEST-JOURNAL";
+    private static final BigDecimal AMOUNT = new BigDecimal("12.50");
+
+    private DatabaseUtils dbUtils;
+    private StubBankServer bank;
+    private PaymentJournal journal;
+    private PaymentForwarder forwarder;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dbUtils = new DatabaseUtils();
+        new SchemaMigrator().migrate();
+        deleteTestPayments();
+
+        bank = new StubBankServer().respondWith(200, "OK");
+        journal = new PaymentJournal(dbUtils);
+        forwarder = createForwarder(new TokenBucket(1_000, 1_000));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        forwarder.close();
+        bank.close();
+        deleteTestPayments();
+    }
+
+    @Test
+    @DisplayName("Should store the payment claimed by the caller and settle it when the bank approves")
+    void shouldSettleApprovedPayment() throws Exception {
+        PaymentJournal.Entry entry = journal.append(AMOUNT, METHOD, 1234);
+        assertEquals("SENT", statusOf(entry));
+
+        PaymentResult result = forwarder.send(entry).get(5, TimeUnit.SECONDS);
+
+        assertTrue(result.isApproved());
+        assertEquals("SETTLED", statusOf(entry));
+        assertTrue(successOf(entry));
+        assertNull(cardOf(entry), "The card number is cleared once the payment is settled");
+        assertEquals(entry.getIdempotencyKey(), bank.getRequests().get(0).headers.get("idempotency-key"));
+    }
+
+    @Test
+    @DisplayName("Should keep the payment while the bank is down and send it with the same key when it is back")
+    void shouldQueueAndDrainWhenBankReturns() throws Exception {
+        bank.respondWith(503, "Down");
+        PaymentJournal.Entry entry = journal.append(AMOUNT, METHOD, 1234);
+
+        PaymentResult result = forwarder.send(entry).get(5, TimeUnit.SECONDS);
+
+        assertEquals(PaymentResult.Status.QUEUED, result.getStatus());
+        assertTrue(result.isAccepted(), "The sale can be completed");
+        assertEquals("PENDING", statusOf(entry));
+        assertEquals(1, forwarder.getPendingCount());
+        assertEquals(1234, cardOf(entry), "A queued payment keeps its card number until it is sent");
+
+        bank.respondWith(200, "OK");
+        forwarder.drain();
+
+        assertEquals("SETTLED", statusOf(entry));
+        assertNull(cardOf(entry));
+        assertEquals(0, forwarder.getPendingCount());
+        assertEquals(2, bank.getRequests().size());
+        assertEquals(bank.getRequests().get(0).headers.get("idempotency-key"), bank.getRequests().get(1).headers.get("idempotency-key"));
+    }
+
+    @Test
+    @DisplayName("Should mark a declined payment FAILED and not send it again")
+    void shouldFailDeclinedPayment() throws Exception {
+        bank.respondWith(400, "Card blocked");
+        PaymentJournal.Entry entry = journal.append(AMOUNT, METHOD, 1234);
+
+        PaymentResult result = forwarder.send(entry).get(5, TimeUnit.SECONDS);
+        forwarder.drain();
+
+        assertEquals(PaymentResult.Status.DECLINED, result.getStatus());
+        assertFalse(result.isAccepted());
+        assertEquals("FAILED", statusOf(entry));
+        assertNull(cardOf(entry), "The card number is cleared once the payment has failed");
+        assertEquals(1, bank.getRequests().size());
+    }
+
+    @Test
+    @DisplayName("Should fail payments the bank rejects with 404 or 403 instead of sending them again")
+    void shouldFailNonOutageErrors() throws Exception {
+        for (int httpStatus : new int[]{404, 403}) {
+            bank.respondWith(httpStatus, "Rejected");
+            PaymentJournal.Entry entry = journal.append(AMOUNT, METHOD, 1234);
+
+            PaymentResult result = forwarder.send(entry).get(5, TimeUnit.SECONDS);
+
+            assertEquals(PaymentResult.Status.BANK_ERROR, result.getStatus());
+            assertFalse(result.isAccepted(), "The cashier sees the payment as rejected");
+            assertEquals("FAILED", statusOf(entry));
+        }
+        int requestsBefore = bank.getRequests().size();
+
+        forwarder.drain();
+
+        assertEquals(requestsBefore, bank.getRequests().size(), "Failed payments are not sent again");
+        assertEquals(0, forwarder.getPendingCount());
+        assertEquals(2, forwarder.getFailedCount());
+    }
+
+    @Test
+    @DisplayName("Should drain the backlog in journal order and stop at the rate limit")
+    void shouldRateLimitDrain() {
+        forwarder.close();
+        forwarder = createForwarder(new TokenBucket(0.001, 3));
+        for (int card = 1; card <= 5; card++) {
+            appendPending(card);
+        }
+
+        forwarder.drain();
+
+        // The batch is sent concurrently, so only the selection is ordered, not the arrival at the bank
+        Set<String> sentCards = bank.getRequests().stream()
+                .map(request -> request.target.replaceAll(".*cardNumber=(\\d+)&.*", "$1"))
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("1", "2", "3"), sentCards);
+        assertEquals(3, forwarder.getSettledCount());
+        assertEquals(2, forwarder.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("Should not let the drain send a payment while the live attempt is running")
+    void shouldNotDrainLiveAttempt() throws Exception {
+        bank.respondWith(400, "Card blocked");
+        PaymentJournal.Entry entry = journal.append(AMOUNT, METHOD, 1234);
+
+        forwarder.drain();
+
+        assertTrue(bank.getRequests().isEmpty(), "The drain skips a payment the caller is sending");
+        PaymentResult result = forwarder.send(entry).get(5, TimeUnit.SECONDS);
+        assertEquals(PaymentResult.Status.DECLINED, result.getStatus(), "The caller gets the bank's answer, not QUEUED");
+        assertFalse(result.isAccepted());
+        assertEquals(1, bank.getRequests().size());
+    }
+
+    @Test
+    @DisplayName("Should skip a pending payment that is claimed after the drain has read it")
+    void shouldSkipPaymentClaimedDuringDrain() {
+        PaymentJournal.Entry entry = appendPending(1234);
+        PaymentRepository claimingRepository = new PaymentRepositoryImpl(dbUtils) {
+            @Override
+            public boolean transitionStatus(Long id, PaymentStatus from, PaymentStatus to) {
+                // Another sender wins the race between findPending and the claim
+                super.transitionStatus(id, PaymentStatus.PENDING, PaymentStatus.SENT);
+                return super.transitionStatus(id, from, to);
+            }
+        };
+        forwarder.close();
+        forwarder = new PaymentForwarder(journal, claimingRepository, createResilientClient(), new TokenBucket(1_000, 1_000), 10);
+
+        forwarder.drain();
+
+        assertTrue(bank.getRequests().isEmpty());
+        assertEquals("SENT", statusOf(entry));
+    }
+
+    @Test
+    @DisplayName("Should send payments left SENT by a previous run again")
+    void shouldRecoverInFlightPayments() {
+        PaymentJournal.Entry entry = journal.append(AMOUNT, METHOD, 1234);
+
+        assertTrue(journal.recoverInFlight() >= 1);
+        forwarder.drain();
+
+        assertEquals("SETTLED", statusOf(entry));
+    }
+
+    @Test
+    @DisplayName("Should export card payments and payments stored without the journal for a period")
+    void shouldStreamPaymentsCreatedInPeriod() {
+        PaymentRepositoryImpl repository = new PaymentRepositoryImpl(dbUtils);
+        long from = System.currentTimeMillis();
+        PaymentJournal.Entry card = journal.append(AMOUNT, METHOD, 1234);
+        Payment stored = new Payment(null, AMOUNT, METHOD, "COMPLETED", true);
+        repository.save(stored);
+        long to = System.currentTimeMillis() + 1;
+
+        Set<Long> exported;
+        try (Stream<Payment> payments = repository.streamCreatedBetween(from, to)) {
+            exported = payments.filter(payment -> METHOD.equals(payment.getMethod()))
+                    .map(Payment::getId)
+                    .collect(Collectors.toSet());
+        }
+
+        assertEquals(Set.of(card.getPaymentId(), stored.getId()), exported);
+    }
+
+    private PaymentForwarder createForwarder(TokenBucket rateLimiter) {
+        return new PaymentForwarder(journal, new PaymentRepositoryImpl(dbUtils), createResilientClient(), rateLimiter, 10);
+    }
+
+    private ResilientBankPaymentClient createResilientClient() {
+        BankPaymentClient bankClient = new BankPaymentClient(
+                new BankClientConfig(bank.paymentUrl(), Duration.ofSeconds(2), Duration.ofMillis(500)));
+        // Single attempt and a breaker that does not open, so every call reaches the stub
+        return new ResilientBankPaymentClient(bankClient,
+                new CircuitBreaker(100, 100, 100, 1_000, System::nanoTime), new RetryPolicy(1, 0, 0));
+    }
+
+    // A payment waiting for the drain, as left by a bank outage
+    private PaymentJournal.Entry appendPending(int cardNumber) {
+        PaymentJournal.Entry entry = journal.append(AMOUNT, METHOD, cardNumber);
+        assertTrue(new PaymentRepositoryImpl(dbUtils).transitionStatus(entry.getPaymentId(), PaymentStatus.SENT, PaymentStatus.PENDING));
+        return entry;
+    }
+
+    private String statusOf(PaymentJournal.Entry entry) {
+        return dbUtils.executeQuery("SELECT status FROM payments WHERE id = ?",
+                rs -> rs.next() ? rs.getString(1) : null, entry.getPaymentId());
+    }
+
+    private boolean successOf(PaymentJournal.Entry entry) {
+        return dbUtils.executeQuery("SELECT success FROM payments WHERE id = ?",
+                rs -> rs.next() && rs.getBoolean(1), entry.getPaymentId());
+    }
+
+    private Integer cardOf(PaymentJournal.Entry entry) {
+        return dbUtils.executeQuery("SELECT card_number FROM payment_journal WHERE payment_id = ?",
+                rs -> rs.next() ? (Integer) rs.getObject(1) : null, entry.getPaymentId());
+    }
+
+    private void deleteTestPayments() {
+        dbUtils.executeUpdate("DELETE FROM payment_journal WHERE payment_id IN (SELECT id FROM payments WHERE method = ?)", METHOD);
+        dbUtils.executeUpdate("DELETE FROM payments WHERE method = ?", METHOD);
+    }
+}
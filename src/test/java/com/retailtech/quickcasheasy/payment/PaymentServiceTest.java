@@ -0,0 +1,151 @@
+package com.retailtech.quickcasheasy.payment;
+
+import com.retailtech.quickcasheasy.exception.PaymentNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for PaymentService.
+ * Focuses on how payment statuses are written.
+ */
+@ExtendWith(MockitoExtension.class)
+class PaymentServiceTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentJournal paymentJournal;
+
+    @Mock
+    private PaymentForwarder paymentForwarder;
+
+    private PaymentService paymentService;
+
+    @BeforeEach
+    void setUp() {
+        paymentService = new PaymentService(paymentRepository, paymentJournal, paymentForwarder);
+    }
+
+    @Test
+    @DisplayName("Should keep the status and success flag given to a new payment")
+    void it_should_keep_status_of_new_payment() {
+        Payment payment = new Payment(BigDecimal.TEN, "Cash", "SETTLED", true);
+
+        assertEquals("SETTLED", payment.getStatus());
+        assertTrue(payment.isSuccess());
+    }
+
+    @Test
+    @DisplayName("Should update the status with one write and no read")
+    void it_should_update_status_without_reading() {
+        when(paymentRepository.updateStatus(1L, "COMPLETED", true)).thenReturn(true);
+
+        paymentService.updatePaymentStatus(1L, "COMPLETED", true);
+
+        verify(paymentRepository).updateStatus(1L, "COMPLETED", true);
+        verify(paymentRepository, never()).findById(any());
+        verify(paymentRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should throw PaymentNotFoundException when no payment was updated")
+    void it_should_throw_when_updating_missing_payment() {
+        when(paymentRepository.updateStatus(999L, "FAILED", false)).thenReturn(false);
+
+        assertThrows(PaymentNotFoundException.class, () -> paymentService.updatePaymentStatus(999L, "FAILED", false));
+    }
+
+    @Test
+    @DisplayName("Should transition the status with a compare-and-set")
+    void it_should_transition_status() {
+        when(paymentRepository.transitionStatus(1L, PaymentStatus.PENDING, PaymentStatus.SETTLED)).thenReturn(true);
+
+        assertTrue(paymentService.transitionPaymentStatus(1L, PaymentStatus.PENDING, PaymentStatus.SETTLED));
+        verify(paymentRepository, never()).existsById(any());
+    }
+
+    @Test
+    @DisplayName("Should report a transition lost to a concurrent change")
+    void it_should_not_overwrite_concurrent_change() {
+        when(paymentRepository.transitionStatus(1L, PaymentStatus.PENDING, PaymentStatus.SETTLED)).thenReturn(false);
+        when(paymentRepository.existsById(1L)).thenReturn(true);
+
+        assertFalse(paymentService.transitionPaymentStatus(1L, PaymentStatus.PENDING, PaymentStatus.SETTLED));
+    }
+
+    @Test
+    @DisplayName("Should throw PaymentNotFoundException when transitioning a missing payment")
+    void it_should_throw_when_transitioning_missing_payment() {
+        when(paymentRepository.transitionStatus(999L, PaymentStatus.PENDING, PaymentStatus.SENT)).thenReturn(false);
+        when(paymentRepository.existsById(999L)).thenReturn(false);
+
+        assertThrows(PaymentNotFoundException.class,
+                () -> paymentService.transitionPaymentStatus(999L, PaymentStatus.PENDING, PaymentStatus.SENT));
+    }
+
+    @Test
+    @DisplayName("Should journal the payment before sending it to the bank")
+    void it_should_journal_before_sending() throws Exception {
+        PaymentJournal.Entry entry = new PaymentJournal.Entry(7L, "key-7", 1234, BigDecimal.TEN);
+        PaymentResult approved = PaymentResult.fromResponse(200, "OK");
+        when(paymentJournal.append(BigDecimal.TEN, "CARD", 1234)).thenReturn(entry);
+        when(paymentForwarder.send(entry)).thenReturn(CompletableFuture.completedFuture(approved));
+
+        PaymentResult result = paymentService.submitPayment(BigDecimal.TEN, "CARD", 1234).get(5, TimeUnit.SECONDS);
+
+        assertSame(approved, result);
+        verify(paymentJournal).append(BigDecimal.TEN, "CARD", 1234);
+        verify(paymentForwarder).send(entry);
+    }
+
+    @Test
+    @DisplayName("Should map typed bank results to the final payment status")
+    void it_should_map_result_to_status() {
+        assertEquals(PaymentStatus.SETTLED, PaymentResult.fromResponse(200, "").toPaymentStatus());
+        assertEquals(PaymentStatus.FAILED, PaymentResult.fromResponse(400, "").toPaymentStatus());
+        assertEquals(PaymentStatus.PENDING, PaymentResult.fromResponse(503, "").toPaymentStatus());
+        assertEquals(PaymentStatus.PENDING, PaymentResult.timedOut().toPaymentStatus());
+        assertEquals(PaymentStatus.PENDING, PaymentResult.circuitOpen().toPaymentStatus());
+        assertEquals(PaymentStatus.FAILED, PaymentResult.fromResponse(404, "").toPaymentStatus());
+        assertEquals(PaymentStatus.FAILED, PaymentResult.fromResponse(302, "").toPaymentStatus());
+        assertEquals(PaymentStatus.FAILED, PaymentResult.fromResponse(402, "").toPaymentStatus());
+    }
+
+    @Test
+    @DisplayName("Should stream the payments of a time window from the repository")
+    void it_should_stream_payments_of_a_window() {
+        Instant from = Instant.parse("2025-01-01T00:00:00Z");
+        Instant to = Instant.parse("2026-01-01T00:00:00Z");
+        Payment payment = new Payment(1L, BigDecimal.TEN, "CARD", "COMPLETED", true);
+        when(paymentRepository.streamCreatedBetween(from.toEpochMilli(), to.toEpochMilli())).thenReturn(Stream.of(payment));
+
+        try (Stream<Payment> payments = paymentService.streamPayments(from, to)) {
+            assertEquals(1, payments.count());
+        }
+        verify(paymentRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should reject a time window that ends before it starts")
+    void it_should_reject_an_inverted_window() {
+        Instant now = Instant.now();
+
+        assertThrows(IllegalArgumentException.class, () -> paymentService.streamPayments(now, now.minusSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> paymentService.streamPayments(null, now));
+    }
+}
@@ -0,0 +1,208 @@
+package com.retailtech.quickcasheasy.payment;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests ResilientBankPaymentClient against a local bank stub that injects faults.
+ */
+class ResilientBankPaymentClientTest {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("12.50");
+
+    private StubBankServer bank;
+    private CircuitBreaker circuitBreaker;
+    private ResilientBankPaymentClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        bank = new StubBankServer().respondWith(200, "OK");
+        BankPaymentClient bankClient = new BankPaymentClient(
+                new BankClientConfig(bank.paymentUrl(), Duration.ofSeconds(2), Duration.ofMillis(300)));
+        // Opens when 2 of the last 4 calls failed; retries up to 3 attempts with at most 20 ms between them
+        circuitBreaker = new CircuitBreaker(4, 2, 50, 60_000, System::nanoTime);
+        client = new ResilientBankPaymentClient(bankClient, circuitBreaker, new RetryPolicy(3, 10, 20));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        bank.close();
+    }
+
+    @Test
+    @DisplayName("Should retry a server error with the same idempotency key")
+    void shouldRetryWithSameIdempotencyKey() throws Exception {
+        bank.failNext(503, "Unavailable");
+
+        PaymentResult result = client.makePayment(1234, AMOUNT).get(5, TimeUnit.SECONDS);
+
+        assertTrue(result.isApproved());
+        assertEquals(2, bank.getRequests().size());
+        String key = bank.getRequests().get(0).headers.get("idempotency-key");
+        assertNotNull(key);
+        assertEquals(key, bank.getRequests().get(1).headers.get("idempotency-key"));
+        assertEquals(1, client.getRetries());
+    }
+
+    @Test
+    @DisplayName("Should retry a dropped connection")
+    void shouldRetryDroppedConnection() throws Exception {
+        bank.dropNext();
+
+        PaymentResult result = client.makePayment(1234, AMOUNT).get(5, TimeUnit.SECONDS);
+
+        assertTrue(result.isApproved());
+        assertEquals(2, bank.getRequests().size());
+    }
+
+    @Test
+    @DisplayName("Should not retry a declined payment")
+    void shouldNotRetryDecline() throws Exception {
+        bank.respondWith(400, "Card blocked");
+
+        PaymentResult result = client.makePayment(1234, AMOUNT).get(5, TimeUnit.SECONDS);
+
+        assertEquals(PaymentResult.Status.DECLINED, result.getStatus());
+        assertEquals(1, bank.getRequests().size());
+        assertEquals(0, client.getRetries());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("Should give up after the last attempt and report the bank's answer")
+    void shouldGiveUpAfterMaxAttempts() throws Exception {
+        circuitBreaker = new CircuitBreaker(10, 10, 100, 60_000, System::nanoTime);
+        client = new ResilientBankPaymentClient(new BankPaymentClient(
+                new BankClientConfig(bank.paymentUrl(), Duration.ofSeconds(2), Duration.ofMillis(300))),
+                circuitBreaker, new RetryPolicy(3, 10, 20));
+        bank.respondWith(500, "Boom");
+
+        PaymentResult result = client.makePayment(1234, AMOUNT).get(5, TimeUnit.SECONDS);
+
+        assertEquals(PaymentResult.Status.BANK_ERROR, result.getStatus());
+        assertEquals(3, bank.getRequests().size());
+        assertEquals(2, client.getRetries());
+    }
+
+    @Test
+    @DisplayName("Should open the circuit and fail fast without contacting the bank")
+    void shouldFailFastWhenOpen() throws Exception {
+        bank.respondWith(500, "Boom");
+
+        PaymentResult first = client.makePayment(1234, AMOUNT).get(5, TimeUnit.SECONDS);
+        int requestsWhileClosed = bank.getRequests().size();
+
+        assertEquals(PaymentResult.Status.BANK_ERROR, first.getStatus(), "The last answer seen is reported");
+        assertEquals(2, requestsWhileClosed, "The circuit opened after two failures");
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        long start = System.nanoTime();
+        PaymentResult second = client.makePayment(1234, AMOUNT).get(5, TimeUnit.SECONDS);
+
+        assertEquals(PaymentResult.Status.CIRCUIT_OPEN, second.getStatus());
+        assertEquals(requestsWhileClosed, bank.getRequests().size());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 100);
+
+        CircuitBreakerStats stats = client.getCircuitBreakerStats();
+        assertEquals(1, stats.getTimesOpened());
+        assertEquals(2, stats.getRejectedCalls());
+    }
+
+    @Test
+    @DisplayName("Should fail the future when the bank stays unreachable")
+    void shouldFailWhenUnreachable() throws Exception {
+        circuitBreaker = new CircuitBreaker(10, 10, 100, 60_000, System::nanoTime);
+        BankPaymentClient bankClient = new BankPaymentClient(
+                new BankClientConfig(bank.paymentUrl(), Duration.ofSeconds(2), Duration.ofMillis(300)));
+        client = new ResilientBankPaymentClient(bankClient, circuitBreaker, new RetryPolicy(2, 10, 20));
+        bank.dropNext().dropNext();
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> client.makePayment(1234, AMOUNT).get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(IOException.class, e.getCause());
+        assertEquals(2, bank.getRequests().size());
+    }
+
+    @Test
+    @DisplayName("Should retry when the bank client throws before sending")
+    void shouldRetryWhenClientThrows() throws Exception {
+        client = new ResilientBankPaymentClient(throwingClient(1), circuitBreaker, new RetryPolicy(3, 10, 20));
+
+        PaymentResult result = client.makePayment(1234, AMOUNT).get(5, TimeUnit.SECONDS);
+
+        assertTrue(result.isApproved());
+        assertEquals(1, bank.getRequests().size());
+        assertEquals(1, client.getRetries());
+    }
+
+    @Test
+    @DisplayName("Should release the half-open trial and fail the payment when the bank client throws")
+    void shouldReleaseTrialWhenClientThrows() throws Exception {
+        AtomicLong clock = new AtomicLong();
+        circuitBreaker = new CircuitBreaker(1, 1, 100, 1_000, clock::get);
+        client = new ResilientBankPaymentClient(throwingClient(2), circuitBreaker, new RetryPolicy(1, 0, 0));
+
+        // The first failure opens the circuit; the trial call after the open period throws as well
+        assertThrows(ExecutionException.class, () -> client.makePayment(1234, AMOUNT).get(5, TimeUnit.SECONDS));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> client.makePayment(1234, AMOUNT).get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(), "The failed trial opened the circuit again");
+
+        // The next trial is let through instead of being rejected forever
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertTrue(client.makePayment(1234, AMOUNT).get(5, TimeUnit.SECONDS).isApproved());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    // A client whose first calls throw before a request is sent, as on a bad URI or a rejected task
+    private BankPaymentClient throwingClient(int failures) {
+        AtomicInteger remaining = new AtomicInteger(failures);
+        return new BankPaymentClient(new BankClientConfig(bank.paymentUrl(), Duration.ofSeconds(2), Duration.ofMillis(300))) {
+            @Override
+            public CompletableFuture<PaymentResult> makeBankPaymentAsync(int cardNumber, BigDecimal amount, String idempotencyKey) {
+                if (remaining.getAndDecrement() > 0) {
+                    throw new IllegalStateException("Request could not be built");
+                }
+                return super.makeBankPaymentAsync(cardNumber, amount, idempotencyKey);
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should draw backoff delays below an exponentially growing cap")
+    void shouldBackOffWithJitter() {
+        RetryPolicy policy = new RetryPolicy(10, 100, 1_000);
+
+        assertEquals(100, policy.backoffCapMillis(1));
+        assertEquals(200, policy.backoffCapMillis(2));
+        assertEquals(400, policy.backoffCapMillis(3));
+        assertEquals(1_000, policy.backoffCapMillis(5));
+        assertEquals(1_000, policy.backoffCapMillis(100));
+
+        boolean sawDifferentDelays = false;
+        long first = policy.backoffMillis(3);
+        for (int i = 0; i < 100; i++) {
+            long delay = policy.backoffMillis(3);
+            assertTrue(delay >= 0 && delay < 400, "Delay " + delay);
+            sawDifferentDelays |= delay != first;
+        }
+        assertTrue(sawDifferentDelays, "Delays should be jittered");
+    }
+}
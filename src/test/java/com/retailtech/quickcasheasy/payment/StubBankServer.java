@@ -0,0 +1,160 @@
+package com.retailtech.quickcasheasy.payment;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Minimal HTTP/1.1 server standing in for the bank's payment API in tests.
+ * Requests are answered with queued faults first, then with the configured status and body after the configured delay.
+ */
+class StubBankServer implements AutoCloseable {
+
+    /**
+     * A request received by the stub.
+     */
+    static final class RecordedRequest {
+        final String method;
+        final String target;
+        final Map<String, String> headers; // Lower-case header names
+
+        RecordedRequest(String method, String target, Map<String, String> headers) {
+            this.method = method;
+            this.target = target;
+            this.headers = headers;
+        }
+    }
+
+    // A scripted answer; status 0 drops the connection without answering
+    private static final class Fault {
+        final int status;
+        final String body;
+
+        Fault(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private final ServerSocket serverSocket;
+    private final List<RecordedRequest> requests = new CopyOnWriteArrayList<>();
+    private final Queue<Fault> faults = new ConcurrentLinkedQueue<>();
+    private volatile int status = 200;
+    private volatile String body = "OK";
+    private volatile long delayMillis;
+
+    StubBankServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "stub-bank");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Sets the answer to all following requests.
+     */
+    StubBankServer respondWith(int status, String body) {
+        this.status = status;
+        this.body = body;
+        return this;
+    }
+
+    /**
+     * Answers the next request with the given status, before falling back to the configured answer.
+     */
+    StubBankServer failNext(int status, String body) {
+        faults.add(new Fault(status, body));
+        return this;
+    }
+
+    /**
+     * Closes the connection of the next request without answering it.
+     */
+    StubBankServer dropNext() {
+        faults.add(new Fault(0, ""));
+        return this;
+    }
+
+    /**
+     * Delays all following answers, to simulate a slow bank.
+     */
+    StubBankServer delayResponses(long delayMillis) {
+        this.delayMillis = delayMillis;
+        return this;
+    }
+
+    URI paymentUrl() {
+        return URI.create("http://127.0.0.1:" + serverSocket.getLocalPort() + "/api/payment/make");
+    }
+
+    List<RecordedRequest> getRequests() {
+        return requests;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread.ofVirtual().start(() -> handle(socket));
+            } catch (IOException e) {
+                return; // Server closed
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+            String requestLine = reader.readLine();
+            if (requestLine == null) {
+                return;
+            }
+            Map<String, String> headers = new HashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                headers.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+            }
+            String[] parts = requestLine.split(" ");
+            requests.add(new RecordedRequest(parts[0], parts[1], headers));
+
+            Fault fault = faults.poll();
+            if (fault != null && fault.status == 0) {
+                return;
+            }
+            int status = fault != null ? fault.status : this.status;
+            String body = fault != null ? fault.body : this.body;
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+            byte[] content = body.getBytes(StandardCharsets.UTF_8);
+            String head = "HTTP/1.1 " + status + " Stub\r\n"
+                    + "Content-Type: text/plain\r\n"
+                    + "Content-Length: " + content.length + "\r\n"
+                    + "Connection: close\r\n\r\n";
+            OutputStream out = socket.getOutputStream();
+            out.write(head.getBytes(StandardCharsets.ISO_8859_1));
+            out.write(content);
+            out.flush();
+        } catch (IOException | InterruptedException e) {
+            // Client gave up (for example after a timeout); nothing to answer
+        }
+    }
+}
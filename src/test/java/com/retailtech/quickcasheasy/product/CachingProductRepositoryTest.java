@@ -0,0 +1,133 @@
+package com.retailtech.quickcasheasy.product;
+
+import com.retailtech.quickcasheasy.product.dto.ProductDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingProductRepositoryTest {
+
+    private ProductRepository delegate;
+    private CachingProductRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(ProductRepository.class);
+        repository = new CachingProductRepository(delegate, 2);
+    }
+
+    private void givenProduct(String barcode, String name) {
+        when(delegate.getProductByBarcode(barcode))
+                .thenReturn(Optional.of(new ProductDTO(barcode, name, BigDecimal.valueOf(10.00), 1L)));
+    }
+
+    @Test
+    @DisplayName("Should serve repeat lookups from the cache")
+    void shouldServeRepeatLookupsFromCache() {
+        givenProduct("0100000000001", "Apple");
+
+        repository.getProductByBarcode("0100000000001");
+        Optional<ProductDTO> second = repository.getProductByBarcode("0100000000001");
+
+        assertTrue(second.isPresent());
+        assertEquals("Apple", second.get().getName());
+        verify(delegate, times(1)).getProductByBarcode("0100000000001");
+
+        CatalogCacheStats stats = repository.getCacheStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    @DisplayName("Should not cache unknown barcodes")
+    void shouldNotCacheUnknownBarcodes() {
+        when(delegate.getProductByBarcode("unknown")).thenReturn(Optional.empty());
+
+        assertFalse(repository.getProductByBarcode("unknown").isPresent());
+        assertFalse(repository.getProductByBarcode("unknown").isPresent());
+
+        verify(delegate, times(2)).getProductByBarcode("unknown");
+        assertEquals(0, repository.getCacheStats().getSize());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used product when full")
+    void shouldEvictLeastRecentlyUsed() {
+        givenProduct("1", "Apple");
+        givenProduct("2", "Banana");
+        givenProduct("3", "Carrot");
+
+        repository.getProductByBarcode("1");
+        repository.getProductByBarcode("2");
+        repository.getProductByBarcode("1");   // 2 is now least recently used
+        repository.getProductByBarcode("3");   // evicts 2
+        repository.getProductByBarcode("1");
+
+        verify(delegate, times(1)).getProductByBarcode("1");
+        CatalogCacheStats stats = repository.getCacheStats();
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getEvictions());
+
+        repository.getProductByBarcode("2");
+        verify(delegate, times(2)).getProductByBarcode("2");
+    }
+
+    @Test
+    @DisplayName("Should invalidate the cached product when it is saved")
+    void shouldInvalidateOnSave() {
+        givenProduct("1", "Apple");
+        repository.getProductByBarcode("1");
+
+        repository.saveProduct(new Product("1", "Green Apple", BigDecimal.valueOf(11.00), 1L));
+        repository.getProductByBarcode("1");
+
+        verify(delegate, times(1)).saveProduct(any(Product.class));
+        verify(delegate, times(2)).getProductByBarcode("1");
+    }
+
+    @Test
+    @DisplayName("Should invalidate the cached product when it is deleted")
+    void shouldInvalidateOnDelete() {
+        givenProduct("1", "Apple");
+        repository.getProductByBarcode("1");
+
+        repository.deleteProductByBarcode("1");
+        when(delegate.getProductByBarcode("1")).thenReturn(Optional.empty());
+
+        assertFalse(repository.existsByBarcode("1"));
+        verify(delegate, times(1)).deleteProductByBarcode("1");
+    }
+
+    @Test
+    @DisplayName("Should not cache a product loaded while it was being saved")
+    void shouldNotCacheProductInvalidatedDuringLoad() {
+        // The save commits and invalidates after the old row was read, but before it is cached
+        when(delegate.getProductByBarcode("1")).thenAnswer(invocation -> {
+            repository.saveProduct(new Product("1", "Green Apple", BigDecimal.valueOf(11.00), 1L));
+            return Optional.of(new ProductDTO("1", "Apple", BigDecimal.valueOf(10.00), 1L));
+        }).thenReturn(Optional.of(new ProductDTO("1", "Green Apple", BigDecimal.valueOf(11.00), 1L)));
+
+        assertEquals("Apple", repository.getProductByBarcode("1").orElseThrow().getName());
+        assertEquals("Green Apple", repository.getProductByBarcode("1").orElseThrow().getName());
+        verify(delegate, times(2)).getProductByBarcode("1");
+    }
+
+    @Test
+    @DisplayName("Should not cache a product loaded while it was being deleted")
+    void shouldNotCacheProductDeletedDuringLoad() {
+        when(delegate.getProductByBarcode("1")).thenAnswer(invocation -> {
+            repository.deleteProductByBarcode("1");
+            return Optional.of(new ProductDTO("1", "Apple", BigDecimal.valueOf(10.00), 1L));
+        }).thenReturn(Optional.empty());
+
+        repository.getProductByBarcode("1");
+
+        assertFalse(repository.existsByBarcode("1"));
+    }
+}
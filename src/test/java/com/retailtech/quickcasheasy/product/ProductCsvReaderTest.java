@@ -0,0 +1,70 @@
+package com.retailtech.quickcasheasy.product;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCsvReaderTest {
+
+    private List<Product> readAll(String csv) {
+        List<Product> products = new ArrayList<>();
+        new ProductCsvReader(new StringReader(csv)).forEach(products::add);
+        return products;
+    }
+
+    @Test
+    @DisplayName("Should skip the header and parse every product line")
+    void shouldParseProducts() {
+        List<Product> products = readAll("""
+                barcode,name,price,category_id
+                0100000000001,Apple,10.00,1
+                0200000000001,Milk,20.50,2
+                """);
+
+        assertEquals(2, products.size());
+        Product milk = products.get(1);
+        assertEquals("0200000000001", milk.getBarcode());
+        assertEquals("Milk", milk.getName());
+        assertEquals(new BigDecimal("20.50"), milk.getPrice());
+        assertEquals(2L, milk.getCategoryId());
+    }
+
+    @Test
+    @DisplayName("Should handle quoted names and an empty category")
+    void shouldHandleQuotedFieldsAndEmptyCategory() {
+        List<Product> products = readAll("1234,\"Chips, \"\"Salted\"\"\",25.90,\n");
+
+        assertEquals(1, products.size());
+        assertEquals("Chips, \"Salted\"", products.get(0).getName());
+        assertNull(products.get(0).getCategoryId());
+    }
+
+    @Test
+    @DisplayName("Should parse lazily and report the line number of a bad line")
+    void shouldReportBadLineLazily() {
+        Iterator<Product> iterator = new ProductCsvReader(new StringReader("1,Apple,10.00,1\n2,Banana,not-a-price,1\n")).iterator();
+
+        assertEquals("Apple", iterator.next().getName());
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, iterator::next);
+        assertTrue(exception.getMessage().startsWith("Line 2"), "Message should name the failing line");
+    }
+
+    @Test
+    @DisplayName("Should skip a byte order mark and an upper-case header")
+    void shouldSkipByteOrderMarkAndHeader() {
+        List<Product> products = readAll("\uFEFFBARCODE,Name,Price,Category_ID\n0100000000001,Apple,10.00,1\n");
+
+        assertEquals(1, products.size());
+        assertEquals("0100000000001", products.get(0).getBarcode());
+
+        List<Product> withoutHeader = readAll("\uFEFF0100000000001,Apple,10.00,1\n");
+        assertEquals("0100000000001", withoutHeader.get(0).getBarcode());
+    }
+}
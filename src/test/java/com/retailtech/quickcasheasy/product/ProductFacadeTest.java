@@ -8,7 +8,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.StringReader;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -114,4 +116,24 @@ class ProductFacadeTest {
         // Then
         verify(productService, times(1)).createProduct(barcode, name, price, categoryId);
     }
+
+    @Test
+    void it_should_import_products_from_csv_via_facade() {
+        // Given
+        String csv = "barcode,name,price,category_id\n123456,Product A,10.99,1\n789012,Product B,12.99,2\n";
+        List<Product> imported = new ArrayList<>();
+        when(productService.saveProducts(any(), eq(100), any())).thenAnswer(invocation -> {
+            Iterable<Product> products = invocation.getArgument(0);
+            products.forEach(imported::add);
+            return (long) imported.size();
+        });
+
+        // When
+        long count = productFacade.importProductsFromCsv(new StringReader(csv), 100, null);
+
+        // Then
+        assertEquals(2, count);
+        assertEquals("Product A", imported.get(0).getName());
+        assertEquals(BigDecimal.valueOf(12.99), imported.get(1).getPrice());
+    }
 }
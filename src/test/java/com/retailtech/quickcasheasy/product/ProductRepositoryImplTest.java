@@ -0,0 +1,101 @@
+package com.retailtech.quickcasheasy.product;
+
+import com.retailtech.quickcasheasy.database.DatabaseUtils;
+import com.retailtech.quickcasheasy.product.dto.ProductDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductRepositoryImplTest {
+
+    private ProductRepositoryImpl productRepository;
+    private DatabaseUtils databaseUtils;
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = new ProductRepositoryImpl();
+        databaseUtils = new DatabaseUtils();
+
+        // Initialize the database schema
+        databaseUtils.runScript("init.sql");
+        categoryId = databaseUtils.executeInsert("INSERT INTO categories (name, description) VALUES (?, ?)", "TEST-category", "Test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Remove the products created by the tests
+        databaseUtils.executeUpdate("DELETE FROM products WHERE barcode LIKE 'TEST-%'");
+        databaseUtils.executeUpdate("DELETE FROM categories WHERE name = 'TEST-category'");
+    }
+
+    @Test
+    @DisplayName("Should insert a product and update it in place on the next save")
+    void shouldUpsertProduct() {
+        productRepository.saveProduct(new Product("TEST-1", "Apple", new BigDecimal("10.00"), categoryId));
+        productRepository.saveProduct(new Product("TEST-1", "Green Apple", new BigDecimal("11.50"), null));
+
+        Optional<ProductDTO> product = productRepository.getProductByBarcode("TEST-1");
+        assertTrue(product.isPresent(), "Product should be present");
+        assertEquals("Green Apple", product.get().getName());
+        assertEquals(0, new BigDecimal("11.50").compareTo(product.get().getPrice()));
+        assertEquals(1, productRepository.getAllProducts().stream().filter(p -> p.getBarcode().equals("TEST-1")).count());
+    }
+
+    @Test
+    @DisplayName("Should save products in batches and report progress after each commit")
+    void shouldSaveProductsInBatches() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            products.add(new Product("TEST-" + i, "Product " + i, BigDecimal.valueOf(i), categoryId));
+        }
+        List<Long> progress = new ArrayList<>();
+
+        long saved = productRepository.saveProducts(products, 10, progress::add);
+
+        assertEquals(25, saved);
+        assertEquals(List.of(10L, 20L, 25L), progress);
+        assertTrue(productRepository.existsByBarcode("TEST-24"));
+    }
+
+    @Test
+    @DisplayName("Should reject a batch with a product in an unknown category")
+    void shouldRejectBatchWithUnknownCategory() {
+        Long unknownCategory = databaseUtils.executeInsert("INSERT INTO categories (name, description) VALUES (?, ?)", "TEST-category", "Deleted");
+        databaseUtils.executeUpdate("DELETE FROM categories WHERE id = ?", unknownCategory);
+        List<Product> products = List.of(
+                new Product("TEST-FK1", "Known", BigDecimal.ONE, categoryId),
+                new Product("TEST-FK2", "Orphan", BigDecimal.ONE, unknownCategory));
+
+        assertThrows(RuntimeException.class, () -> productRepository.saveProducts(products, 10, saved -> { }));
+
+        // The whole batch is rolled back
+        assertFalse(productRepository.existsByBarcode("TEST-FK1"));
+        assertFalse(productRepository.existsByBarcode("TEST-FK2"));
+    }
+
+    @Test
+    @DisplayName("Should stream the same products as getAllProducts")
+    void shouldStreamAllProducts() {
+        productRepository.saveProduct(new Product("TEST-S1", "Pear", new BigDecimal("4.00"), null));
+        productRepository.saveProduct(new Product("TEST-S2", "Plum", new BigDecimal("5.00"), null));
+
+        List<String> streamed;
+        try (Stream<Product> products = productRepository.streamAllProducts()) {
+            streamed = products.map(Product::getBarcode).collect(Collectors.toList());
+        }
+
+        assertEquals(productRepository.getAllProducts().stream().map(Product::getBarcode).collect(Collectors.toList()), streamed);
+        assertTrue(streamed.containsAll(List.of("TEST-S1", "TEST-S2")));
+    }
+}
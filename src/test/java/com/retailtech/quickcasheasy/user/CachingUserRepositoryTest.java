@@ -0,0 +1,175 @@
+package com.retailtech.quickcasheasy.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingUserRepositoryTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private UserRepository delegate;
+    private CachingUserRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(UserRepository.class);
+        repository = new CachingUserRepository(delegate, new UserCache(2, 1_000, clock::get));
+    }
+
+    private void givenUser(long id, String username, UserRole role) {
+        when(delegate.getUserByUsername(username))
+                .thenReturn(Optional.of(new User(id, username, "secret", role)));
+    }
+
+    @Test
+    @DisplayName("Should serve repeat logins from the cache")
+    void shouldServeRepeatLookupsFromCache() {
+        givenUser(1L, "anna", UserRole.CASHIER);
+
+        repository.getUserByUsername("anna");
+        Optional<User> second = repository.getUserByUsername("anna");
+
+        assertEquals(UserRole.CASHIER, second.orElseThrow().getRole());
+        verify(delegate, times(1)).getUserByUsername("anna");
+    }
+
+    @Test
+    @DisplayName("Should load a user again once its entry has expired")
+    void shouldExpireEntries() {
+        givenUser(1L, "anna", UserRole.CASHIER);
+
+        repository.getUserByUsername("anna");
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_000));
+        repository.getUserByUsername("anna");
+
+        verify(delegate, times(2)).getUserByUsername("anna");
+    }
+
+    @Test
+    @DisplayName("Should not cache unknown usernames")
+    void shouldNotCacheMisses() {
+        when(delegate.getUserByUsername("new_user")).thenReturn(Optional.empty());
+
+        assertTrue(repository.getUserByUsername("new_user").isEmpty());
+        givenUser(3L, "new_user", UserRole.CUSTOMER);
+
+        assertTrue(repository.getUserByUsername("new_user").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should invalidate a user when it is saved or deleted")
+    void shouldInvalidateOnWrite() {
+        givenUser(1L, "anna", UserRole.CASHIER);
+        repository.getUserByUsername("anna");
+
+        repository.saveUser(new User(1L, "anna", "new-secret", UserRole.ADMIN));
+        repository.getUserByUsername("anna");
+        repository.deleteUserByUsername("anna");
+        repository.getUserByUsername("anna");
+
+        verify(delegate, times(3)).getUserByUsername("anna");
+    }
+
+    @Test
+    @DisplayName("Should drop the old name when a user is saved under a new name")
+    void shouldInvalidateRenamedUser() {
+        givenUser(1L, "anna", UserRole.CASHIER);
+        repository.getUserByUsername("anna");
+
+        repository.saveUser(new User(1L, "anna.k", "secret", UserRole.CASHIER));
+        repository.getUserByUsername("anna");
+
+        verify(delegate, times(2)).getUserByUsername("anna");
+    }
+
+    @Test
+    @DisplayName("Should invalidate users updated by ID or saved in a batch")
+    void shouldInvalidateOnUpdateAndBatchSave() {
+        givenUser(1L, "anna", UserRole.CASHIER);
+        givenUser(2L, "bob", UserRole.CASHIER);
+        repository.getUserByUsername("anna");
+        repository.getUserByUsername("bob");
+
+        repository.updateUser(new User(1L, "anna.k", "secret", UserRole.ADMIN));
+        repository.saveUsers(List.of(new User(null, "bob", "secret", UserRole.ADMIN)));
+        repository.getUserByUsername("anna");
+        repository.getUserByUsername("bob");
+
+        verify(delegate, times(2)).getUserByUsername("anna");
+        verify(delegate, times(2)).getUserByUsername("bob");
+    }
+
+    @Test
+    @DisplayName("Should not cache a user loaded while it was being updated")
+    void shouldNotCacheUserInvalidatedDuringLoad() {
+        User before = new User(1L, "anna", "secret", UserRole.CASHIER);
+        // The update commits and invalidates after the old row was read, but before it is cached
+        when(delegate.getUserByUsername("anna")).thenAnswer(invocation -> {
+            repository.updateUser(new User(1L, "anna", "secret", UserRole.ADMIN));
+            return Optional.of(before);
+        }).thenReturn(Optional.of(new User(1L, "anna", "secret", UserRole.ADMIN)));
+
+        assertEquals(UserRole.CASHIER, repository.getUserByUsername("anna").orElseThrow().getRole());
+        assertEquals(UserRole.ADMIN, repository.getUserByUsername("anna").orElseThrow().getRole());
+        verify(delegate, times(2)).getUserByUsername("anna");
+    }
+
+    @Test
+    @DisplayName("Should not cache a user whose ID was invalidated during the load")
+    void shouldNotCacheUserInvalidatedByIdDuringLoad() {
+        when(delegate.getUserByUsername("anna")).thenAnswer(invocation -> {
+            repository.updatePassword(1L, "secret", "rehashed");
+            return Optional.of(new User(1L, "anna", "secret", UserRole.CASHIER));
+        });
+
+        repository.getUserByUsername("anna");
+        repository.getUserByUsername("anna");
+
+        verify(delegate, times(2)).getUserByUsername("anna");
+    }
+
+    @Test
+    @DisplayName("Should invalidate a user whose password was replaced")
+    void shouldInvalidateOnPasswordUpdate() {
+        givenUser(1L, "anna", UserRole.CASHIER);
+        repository.getUserByUsername("anna");
+
+        repository.updatePassword(1L, "secret", "rehashed");
+        repository.getUserByUsername("anna");
+
+        verify(delegate, times(2)).getUserByUsername("anna");
+    }
+
+    @Test
+    @DisplayName("Should hand out copies, so changing a returned user does not change the cache")
+    void shouldReturnCopies() {
+        givenUser(1L, "anna", UserRole.CASHIER);
+
+        repository.getUserByUsername("anna").orElseThrow().setRole(UserRole.ADMIN);
+
+        assertEquals(UserRole.CASHIER, repository.getUserByUsername("anna").orElseThrow().getRole());
+    }
+
+    @Test
+    @DisplayName("Should keep at most the configured number of users")
+    void shouldBoundCacheSize() {
+        givenUser(1L, "anna", UserRole.CASHIER);
+        givenUser(2L, "bob", UserRole.CASHIER);
+        givenUser(3L, "carl", UserRole.ADMIN);
+
+        repository.getUserByUsername("anna");
+        repository.getUserByUsername("bob");
+        repository.getUserByUsername("carl");
+        repository.getUserByUsername("anna");
+
+        verify(delegate, times(2)).getUserByUsername("anna");
+    }
+}
@@ -0,0 +1,54 @@
+package com.retailtech.quickcasheasy.user;
+
+import com.retailtech.quickcasheasy.cart.dto.CartItemDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CartTableModelTest {
+
+    private final CartTableModel model = new CartTableModel();
+
+    @Test
+    void it_should_update_the_existing_row_in_place() {
+        // Given
+        model.lineAdded(new CartItemDTO("0100000000001", "Apple", 1, 1050));
+        CartLineRow row = model.getRows().get(0);
+        List<Number> observedTotals = new ArrayList<>();
+        row.totalPriceMinorUnitsProperty().addListener((observable, oldValue, newValue) -> observedTotals.add(newValue));
+
+        // When
+        model.lineUpdated(new CartItemDTO("0100000000001", "Apple", 3, 3150));
+
+        // Then
+        assertEquals(1, model.getRows().size());
+        assertSame(row, model.getRows().get(0));  // No new row was created
+        assertEquals(3, row.quantityProperty().get());
+        assertEquals(List.of(3150L), observedTotals);  // The table is notified of the change
+    }
+
+    @Test
+    void it_should_remove_and_clear_rows() {
+        // Given
+        model.lineAdded(new CartItemDTO("0100000000001", "Apple", 1, 1050));
+        model.lineAdded(new CartItemDTO("0100000000002", "Banana", 1, 1200));
+
+        // When
+        model.lineRemoved("0100000000001");
+
+        // Then
+        assertEquals(1, model.getRows().size());
+        assertEquals("Banana", model.getRows().get(0).getProductName());
+
+        // When
+        model.cartCleared();
+
+        // Then
+        assertTrue(model.getRows().isEmpty());
+    }
+}
@@ -0,0 +1,77 @@
+package com.retailtech.quickcasheasy.user;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Pbkdf2PasswordHasherTest {
+
+    private final Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher(1_000);
+
+    @Test
+    @DisplayName("Should verify a hashed password and reject a wrong one")
+    void shouldVerifyHashedPassword() {
+        String hash = hasher.hash("password123");
+
+        assertTrue(hash.startsWith(Pbkdf2PasswordHasher.PREFIX + "1000$"));
+        assertTrue(hasher.verify("password123", hash));
+        assertFalse(hasher.verify("password124", hash));
+    }
+
+    @Test
+    @DisplayName("Should salt every hash")
+    void shouldSaltEveryHash() {
+        assertNotEquals(hasher.hash("password123"), hasher.hash("password123"));
+    }
+
+    @Test
+    @DisplayName("Should verify legacy plaintext passwords and mark them for rehashing")
+    void shouldVerifyLegacyPlaintext() {
+        assertFalse(hasher.isHash("password123"));
+        assertTrue(hasher.verify("password123", "password123"));
+        assertFalse(hasher.verify("password", "password123"));
+        assertTrue(hasher.needsRehash("password123"));
+    }
+
+    @Test
+    @DisplayName("Should verify hashes made with another cost and rehash only lower ones")
+    void shouldRehashOnlyLowerCost() {
+        String weaker = new Pbkdf2PasswordHasher(500).hash("password123");
+        String stronger = new Pbkdf2PasswordHasher(2_000).hash("password123");
+
+        assertTrue(hasher.verify("password123", weaker));
+        assertTrue(hasher.verify("password123", stronger));
+        assertTrue(hasher.needsRehash(weaker));
+        assertFalse(hasher.needsRehash(stronger));
+        assertFalse(hasher.needsRehash(hasher.hash("password123")));
+    }
+
+    @Test
+    @DisplayName("Should only rehash below the minimum cost, not below the current one")
+    void shouldRehashOnlyBelowMinimum() {
+        Pbkdf2PasswordHasher calibrated = new Pbkdf2PasswordHasher(2_000, 1_000);
+
+        // A row hashed by an earlier run calibrated to a different count is kept
+        assertFalse(calibrated.needsRehash(new Pbkdf2PasswordHasher(1_500).hash("password123")));
+        assertTrue(calibrated.needsRehash(new Pbkdf2PasswordHasher(500).hash("password123")));
+        assertThrows(IllegalArgumentException.class, () -> new Pbkdf2PasswordHasher(1_000, 2_000));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed hashes")
+    void shouldRejectMalformedHashes() {
+        assertFalse(hasher.verify("password123", Pbkdf2PasswordHasher.PREFIX + "1000$not-base64!"));
+        assertFalse(hasher.verify("password123", Pbkdf2PasswordHasher.PREFIX + "x$AAAA$AAAA"));
+        assertFalse(hasher.verify(null, hasher.hash("password123")));
+    }
+
+    @Test
+    @DisplayName("Should calibrate within the allowed bounds")
+    void shouldCalibrateWithinBounds() {
+        int iterations = Pbkdf2PasswordHasher.calibrate(1);
+
+        assertEquals(Pbkdf2PasswordHasher.MIN_CALIBRATED_ITERATIONS, iterations);
+        assertEquals(0, Pbkdf2PasswordHasher.calibrate(50) % 1000);
+    }
+}
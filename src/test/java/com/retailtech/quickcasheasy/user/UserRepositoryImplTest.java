@@ -110,4 +110,77 @@ class UserRepositoryImplTest {
         });
         assertEquals("Username cannot be null", exception.getMessage());
     }
+
+    @Test
+    @DisplayName("Should update an existing user in place when saving the same username")
+    void shouldUpsertExistingUser() {
+        userRepository.saveUser(new User(null, "john_doe", "password", UserRole.CASHIER));
+        Long id = userRepository.getUserByUsername("john_doe").orElseThrow().getId();
+
+        userRepository.saveUser(new User(null, "john_doe", "new_password", UserRole.ADMIN));
+
+        User updated = userRepository.getUserByUsername("john_doe").orElseThrow();
+        assertEquals(id, updated.getId(), "Upsert should keep the row");
+        assertEquals("new_password", updated.getPassword());
+        assertEquals(UserRole.ADMIN, updated.getRole());
+        assertEquals(1, userRepository.getAllUsers().size());
+    }
+
+    @Test
+    @DisplayName("Should save a batch of users")
+    void shouldSaveUsersInBatch() {
+        int saved = userRepository.saveUsers(List.of(
+                new User(null, "user1", "pass1", UserRole.CASHIER),
+                new User(null, "user2", "pass2", UserRole.ADMIN),
+                new User(null, "user3", "pass3", UserRole.CUSTOMER)));
+
+        assertEquals(3, saved);
+        assertEquals(3, userRepository.getAllUsers().size());
+        assertEquals(UserRole.ADMIN, userRepository.getUserByUsername("user2").orElseThrow().getRole());
+    }
+
+    @Test
+    @DisplayName("Should save none of the batch when one user fails")
+    void shouldRollBackFailedBatch() {
+        List<User> users = List.of(
+                new User(null, "user1", "pass1", UserRole.CASHIER),
+                new User(null, "user2", null, UserRole.ADMIN));
+
+        assertThrows(RuntimeException.class, () -> userRepository.saveUsers(users));
+
+        assertTrue(userRepository.getAllUsers().isEmpty(), "No user from a failed batch should be saved");
+    }
+
+    @Test
+    @DisplayName("Should update a user by ID, including its username")
+    void shouldUpdateUserById() {
+        userRepository.saveUser(new User(null, "john_doe", "password", UserRole.CASHIER));
+        Long id = userRepository.getUserByUsername("john_doe").orElseThrow().getId();
+
+        assertTrue(userRepository.updateUser(new User(id, "john_smith", "password", UserRole.ADMIN)));
+
+        assertFalse(userRepository.getUserByUsername("john_doe").isPresent());
+        assertEquals(UserRole.ADMIN, userRepository.getUserById(id).orElseThrow().getRole());
+    }
+
+    @Test
+    @DisplayName("Should replace only the password, and only while it has the expected value")
+    void shouldCompareAndSetPassword() {
+        userRepository.saveUser(new User(null, "john_doe", "old", UserRole.CASHIER));
+        Long id = userRepository.getUserByUsername("john_doe").orElseThrow().getId();
+        userRepository.updateUser(new User(id, "john_doe", "old", UserRole.ADMIN));
+
+        assertFalse(userRepository.updatePassword(id, "stale", "new"));
+        assertTrue(userRepository.updatePassword(id, "old", "new"));
+
+        User updated = userRepository.getUserById(id).orElseThrow();
+        assertEquals("new", updated.getPassword());
+        assertEquals(UserRole.ADMIN, updated.getRole());
+    }
+
+    @Test
+    @DisplayName("Should report an update of an unknown user ID")
+    void shouldNotUpdateUnknownUser() {
+        assertFalse(userRepository.updateUser(new User(999L, "nobody", "password", UserRole.CASHIER)));
+    }
 }
@@ -1,9 +1,14 @@
 package com.retailtech.quickcasheasy.user;
 
+import com.retailtech.quickcasheasy.exception.UserNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -11,12 +16,14 @@ import static org.mockito.Mockito.*;
 class UserServiceTest {
 
     private UserRepository userRepository;
+    private PasswordHasher passwordHasher;
     private UserService userService;
 
     @BeforeEach
     void setUp() {
         userRepository = mock(UserRepository.class);  // Mock the repository
-        userService = new UserService(userRepository);  // Inject mock into service
+        passwordHasher = new Pbkdf2PasswordHasher(1_000);  // Cheap cost keeps the tests fast
+        userService = new UserService(userRepository, passwordHasher);  // Inject mock into service
     }
 
     @Test
@@ -65,4 +72,195 @@ class UserServiceTest {
         // Then
         assertFalse(result);  // Authentication should fail
     }
+
+    @Test
+    void it_should_return_user_with_role_from_a_single_lookup() {
+        // Given
+        User user = new User(1L, "john_doe", passwordHasher.hash("password123"), UserRole.ADMIN);
+        when(userRepository.getUserByUsername("john_doe")).thenReturn(Optional.of(user));
+
+        // When
+        Optional<User> result = userService.authenticate("john_doe", "password123");
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(UserRole.ADMIN, result.get().getRole());
+        verify(userRepository, times(1)).getUserByUsername("john_doe");
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void it_should_return_empty_for_unknown_user() {
+        // Given
+        when(userRepository.getUserByUsername("nobody")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertTrue(userService.authenticate("nobody", "password123").isEmpty());
+    }
+
+    @Test
+    void it_should_store_a_hash_when_registering_user() {
+        // When
+        userService.registerUser(1L, "john_doe", "password123", UserRole.CASHIER);
+
+        // Then
+        ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).saveUser(saved.capture());
+        assertTrue(passwordHasher.isHash(saved.getValue().getPassword()));
+        assertTrue(passwordHasher.verify("password123", saved.getValue().getPassword()));
+    }
+
+    @Test
+    void it_should_migrate_plaintext_password_on_successful_login() {
+        // Given
+        User user = new User(1L, "john_doe", "password123", UserRole.CASHIER);
+        when(userRepository.getUserByUsername("john_doe")).thenReturn(Optional.of(user));
+        when(userRepository.updatePassword(eq(1L), eq("password123"), anyString())).thenReturn(true);
+
+        // When
+        assertTrue(userService.authenticate("john_doe", "password123").isPresent());
+
+        // Then only the password is replaced, and only if it is still the plaintext value
+        ArgumentCaptor<String> rehashed = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).updatePassword(eq(1L), eq("password123"), rehashed.capture());
+        verify(userRepository, never()).saveUser(any(User.class));
+        assertTrue(passwordHasher.isHash(rehashed.getValue()));
+        assertTrue(passwordHasher.verify("password123", rehashed.getValue()));
+    }
+
+    @Test
+    void it_should_not_migrate_plaintext_password_on_failed_login() {
+        // Given
+        User user = new User(1L, "john_doe", "password123", UserRole.CASHIER);
+        when(userRepository.getUserByUsername("john_doe")).thenReturn(Optional.of(user));
+
+        // When
+        assertTrue(userService.authenticate("john_doe", "wrong_password").isEmpty());
+
+        // Then
+        verify(userRepository, never()).updatePassword(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    void it_should_rehash_password_hashed_with_a_lower_cost() {
+        // Given
+        String weak = new Pbkdf2PasswordHasher(500).hash("password123");
+        User user = new User(1L, "john_doe", weak, UserRole.CASHIER);
+        when(userRepository.getUserByUsername("john_doe")).thenReturn(Optional.of(user));
+
+        // When
+        assertTrue(userService.authenticate("john_doe", "password123").isPresent());
+
+        // Then
+        ArgumentCaptor<String> rehashed = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).updatePassword(eq(1L), eq(weak), rehashed.capture());
+        assertFalse(passwordHasher.needsRehash(rehashed.getValue()));
+    }
+
+    @Test
+    void it_should_keep_the_login_when_the_password_changed_before_the_rehash() {
+        // Given a cached user whose password was reset after it was loaded
+        User user = new User(1L, "john_doe", "password123", UserRole.CASHIER);
+        when(userRepository.getUserByUsername("john_doe")).thenReturn(Optional.of(user));
+        when(userRepository.updatePassword(eq(1L), eq("password123"), anyString())).thenReturn(false);
+
+        // When
+        assertTrue(userService.authenticate("john_doe", "password123").isPresent());
+
+        // Then the reset is not overwritten
+        assertEquals("password123", user.getPassword());
+        verify(userRepository, never()).saveUser(any(User.class));
+        verify(userRepository, never()).updateUser(any(User.class));
+    }
+
+    @Test
+    void it_should_keep_an_existing_hash_when_updating_user() {
+        // Given
+        String hash = passwordHasher.hash("password123");
+        User user = new User(1L, "john_doe", hash, UserRole.ADMIN);
+        when(userRepository.updateUser(user)).thenReturn(true);
+
+        // When
+        userService.updateUser(user);
+
+        // Then
+        verify(userRepository).updateUser(user);
+        assertEquals(hash, user.getPassword());
+    }
+
+    @Test
+    void it_should_hash_a_new_password_when_updating_user() {
+        // Given
+        User user = new User(1L, "john_doe", "new_password", UserRole.ADMIN);
+        when(userRepository.updateUser(user)).thenReturn(true);
+
+        // When
+        userService.updateUser(user);
+
+        // Then
+        assertTrue(passwordHasher.verify("new_password", user.getPassword()));
+        assertNotEquals("new_password", user.getPassword());
+    }
+
+    @Test
+    void it_should_update_user_with_a_single_repository_call() {
+        // Given
+        User user = new User(1L, "john_doe", passwordHasher.hash("password123"), UserRole.ADMIN);
+        when(userRepository.updateUser(user)).thenReturn(true);
+
+        // When
+        userService.updateUser(user);
+
+        // Then
+        verify(userRepository).updateUser(user);
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void it_should_throw_when_updating_unknown_user() {
+        // Given
+        User user = new User(42L, "nobody", "password123", UserRole.CASHIER);
+        when(userRepository.updateUser(user)).thenReturn(false);
+
+        // When & Then
+        assertThrows(UserNotFoundException.class, () -> userService.updateUser(user));
+    }
+
+    @Test
+    void it_should_register_users_in_one_batch_with_hashed_passwords() {
+        // Given
+        List<User> users = List.of(
+                new User(null, "anna", "pass1", UserRole.CASHIER),
+                new User(null, "bob", "pass2", UserRole.ADMIN));
+        when(userRepository.saveUsers(anyCollection())).thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+
+        // When
+        int saved = userService.registerUsers(users);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<User>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(userRepository).saveUsers(batch.capture());
+        assertEquals(2, saved);
+        assertTrue(batch.getValue().stream().allMatch(user -> passwordHasher.isHash(user.getPassword())));
+        verify(userRepository, never()).saveUser(any(User.class));
+    }
+
+    @Test
+    void it_should_resolve_the_password_hasher_only_when_a_password_is_checked() {
+        // Given
+        AtomicInteger resolved = new AtomicInteger();
+        UserService lazyService = new UserService(userRepository, () -> {
+            resolved.incrementAndGet();
+            return passwordHasher;
+        });
+        assertEquals(0, resolved.get());  // Building the service does not calibrate the hasher
+        when(userRepository.getUserByUsername("john_doe")).thenReturn(Optional.empty());
+
+        // When
+        lazyService.authenticate("john_doe", "password123");
+
+        // Then
+        assertTrue(resolved.get() > 0);
+    }
 }